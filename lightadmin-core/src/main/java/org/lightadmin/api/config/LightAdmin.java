@@ -46,8 +46,33 @@ public class LightAdmin {
         return this;
     }
 
+    public LightAdmin fileStorageType(String fileStorageType) {
+        servletContext.setInitParameter(LIGHT_ADMINISTRATION_FILE_STORAGE_TYPE, fileStorageType);
+        return this;
+    }
+
     public LightAdmin fileStreaming(boolean fileStreaming) {
         servletContext.setInitParameter(LIGHT_ADMINISTRATION_FILE_STREAMING, Boolean.toString(fileStreaming));
         return this;
     }
+
+    public LightAdmin fileRenditions(String fileRenditions) {
+        servletContext.setInitParameter(LIGHT_ADMINISTRATION_FILE_RENDITIONS, fileRenditions);
+        return this;
+    }
+
+    public LightAdmin imageProcessingThreads(int imageProcessingThreads) {
+        servletContext.setInitParameter(LIGHT_ADMINISTRATION_IMAGE_PROCESSING_THREADS, Integer.toString(imageProcessingThreads));
+        return this;
+    }
+
+    public LightAdmin imageProcessingQueue(int imageProcessingQueue) {
+        servletContext.setInitParameter(LIGHT_ADMINISTRATION_IMAGE_PROCESSING_QUEUE, Integer.toString(imageProcessingQueue));
+        return this;
+    }
+
+    public LightAdmin associationOptionsLimit(int associationOptionsLimit) {
+        servletContext.setInitParameter(LIGHT_ADMINISTRATION_ASSOCIATION_OPTIONS_LIMIT, Integer.toString(associationOptionsLimit));
+        return this;
+    }
 }
\ No newline at end of file
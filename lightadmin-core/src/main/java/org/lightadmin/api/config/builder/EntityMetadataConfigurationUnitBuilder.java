@@ -20,5 +20,7 @@ public interface EntityMetadataConfigurationUnitBuilder extends ConfigurationUni
 
     EntityMetadataConfigurationUnitBuilder enumeration(EnumElement... elements);
 
+    EntityMetadataConfigurationUnitBuilder eagerAssociations(String... associations);
+
     EntityMetadataConfigurationUnitBuilder repositoryEventListener(Class<? extends AbstractRepositoryEventListener> listenerClass);
 }
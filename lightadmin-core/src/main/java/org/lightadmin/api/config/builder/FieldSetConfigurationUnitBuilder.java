@@ -17,4 +17,10 @@ public interface FieldSetConfigurationUnitBuilder extends ConfigurationUnitBuild
 
     FieldSetConfigurationUnitBuilder enumeration(EnumElement... elements);
 
+    /**
+     * Associations of the domain type to load together with list view rows, for renderers walking them.
+     * Dotted paths fetch nested associations, collections are loaded for the whole page at once.
+     */
+    FieldSetConfigurationUnitBuilder fetch(String... associationPaths);
+
 }
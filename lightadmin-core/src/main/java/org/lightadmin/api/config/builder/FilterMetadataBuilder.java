@@ -1,5 +1,6 @@
 package org.lightadmin.api.config.builder;
 
+import org.lightadmin.api.config.utils.FilterOperator;
 import org.lightadmin.core.config.domain.filter.FilterMetadata;
 
 public interface FilterMetadataBuilder {
@@ -8,6 +9,10 @@ public interface FilterMetadataBuilder {
 
     FilterMetadataBuilder caption(String filterName);
 
+    FilterMetadataBuilder matchAllValues(boolean matchAllValues);
+
+    FilterMetadataBuilder defaultOperator(FilterOperator defaultOperator);
+
     FilterMetadata build();
 
 }
\ No newline at end of file
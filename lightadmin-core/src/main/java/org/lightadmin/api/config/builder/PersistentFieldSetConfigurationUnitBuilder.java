@@ -17,4 +17,6 @@ public interface PersistentFieldSetConfigurationUnitBuilder extends Configuratio
     PersistentFieldSetConfigurationUnitBuilder enumeration(EnumElement... elements);
 
     PersistentFieldSetConfigurationUnitBuilder editor(JspFragmentFieldControl editControl);
+
+    PersistentFieldSetConfigurationUnitBuilder fetch(String... associationPaths);
 }
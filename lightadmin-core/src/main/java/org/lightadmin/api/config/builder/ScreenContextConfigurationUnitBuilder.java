@@ -1,10 +1,17 @@
 package org.lightadmin.api.config.builder;
 
 import org.lightadmin.api.config.unit.ScreenContextConfigurationUnit;
+import org.lightadmin.api.config.utils.PagingStrategy;
 import org.lightadmin.core.config.domain.unit.ConfigurationUnitBuilder;
 
 public interface ScreenContextConfigurationUnitBuilder extends ConfigurationUnitBuilder<ScreenContextConfigurationUnit> {
 
     ScreenContextConfigurationUnitBuilder screenName(String screenName);
 
+    ScreenContextConfigurationUnitBuilder keysetPagination(boolean keysetPagination);
+
+    ScreenContextConfigurationUnitBuilder pagingStrategy(PagingStrategy pagingStrategy);
+
+    ScreenContextConfigurationUnitBuilder listViewProjection(boolean listViewProjection);
+
 }
\ No newline at end of file
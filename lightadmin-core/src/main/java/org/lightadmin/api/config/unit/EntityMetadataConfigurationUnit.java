@@ -4,12 +4,24 @@ import org.lightadmin.api.config.utils.EntityNameExtractor;
 import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
 import org.springframework.data.rest.core.event.AbstractRepositoryEventListener;
 
+import java.util.Set;
+
 public interface EntityMetadataConfigurationUnit extends ConfigurationUnit {
 
     Class<? extends AbstractRepositoryEventListener> getRepositoryEventListener();
 
     EntityNameExtractor getNameExtractor();
 
+    /**
+     * @return persistent field entity names are taken from, null for custom name extractors
+     */
+    String getNameField();
+
+    /**
+     * @return associations whose edit controls are filled with all options up front instead of looking them up on demand
+     */
+    Set<String> getEagerAssociations();
+
     String getSingularName();
 
     String getPluralName();
@@ -1,8 +1,15 @@
 package org.lightadmin.api.config.unit;
 
+import org.lightadmin.api.config.utils.PagingStrategy;
 import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
 
 public interface ScreenContextConfigurationUnit extends ConfigurationUnit {
 
     String getScreenName();
+
+    boolean isKeysetPagination();
+
+    PagingStrategy getPagingStrategy();
+
+    boolean isListViewProjection();
 }
\ No newline at end of file
@@ -14,7 +14,7 @@ public abstract class FilterMetadataUtils {
     }
 
     public static FilterMetadata filter(String filterName, String fieldName) {
-        return new DefaultFilterMetadata(filterName, fieldName);
+        return new DefaultFilterMetadata(filterName, fieldName, false, null);
     }
 
     public static FilterMetadataBuilder filter() {
@@ -24,12 +24,16 @@ public abstract class FilterMetadataUtils {
     private static class DefaultFilterMetadata implements FilterMetadata {
 
         private final PersistentFieldMetadata fieldMetadata;
+        private final boolean matchAllValues;
+        private final FilterOperator defaultOperator;
 
-        public DefaultFilterMetadata(final String filterName, final String fieldName) {
+        public DefaultFilterMetadata(final String filterName, final String fieldName, final boolean matchAllValues, final FilterOperator defaultOperator) {
             Assert.notNull(filterName);
             Assert.notNull(fieldName);
 
             this.fieldMetadata = (PersistentFieldMetadata) FieldMetadataFactory.persistentField(filterName, fieldName);
+            this.matchAllValues = matchAllValues;
+            this.defaultOperator = defaultOperator;
         }
 
         @Override
@@ -67,6 +71,16 @@ public abstract class FilterMetadataUtils {
             return fieldMetadata;
         }
 
+        @Override
+        public boolean isMatchAllValues() {
+            return matchAllValues;
+        }
+
+        @Override
+        public FilterOperator getDefaultOperator() {
+            return defaultOperator;
+        }
+
         @Override
         public void setPersistentProperty(final PersistentProperty persistentProperty) {
             this.fieldMetadata.setPersistentProperty(persistentProperty);
@@ -96,6 +110,8 @@ public abstract class FilterMetadataUtils {
 
         private String filterName = "Undefined";
         private String fieldName = "Undefined";
+        private boolean matchAllValues;
+        private FilterOperator defaultOperator;
 
         @Override
         public DefaultFilterMetadataBuilder field(String fieldName) {
@@ -109,9 +125,21 @@ public abstract class FilterMetadataUtils {
             return this;
         }
 
+        @Override
+        public DefaultFilterMetadataBuilder matchAllValues(boolean matchAllValues) {
+            this.matchAllValues = matchAllValues;
+            return this;
+        }
+
+        @Override
+        public DefaultFilterMetadataBuilder defaultOperator(FilterOperator defaultOperator) {
+            this.defaultOperator = defaultOperator;
+            return this;
+        }
+
         @Override
         public FilterMetadata build() {
-            return filter(filterName, fieldName);
+            return new DefaultFilterMetadata(filterName, fieldName, matchAllValues, defaultOperator);
         }
     }
 }
\ No newline at end of file
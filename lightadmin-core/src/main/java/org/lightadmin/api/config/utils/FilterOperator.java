@@ -0,0 +1,38 @@
+package org.lightadmin.api.config.utils;
+
+/**
+ * Comparison applied by a filter. Selected per request with a parameter suffix, e.g. {@code price.gte=10},
+ * {@code created.between=2014-01-01,2014-12-31}, {@code status.in=NEW,OPEN}, {@code name.prefix=Jo} or {@code email.isNull=true}.
+ */
+public enum FilterOperator {
+
+    EQ("eq"),
+    CONTAINS("contains"),
+    PREFIX("prefix"),
+    GT("gt"),
+    GTE("gte"),
+    LT("lt"),
+    LTE("lte"),
+    BETWEEN("between"),
+    IN("in"),
+    IS_NULL("isNull");
+
+    private final String suffix;
+
+    FilterOperator(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public static FilterOperator forSuffix(String suffix) {
+        for (FilterOperator operator : values()) {
+            if (operator.suffix.equals(suffix)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
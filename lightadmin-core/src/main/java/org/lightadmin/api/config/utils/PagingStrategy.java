@@ -0,0 +1,51 @@
+package org.lightadmin.api.config.utils;
+
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+
+public class PagingStrategy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum CountMode {
+        EXACT, CAPPED, NONE
+    }
+
+    private final CountMode countMode;
+    private final long countLimit;
+
+    private PagingStrategy(CountMode countMode, long countLimit) {
+        this.countMode = countMode;
+        this.countLimit = countLimit;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public long getCountLimit() {
+        return countLimit;
+    }
+
+    public boolean isExactCount() {
+        return countMode == CountMode.EXACT;
+    }
+
+    public boolean isCappedCount() {
+        return countMode == CountMode.CAPPED;
+    }
+
+    public static PagingStrategy exactCount() {
+        return new PagingStrategy(CountMode.EXACT, Long.MAX_VALUE);
+    }
+
+    public static PagingStrategy cappedCount(long countLimit) {
+        Assert.isTrue(countLimit > 0, "Count limit must be positive");
+        return new PagingStrategy(CountMode.CAPPED, countLimit);
+    }
+
+    public static PagingStrategy noCount() {
+        return new PagingStrategy(CountMode.NONE, 0);
+    }
+}
@@ -1,7 +1,11 @@
 package org.lightadmin.core.config;
 
+import org.lightadmin.core.rest.binary.FileStorageType;
+
+import java.awt.*;
 import java.io.File;
 import java.net.URI;
+import java.util.List;
 
 public interface LightAdminConfiguration {
 
@@ -21,6 +25,16 @@ public interface LightAdminConfiguration {
 
     File getFileStorageDirectory();
 
+    FileStorageType getFileStorageType();
+
     boolean isFileStreamingEnabled();
 
+    List<Dimension> getFileRenditionSizes();
+
+    int getImageProcessingThreads();
+
+    int getImageProcessingQueueDepth();
+
+    int getAssociationOptionsLimit();
+
 }
\ No newline at end of file
@@ -1,15 +1,21 @@
 package org.lightadmin.core.config;
 
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.lightadmin.core.rest.binary.FileStorageType;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.ServletContext;
+import java.awt.*;
 import java.io.File;
 import java.net.URI;
+import java.util.List;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static org.apache.commons.io.FileUtils.getFile;
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.split;
 import static org.lightadmin.core.util.LightAdminConfigurationUtils.*;
 
 public class StandardLightAdminConfiguration implements LightAdminConfiguration {
@@ -20,7 +26,12 @@ public class StandardLightAdminConfiguration implements LightAdminConfiguration
     private final String securityLogoutUrl;
     private final String backToSiteUrl;
     private final File fileStorageDirectory;
+    private final FileStorageType fileStorageType;
     private final boolean fileStreaming;
+    private final List<Dimension> fileRenditionSizes;
+    private final int imageProcessingThreads;
+    private final int imageProcessingQueueDepth;
+    private final int associationOptionsLimit;
     private final String basePackage;
 
     public StandardLightAdminConfiguration(ServletContext servletContext) {
@@ -31,7 +42,12 @@ public class StandardLightAdminConfiguration implements LightAdminConfiguration
         this.backToSiteUrl = backToSiteUrl(servletContext);
 
         this.fileStorageDirectory = fileStorageDirectory(servletContext);
+        this.fileStorageType = FileStorageType.forName(servletContext.getInitParameter(LIGHT_ADMINISTRATION_FILE_STORAGE_TYPE));
         this.fileStreaming = BooleanUtils.toBoolean(servletContext.getInitParameter(LIGHT_ADMINISTRATION_FILE_STREAMING));
+        this.fileRenditionSizes = fileRenditionSizes(servletContext);
+        this.imageProcessingThreads = NumberUtils.toInt(servletContext.getInitParameter(LIGHT_ADMINISTRATION_IMAGE_PROCESSING_THREADS), LIGHT_ADMIN_IMAGE_PROCESSING_THREADS_DEFAULT);
+        this.imageProcessingQueueDepth = NumberUtils.toInt(servletContext.getInitParameter(LIGHT_ADMINISTRATION_IMAGE_PROCESSING_QUEUE), LIGHT_ADMIN_IMAGE_PROCESSING_QUEUE_DEFAULT);
+        this.associationOptionsLimit = NumberUtils.toInt(servletContext.getInitParameter(LIGHT_ADMINISTRATION_ASSOCIATION_OPTIONS_LIMIT), LIGHT_ADMIN_ASSOCIATION_OPTIONS_LIMIT_DEFAULT);
 
         this.securityEnabled = BooleanUtils.toBoolean(servletContext.getInitParameter(LIGHT_ADMINISTRATION_SECURITY));
         if (securityEnabled) {
@@ -56,11 +72,36 @@ public class StandardLightAdminConfiguration implements LightAdminConfiguration
         return fileStorageDirectory;
     }
 
+    @Override
+    public FileStorageType getFileStorageType() {
+        return fileStorageType;
+    }
+
     @Override
     public boolean isFileStreamingEnabled() {
         return fileStreaming;
     }
 
+    @Override
+    public List<Dimension> getFileRenditionSizes() {
+        return fileRenditionSizes;
+    }
+
+    @Override
+    public int getImageProcessingThreads() {
+        return imageProcessingThreads;
+    }
+
+    @Override
+    public int getImageProcessingQueueDepth() {
+        return imageProcessingQueueDepth;
+    }
+
+    @Override
+    public int getAssociationOptionsLimit() {
+        return associationOptionsLimit;
+    }
+
     @Override
     public String getBackToSiteUrl() {
         return backToSiteUrl;
@@ -92,6 +133,19 @@ public class StandardLightAdminConfiguration implements LightAdminConfiguration
         return isBlank(fileStoragePath) ? null : getFile(fileStoragePath);
     }
 
+    private List<Dimension> fileRenditionSizes(ServletContext servletContext) {
+        final String fileRenditions = defaultIfBlank(servletContext.getInitParameter(LIGHT_ADMINISTRATION_FILE_RENDITIONS), LIGHT_ADMIN_FILE_RENDITIONS_DEFAULT);
+
+        final List<Dimension> result = newArrayList();
+        for (String rendition : split(fileRenditions, ", ")) {
+            final String[] size = split(rendition, "x");
+            if (size.length == 2) {
+                result.add(new Dimension(Integer.parseInt(size[0]), Integer.parseInt(size[1])));
+            }
+        }
+        return result;
+    }
+
     private String backToSiteUrl(ServletContext servletContext) {
         final String backToSiteUrl = servletContext.getInitParameter(LIGHT_ADMINISTRATION_BACK_TO_SITE_URL);
 
@@ -28,6 +28,7 @@ import java.util.Set;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata.persistentEntityMetadata;
 import static org.lightadmin.reporting.ProblemReporterFactory.failFastReporter;
 
 @SuppressWarnings("unused")
@@ -95,9 +96,17 @@ public class GlobalAdministrationConfigurationFactoryBean extends AbstractFactor
             registerAssociationDomainTypeConfigurations(domainTypeAdministrationConfiguration, globalAdministrationConfiguration);
         }
 
+        registerPersistentEntityMetadata(globalAdministrationConfiguration);
+
         return globalAdministrationConfiguration;
     }
 
+    private void registerPersistentEntityMetadata(GlobalAdministrationConfiguration globalAdministrationConfiguration) {
+        for (DomainTypeBasicConfiguration domainTypeConfiguration : globalAdministrationConfiguration.getDomainTypeConfigurations().values()) {
+            globalAdministrationConfiguration.registerPersistentEntityMetadata(persistentEntityMetadata(domainTypeConfiguration.getPersistentEntity(), globalAdministrationConfiguration));
+        }
+    }
+
     private void registerAssociationDomainTypeConfigurations(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, final GlobalAdministrationConfiguration globalAdministrationConfiguration) {
         PersistentEntity persistentEntity = domainTypeAdministrationConfiguration.getPersistentEntity();
 
@@ -8,6 +8,7 @@ import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
 import org.lightadmin.core.config.domain.unit.ConfigurationUnits;
 import org.lightadmin.core.persistence.repository.DynamicRepositoryClassFactory;
 import org.lightadmin.core.persistence.repository.JavassistDynamicJpaRepositoryClassFactory;
+import org.lightadmin.core.persistence.repository.support.DynamicJpaRepositoryFactoryBean;
 import org.lightadmin.core.util.DynamicRepositoryBeanNameGenerator;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -17,7 +18,6 @@ import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
 import org.springframework.data.rest.core.event.AbstractRepositoryEventListener;
 import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.orm.jpa.SharedEntityManagerCreator;
@@ -143,7 +143,7 @@ public class LightAdminBeanDefinitionRegistryPostProcessor implements BeanDefini
     }
 
     private BeanDefinition repositoryFactory(Class<?> repoInterface, EntityManager entityManager) {
-        BeanDefinitionBuilder builder = rootBeanDefinition(JpaRepositoryFactoryBean.class);
+        BeanDefinitionBuilder builder = rootBeanDefinition(DynamicJpaRepositoryFactoryBean.class);
         builder.addPropertyValue("entityManager", entityManager);
         builder.addPropertyReference("mappingContext", JPA_MAPPPING_CONTEXT_BEAN);
         builder.addPropertyValue("repositoryInterface", repoInterface);
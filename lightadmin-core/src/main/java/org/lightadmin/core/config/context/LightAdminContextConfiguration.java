@@ -3,6 +3,8 @@ package org.lightadmin.core.config.context;
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.StandardLightAdminConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
+import org.lightadmin.core.rest.binary.ImageRenditionCache;
 import org.lightadmin.core.view.LightAdminSpringTilesInitializer;
 import org.lightadmin.core.view.LightAdminTilesView;
 import org.lightadmin.core.web.ApplicationController;
@@ -14,6 +16,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.data.rest.webmvc.ServerHttpRequestMethodArgumentResolver;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.context.support.ServletContextResourceLoader;
@@ -66,8 +69,25 @@ public class LightAdminContextConfiguration extends WebMvcConfigurerAdapter {
 
     @Bean
     @Autowired
-    public FileResourceLoader fileResourceLoader(GlobalAdministrationConfiguration globalAdministrationConfiguration, LightAdminConfiguration lightAdminConfiguration) {
-        return new FileResourceLoader(globalAdministrationConfiguration, lightAdminConfiguration);
+    public FileResourceLoader fileResourceLoader(GlobalAdministrationConfiguration globalAdministrationConfiguration, LightAdminConfiguration lightAdminConfiguration, FileMetadataCache fileMetadataCache) {
+        return new FileResourceLoader(globalAdministrationConfiguration, lightAdminConfiguration, imageRenditionCache(lightAdminConfiguration), fileMetadataCache);
+    }
+
+    @Bean
+    @Autowired
+    public ImageRenditionCache imageRenditionCache(LightAdminConfiguration lightAdminConfiguration) {
+        return new ImageRenditionCache(lightAdminConfiguration, imageProcessingExecutor(lightAdminConfiguration), ImageRenditionCache.DEFAULT_MEMORY_LIMIT);
+    }
+
+    @Bean
+    @Autowired
+    public ThreadPoolTaskExecutor imageProcessingExecutor(LightAdminConfiguration lightAdminConfiguration) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(lightAdminConfiguration.getImageProcessingThreads());
+        executor.setMaxPoolSize(lightAdminConfiguration.getImageProcessingThreads());
+        executor.setQueueCapacity(lightAdminConfiguration.getImageProcessingQueueDepth());
+        executor.setThreadNamePrefix("lightadmin-image-processing-");
+        return executor;
     }
 
     @Bean
@@ -5,6 +5,8 @@ import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.bootstrap.RepositoriesFactoryBean;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
 import org.lightadmin.core.rest.DomainRepositoryEventListener;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
+import org.lightadmin.core.rest.binary.FileUploadStorage;
 import org.springframework.beans.BeanInstantiationException;
 import org.springframework.beans.ConfigurablePropertyAccessor;
 import org.springframework.beans.factory.ListableBeanFactory;
@@ -23,6 +25,13 @@ import org.springframework.data.rest.webmvc.DynamicDomainObjectMerger;
 import org.springframework.data.rest.webmvc.DynamicPersistentEntityResourceProcessor;
 import org.springframework.data.rest.webmvc.config.RepositoryRestMvcConfiguration;
 import org.springframework.data.rest.webmvc.jackson.LightAdminJacksonModule;
+import org.springframework.data.rest.webmvc.support.AssociationOptionsCache;
+import org.springframework.data.rest.webmvc.support.BulkOperationService;
+import org.springframework.data.rest.webmvc.support.PredicateScopeSearcher;
+import org.springframework.data.rest.webmvc.support.ScopeCountService;
+import org.springframework.data.rest.webmvc.support.SpecificationCreator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.validation.Validator;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
@@ -40,7 +49,7 @@ public class LightAdminRepositoryRestMvcConfiguration extends RepositoryRestMvcC
 
     @Bean
     public DynamicPersistentEntityResourceProcessor dynamicPersistentEntityResourceProcessor() {
-        return new DynamicPersistentEntityResourceProcessor(globalAdministrationConfiguration(), lightAdminConfiguration());
+        return new DynamicPersistentEntityResourceProcessor(globalAdministrationConfiguration(), lightAdminConfiguration(), fileMetadataCache());
     }
 
     @Bean
@@ -69,11 +78,57 @@ public class LightAdminRepositoryRestMvcConfiguration extends RepositoryRestMvcC
         return new DynamicRepositoryInvokerFactory(repositories(), defaultConversionService());
     }
 
+    @Bean
+    public PredicateScopeSearcher predicateScopeSearcher() {
+        return new PredicateScopeSearcher();
+    }
+
+    @Bean
+    public ScopeCountService scopeCountService() {
+        return new ScopeCountService();
+    }
+
+    @Bean
+    public AssociationOptionsCache associationOptionsCache() {
+        return new AssociationOptionsCache(lightAdminConfiguration().getAssociationOptionsLimit());
+    }
+
+    @Bean
+    public SpecificationCreator specificationCreator() {
+        return new SpecificationCreator(defaultConversionService(), globalAdministrationConfiguration());
+    }
+
+    @Bean
+    public BulkOperationService bulkOperationService() throws Exception {
+        return new BulkOperationService(globalAdministrationConfiguration(), repositories(), (DynamicDomainObjectMerger) domainObjectMerger(), defaultConversionService(),
+                beanFactory.getBean("transactionManager", PlatformTransactionManager.class), bulkOperationExecutor(), BulkOperationService.DEFAULT_CHUNK_SIZE);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor bulkOperationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("lightadmin-bulk-operation-");
+        return executor;
+    }
+
     @Bean
     public ConfigurationHandlerMethodArgumentResolver configurationHandlerMethodArgumentResolver() {
         return new ConfigurationHandlerMethodArgumentResolver(globalAdministrationConfiguration(), resourceMetadataHandlerMethodArgumentResolver());
     }
 
+    @Bean
+    public FileMetadataCache fileMetadataCache() {
+        return new FileMetadataCache(FileMetadataCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @Bean
+    public FileUploadStorage fileUploadStorage() {
+        return new FileUploadStorage(lightAdminConfiguration());
+    }
+
     @Bean
     public DomainRepositoryEventListener domainRepositoryEventListener() {
         return new DomainRepositoryEventListener();
@@ -109,7 +164,7 @@ public class LightAdminRepositoryRestMvcConfiguration extends RepositoryRestMvcC
 
     @Override
     protected void configureJacksonObjectMapper(ObjectMapper objectMapper) {
-        objectMapper.registerModule(new LightAdminJacksonModule(globalAdministrationConfiguration()));
+        objectMapper.registerModule(new LightAdminJacksonModule(globalAdministrationConfiguration(), fileUploadStorage()));
     }
 
     @SuppressWarnings("unchecked")
@@ -1,36 +1,63 @@
 package org.lightadmin.core.config.domain;
 
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.collect.Maps.newConcurrentMap;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
+import static org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata.persistentEntityMetadata;
 
 @SuppressWarnings("unchecked")
 public class GlobalAdministrationConfiguration {
 
     private final Map<Class<?>, DomainTypeAdministrationConfiguration> managedDomainTypeConfigurations = newConcurrentMap();
     private final Map<Class<?>, DomainTypeBasicConfiguration> domainTypeConfigurations = newConcurrentMap();
+    private final Map<Class<?>, PersistentEntityMetadata> persistentEntityMetadata = newConcurrentMap();
+    private final AtomicLong version = new AtomicLong();
 
     public void registerDomainTypeConfiguration(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration) {
         managedDomainTypeConfigurations.put(domainTypeAdministrationConfiguration.getDomainType(), domainTypeAdministrationConfiguration);
         domainTypeConfigurations.put(domainTypeAdministrationConfiguration.getDomainType(), domainTypeAdministrationConfiguration);
+        persistentEntityMetadata.clear();
+        version.incrementAndGet();
     }
 
     public void registerNonDomainTypeConfiguration(DomainTypeBasicConfiguration domainTypeBasicConfiguration) {
         domainTypeConfigurations.put(domainTypeBasicConfiguration.getDomainType(), domainTypeBasicConfiguration);
+        persistentEntityMetadata.clear();
+        version.incrementAndGet();
+    }
+
+    public void registerPersistentEntityMetadata(PersistentEntityMetadata metadata) {
+        persistentEntityMetadata.put(metadata.getPersistentEntity().getType(), metadata);
     }
 
     public void removeDomainTypeConfiguration(final Class<?> domainType) {
         managedDomainTypeConfigurations.remove(domainType);
+        version.incrementAndGet();
     }
 
     public void removeAllDomainTypeAdministrationConfigurations() {
         managedDomainTypeConfigurations.clear();
 
         domainTypeConfigurations.clear();
+
+        persistentEntityMetadata.clear();
+
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return a number that changes whenever domain type configurations are registered or removed,
+     * for caches derived from the configurations to tell stale entries apart
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     public Set<Class<?>> getManagedDomainTypes() {
@@ -77,6 +104,22 @@ public class GlobalAdministrationConfiguration {
         return domainTypeConfigurations.get(domainType);
     }
 
+    public PersistentEntityMetadata forPersistentEntity(Class<?> domainType) {
+        PersistentEntityMetadata metadata = persistentEntityMetadata.get(domainType);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        DomainTypeBasicConfiguration domainTypeConfiguration = forDomainType(domainType);
+        if (domainTypeConfiguration == null) {
+            return null;
+        }
+
+        metadata = persistentEntityMetadata(domainTypeConfiguration.getPersistentEntity(), this);
+        persistentEntityMetadata.put(domainType, metadata);
+        return metadata;
+    }
+
     public DomainTypeAdministrationConfiguration forEntityName(String entityName) {
         for (DomainTypeAdministrationConfiguration configuration : managedDomainTypeConfigurations.values()) {
             if (equalsIgnoreCase(entityName, configuration.getDomainTypeName()) || equalsIgnoreCase(entityName, configuration.getPluralDomainTypeName())) {
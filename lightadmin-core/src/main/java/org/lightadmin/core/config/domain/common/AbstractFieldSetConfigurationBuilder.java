@@ -61,6 +61,15 @@ public abstract class AbstractFieldSetConfigurationBuilder<T extends Configurati
         return (B) this;
     }
 
+    @SuppressWarnings("unchecked")
+    public B fetch(String... associationPaths) {
+        assertFieldMetadataType(currentFieldMetadata, AbstractFieldMetadata.class);
+
+        ((AbstractFieldMetadata) currentFieldMetadata).addFetchPaths(associationPaths);
+
+        return (B) this;
+    }
+
     @SuppressWarnings("unchecked")
     protected B withCustomControl(SimpleTag customControl) {
 
@@ -49,6 +49,12 @@ public class PersistentFieldSetConfigurationUnitBuilderAdapter implements Persis
         return this;
     }
 
+    @Override
+    public PersistentFieldSetConfigurationUnitBuilder fetch(String... associationPaths) {
+        fieldSetConfigurationUnitBuilder.fetch(associationPaths);
+        return this;
+    }
+
     @Override
     public FieldSetConfigurationUnit build() {
         return fieldSetConfigurationUnitBuilder.build();
@@ -6,9 +6,15 @@ import org.lightadmin.core.config.domain.unit.DefaultFieldSetConfigurationUnit;
 import org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType;
 import org.springframework.data.rest.core.event.AbstractRepositoryEventListener;
 
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newHashSet;
+
 public class DefaultEntityMetadataConfigurationUnit extends DefaultFieldSetConfigurationUnit implements EntityMetadataConfigurationUnit {
 
     private EntityNameExtractor<?> nameExtractor;
+    private String nameField;
+    private Set<String> eagerAssociations = newHashSet();
     private Class<? extends AbstractRepositoryEventListener> repositoryEventListener;
 
     private String singularName;
@@ -28,6 +34,16 @@ public class DefaultEntityMetadataConfigurationUnit extends DefaultFieldSetConfi
         return nameExtractor;
     }
 
+    @Override
+    public String getNameField() {
+        return nameField;
+    }
+
+    @Override
+    public Set<String> getEagerAssociations() {
+        return eagerAssociations;
+    }
+
     @Override
     public String getSingularName() {
         return this.singularName;
@@ -42,6 +58,14 @@ public class DefaultEntityMetadataConfigurationUnit extends DefaultFieldSetConfi
         this.nameExtractor = nameExtractor;
     }
 
+    public void setNameField(String nameField) {
+        this.nameField = nameField;
+    }
+
+    public void setEagerAssociations(Set<String> eagerAssociations) {
+        this.eagerAssociations = eagerAssociations;
+    }
+
     public void setSingularName(String singularName) {
         this.singularName = singularName;
     }
@@ -6,6 +6,7 @@ import org.lightadmin.api.config.utils.EntityNameExtractor;
 import org.lightadmin.core.config.domain.common.AbstractFieldSetConfigurationBuilder;
 import org.springframework.data.rest.core.event.AbstractRepositoryEventListener;
 
+import static com.google.common.collect.Sets.newHashSet;
 import static org.lightadmin.core.config.domain.configuration.support.EntityNameExtractorFactory.forNamedPersistentEntity;
 
 public class DefaultEntityMetadataConfigurationUnitBuilder extends AbstractFieldSetConfigurationBuilder<EntityMetadataConfigurationUnit, EntityMetadataConfigurationUnitBuilder> implements EntityMetadataConfigurationUnitBuilder {
@@ -22,12 +23,14 @@ public class DefaultEntityMetadataConfigurationUnitBuilder extends AbstractField
     @Override
     public EntityMetadataConfigurationUnitBuilder nameField(final String nameField) {
         configurationUnit.setNameExtractor(forNamedPersistentEntity(nameField));
+        configurationUnit.setNameField(nameField);
         return this;
     }
 
     @Override
     public EntityMetadataConfigurationUnitBuilder nameExtractor(final EntityNameExtractor<?> nameExtractor) {
         configurationUnit.setNameExtractor(nameExtractor);
+        configurationUnit.setNameField(null);
         return this;
     }
 
@@ -43,6 +46,12 @@ public class DefaultEntityMetadataConfigurationUnitBuilder extends AbstractField
         return this;
     }
 
+    @Override
+    public EntityMetadataConfigurationUnitBuilder eagerAssociations(final String... associations) {
+        configurationUnit.setEagerAssociations(newHashSet(associations));
+        return this;
+    }
+
     @Override
     public EntityMetadataConfigurationUnitBuilder repositoryEventListener(Class<? extends AbstractRepositoryEventListener> listenerClass) {
         configurationUnit.setRepositoryEventListener(listenerClass);
@@ -21,6 +21,13 @@ public abstract class EntityNameExtractorFactory {
         return new NamedPersistentEntityNameExtractor(name);
     }
 
+    /**
+     * @return whether the extractor names entities by their identifier only
+     */
+    public static boolean isIdentifierNameExtractor(EntityNameExtractor<?> nameExtractor) {
+        return nameExtractor instanceof PersistentEntityNameExtractor;
+    }
+
     private static class PersistentEntityNameExtractor implements EntityNameExtractor<Object> {
 
         private final PersistentEntity persistentEntity;
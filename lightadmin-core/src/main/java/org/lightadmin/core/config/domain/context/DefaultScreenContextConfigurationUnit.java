@@ -1,17 +1,24 @@
 package org.lightadmin.core.config.domain.context;
 
 import org.lightadmin.api.config.unit.ScreenContextConfigurationUnit;
+import org.lightadmin.api.config.utils.PagingStrategy;
 import org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType;
 import org.lightadmin.core.config.domain.unit.DomainTypeConfigurationUnit;
 
 public class DefaultScreenContextConfigurationUnit extends DomainTypeConfigurationUnit implements ScreenContextConfigurationUnit {
 
     private final String screenName;
+    private final boolean keysetPagination;
+    private final PagingStrategy pagingStrategy;
+    private final boolean listViewProjection;
 
-    DefaultScreenContextConfigurationUnit(Class<?> domainType, final String screenName) {
+    DefaultScreenContextConfigurationUnit(Class<?> domainType, final String screenName, final boolean keysetPagination, final PagingStrategy pagingStrategy, final boolean listViewProjection) {
         super(domainType);
 
         this.screenName = screenName;
+        this.keysetPagination = keysetPagination;
+        this.pagingStrategy = pagingStrategy;
+        this.listViewProjection = listViewProjection;
     }
 
     @Override
@@ -19,6 +26,21 @@ public class DefaultScreenContextConfigurationUnit extends DomainTypeConfigurati
         return screenName;
     }
 
+    @Override
+    public boolean isKeysetPagination() {
+        return keysetPagination;
+    }
+
+    @Override
+    public PagingStrategy getPagingStrategy() {
+        return pagingStrategy;
+    }
+
+    @Override
+    public boolean isListViewProjection() {
+        return listViewProjection;
+    }
+
     @Override
     public DomainConfigurationUnitType getDomainConfigurationUnitType() {
         return DomainConfigurationUnitType.SCREEN_CONTEXT;
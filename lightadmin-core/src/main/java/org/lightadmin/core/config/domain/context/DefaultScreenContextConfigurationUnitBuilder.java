@@ -2,11 +2,15 @@ package org.lightadmin.core.config.domain.context;
 
 import org.lightadmin.api.config.builder.ScreenContextConfigurationUnitBuilder;
 import org.lightadmin.api.config.unit.ScreenContextConfigurationUnit;
+import org.lightadmin.api.config.utils.PagingStrategy;
 import org.lightadmin.core.config.domain.unit.DomainTypeConfigurationUnitBuilder;
 
 public class DefaultScreenContextConfigurationUnitBuilder extends DomainTypeConfigurationUnitBuilder<ScreenContextConfigurationUnit> implements ScreenContextConfigurationUnitBuilder {
 
     private String screenName;
+    private boolean keysetPagination;
+    private PagingStrategy pagingStrategy = PagingStrategy.exactCount();
+    private boolean listViewProjection;
 
     public DefaultScreenContextConfigurationUnitBuilder(final Class<?> domainType) {
         super(domainType);
@@ -20,8 +24,26 @@ public class DefaultScreenContextConfigurationUnitBuilder extends DomainTypeConf
         return this;
     }
 
+    @Override
+    public ScreenContextConfigurationUnitBuilder keysetPagination(final boolean keysetPagination) {
+        this.keysetPagination = keysetPagination;
+        return this;
+    }
+
+    @Override
+    public ScreenContextConfigurationUnitBuilder pagingStrategy(final PagingStrategy pagingStrategy) {
+        this.pagingStrategy = pagingStrategy;
+        return this;
+    }
+
+    @Override
+    public ScreenContextConfigurationUnitBuilder listViewProjection(final boolean listViewProjection) {
+        this.listViewProjection = listViewProjection;
+        return this;
+    }
+
     @Override
     public ScreenContextConfigurationUnit build() {
-        return new DefaultScreenContextConfigurationUnit(getDomainType(), screenName);
+        return new DefaultScreenContextConfigurationUnit(getDomainType(), screenName, keysetPagination, pagingStrategy, listViewProjection);
     }
 }
\ No newline at end of file
@@ -6,8 +6,12 @@ import org.lightadmin.api.config.utils.FieldValueRenderer;
 
 import javax.servlet.jsp.tagext.SimpleTag;
 import java.io.Serializable;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.util.Arrays.asList;
+
 public abstract class AbstractFieldMetadata implements FieldMetadata, Serializable {
 
     private String name;
@@ -20,6 +24,8 @@ public abstract class AbstractFieldMetadata implements FieldMetadata, Serializab
 
     protected FieldValueRenderer renderer;
 
+    private final Set<String> fetchPaths = newLinkedHashSet();
+
     protected AbstractFieldMetadata(final String name) {
         this(name, 0);
     }
@@ -68,6 +74,17 @@ public abstract class AbstractFieldMetadata implements FieldMetadata, Serializab
         this.renderer = renderer;
     }
 
+    /**
+     * Association paths, relative to the domain type, the field value is computed from
+     */
+    public Set<String> getFetchPaths() {
+        return fetchPaths;
+    }
+
+    public void addFetchPaths(String... fetchPaths) {
+        this.fetchPaths.addAll(asList(fetchPaths));
+    }
+
     public void setCustomControlFactory(Factory<SimpleTag> customControlFactory) {
         this.customControlFactory = customControlFactory;
     }
@@ -87,6 +104,7 @@ public abstract class AbstractFieldMetadata implements FieldMetadata, Serializab
         if (customControlFactory == null) {
             customControlFactory = field.customControlFactory;
         }
+        fetchPaths.addAll(field.fetchPaths);
     }
 
     @Override
@@ -6,12 +6,17 @@ import com.google.common.base.Predicates;
 import com.google.common.collect.Collections2;
 import org.apache.commons.lang3.StringUtils;
 import org.lightadmin.core.config.domain.filter.FilterMetadata;
+import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
+import org.springframework.data.mapping.PersistentProperty;
 
 import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Set;
 
 import static com.google.common.collect.Sets.newLinkedHashSet;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.ASSOC;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.ASSOC_MULTI;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.forPersistentProperty;
 import static org.springframework.util.ClassUtils.isAssignableValue;
 
 public class FieldMetadataUtils {
@@ -68,6 +73,31 @@ public class FieldMetadataUtils {
         return null;
     }
 
+    /**
+     * Associations rendered by the fields: persistent association fields
+     * together with the fetch paths declared for any field.
+     */
+    public static Set<String> fetchPaths(Iterable<FieldMetadata> fields) {
+        final Set<String> fetchPaths = newLinkedHashSet();
+        for (FieldMetadata field : fields) {
+            if (field instanceof PersistentFieldMetadata) {
+                PersistentFieldMetadata persistentField = (PersistentFieldMetadata) field;
+                if (persistentField.getPersistentProperty() != null && isAssociation(persistentField.getPersistentProperty())) {
+                    fetchPaths.add(persistentField.getField());
+                }
+            }
+            if (field instanceof AbstractFieldMetadata) {
+                fetchPaths.addAll(((AbstractFieldMetadata) field).getFetchPaths());
+            }
+        }
+        return fetchPaths;
+    }
+
+    private static boolean isAssociation(PersistentProperty persistentProperty) {
+        final PersistentPropertyType persistentPropertyType = forPersistentProperty(persistentProperty);
+        return persistentPropertyType == ASSOC || persistentPropertyType == ASSOC_MULTI;
+    }
+
     public static class FieldMetadataComparator implements Comparator<FieldMetadata>, Serializable {
 
         @Override
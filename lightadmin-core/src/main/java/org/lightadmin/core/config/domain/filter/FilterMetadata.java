@@ -1,5 +1,6 @@
 package org.lightadmin.core.config.domain.filter;
 
+import org.lightadmin.api.config.utils.FilterOperator;
 import org.lightadmin.core.config.domain.field.FieldMetadata;
 import org.lightadmin.core.config.domain.field.Identifiable;
 import org.lightadmin.core.config.domain.field.Nameable;
@@ -17,5 +18,9 @@ public interface FilterMetadata extends Identifiable, Nameable, Serializable {
 
     FieldMetadata getFieldMetadata();
 
+    boolean isMatchAllValues();
+
+    FilterOperator getDefaultOperator();
+
     void setPersistentProperty(PersistentProperty persistentProperty);
 }
\ No newline at end of file
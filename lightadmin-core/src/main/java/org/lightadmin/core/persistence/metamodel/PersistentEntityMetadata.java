@@ -0,0 +1,129 @@
+package org.lightadmin.core.persistence.metamodel;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.SimpleAssociationHandler;
+import org.springframework.data.mapping.SimplePropertyHandler;
+import org.springframework.data.mapping.model.BeanWrapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.*;
+
+/**
+ * Immutable per-entity index of property classifications, built once when domain type configurations are registered
+ * so that request-time code does not re-derive them through annotation lookups.
+ */
+@SuppressWarnings("unchecked")
+public class PersistentEntityMetadata {
+
+    private final PersistentEntity persistentEntity;
+    private final PersistentProperty idProperty;
+    private final Map<String, PersistentPropertyType> propertyTypes;
+    private final List<PersistentProperty> fileProperties;
+    private final List<PersistentProperty> fileReferenceProperties;
+    private final List<PersistentProperty> binaryFileProperties;
+    private final Map<String, DomainTypeBasicConfiguration> associationConfigurations;
+
+    private PersistentEntityMetadata(PersistentEntity persistentEntity, Map<String, PersistentPropertyType> propertyTypes, List<PersistentProperty> fileProperties,
+                                     List<PersistentProperty> fileReferenceProperties, List<PersistentProperty> binaryFileProperties,
+                                     Map<String, DomainTypeBasicConfiguration> associationConfigurations) {
+        this.persistentEntity = persistentEntity;
+        this.idProperty = persistentEntity.getIdProperty();
+        this.propertyTypes = propertyTypes;
+        this.fileProperties = fileProperties;
+        this.fileReferenceProperties = fileReferenceProperties;
+        this.binaryFileProperties = binaryFileProperties;
+        this.associationConfigurations = associationConfigurations;
+    }
+
+    public static PersistentEntityMetadata persistentEntityMetadata(PersistentEntity persistentEntity, final GlobalAdministrationConfiguration configuration) {
+        final ImmutableMap.Builder<String, PersistentPropertyType> propertyTypes = ImmutableMap.builder();
+        final ImmutableList.Builder<PersistentProperty> fileProperties = ImmutableList.builder();
+        final ImmutableList.Builder<PersistentProperty> fileReferenceProperties = ImmutableList.builder();
+        final ImmutableList.Builder<PersistentProperty> binaryFileProperties = ImmutableList.builder();
+        final ImmutableMap.Builder<String, DomainTypeBasicConfiguration> associationConfigurations = ImmutableMap.builder();
+
+        final SimplePropertyHandler propertyHandler = new SimplePropertyHandler() {
+            @Override
+            public void doWithPersistentProperty(PersistentProperty<?> property) {
+                PersistentPropertyType propertyType = forPersistentProperty(property);
+
+                propertyTypes.put(property.getName(), propertyType);
+
+                if (propertyType == FILE) {
+                    fileProperties.add(property);
+                }
+
+                if (isOfFileReferenceType(property)) {
+                    fileReferenceProperties.add(property);
+                }
+
+                if (isOfBinaryFileType(property)) {
+                    binaryFileProperties.add(property);
+                }
+
+                if (propertyType == ASSOC || propertyType == ASSOC_MULTI) {
+                    DomainTypeBasicConfiguration associationConfiguration = configuration.forDomainType(property.getActualType());
+                    if (associationConfiguration != null) {
+                        associationConfigurations.put(property.getName(), associationConfiguration);
+                    }
+                }
+            }
+        };
+
+        persistentEntity.doWithProperties(propertyHandler);
+        persistentEntity.doWithAssociations(new SimpleAssociationHandler() {
+            @Override
+            public void doWithAssociation(Association<? extends PersistentProperty<?>> association) {
+                propertyHandler.doWithPersistentProperty(association.getInverse());
+            }
+        });
+
+        return new PersistentEntityMetadata(persistentEntity, propertyTypes.build(), fileProperties.build(), fileReferenceProperties.build(), binaryFileProperties.build(), associationConfigurations.build());
+    }
+
+    public PersistentEntity getPersistentEntity() {
+        return persistentEntity;
+    }
+
+    public PersistentProperty getIdProperty() {
+        return idProperty;
+    }
+
+    public Object getIdValue(Object entity) {
+        return BeanWrapper.create(entity, null).getProperty(idProperty);
+    }
+
+    public PersistentPropertyType getPropertyType(String propertyName) {
+        PersistentPropertyType propertyType = propertyTypes.get(propertyName);
+        return propertyType == null ? UNKNOWN : propertyType;
+    }
+
+    public boolean isAssociation(String propertyName) {
+        PersistentPropertyType propertyType = getPropertyType(propertyName);
+        return propertyType == ASSOC || propertyType == ASSOC_MULTI;
+    }
+
+    public List<PersistentProperty> getFileProperties() {
+        return fileProperties;
+    }
+
+    public List<PersistentProperty> getFileReferenceProperties() {
+        return fileReferenceProperties;
+    }
+
+    public List<PersistentProperty> getBinaryFileProperties() {
+        return binaryFileProperties;
+    }
+
+    public DomainTypeBasicConfiguration getAssociationConfiguration(String propertyName) {
+        return associationConfigurations.get(propertyName);
+    }
+}
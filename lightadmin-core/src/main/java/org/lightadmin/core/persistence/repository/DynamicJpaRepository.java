@@ -1,11 +1,87 @@
 package org.lightadmin.core.persistence.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Transactional
 public interface DynamicJpaRepository<T, ID extends Serializable> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    /**
+     * Lazily walks the matching entities in chunks of {@code chunkSize}, one query per chunk.
+     * Ordering always ends with the id, chunks are fetched with a keyset (seek) predicate
+     * whenever the sort keys allow it and with offsets otherwise.
+     */
+    Iterable<List<T>> findAllInChunks(Specification<T> spec, Sort sort, int chunkSize);
+
+    /**
+     * Fetches one extra row to detect the next page instead of issuing a count query.
+     */
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+
+    /**
+     * Same as {@link #findSlice(Specification, Pageable)}, but selects only the id and the given single-valued
+     * {@code attributes} and returns them in new unmanaged instances, other properties are left unset.
+     * Associations among the attributes are joined and selected as entities, other names are ignored.
+     * Types with a composite id are loaded as entities.
+     */
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable, Collection<String> attributes);
+
+    /**
+     * Counts matching entities but stops at {@code limit + 1}, a result above {@code limit}
+     * only tells that there are more.
+     */
+    long countCapped(Specification<T> spec, long limit);
+
+    /**
+     * Fetches up to {@code limit} entities following the row the {@code cursor} was issued for.
+     *
+     * @throws InvalidKeysetCursorException if the cursor is malformed, issued for another ordering,
+     *                                      or the ordering does not allow keyset pagination
+     */
+    List<T> findAllAfter(Specification<T> spec, Sort sort, String cursor, int limit);
+
+    /**
+     * @return an opaque keyset cursor positioned right after {@code entity}, or {@code null}
+     * if keyset pagination is not applicable to the ordering
+     */
+    String keysetCursor(T entity, Sort sort);
+
+    /**
+     * Counts the entities matching {@code spec} together with how many of them satisfy each of the
+     * {@code conditions}, using a single conditional aggregation query where possible.
+     * The first element of the result is the total, followed by one count per condition.
+     */
+    long[] countByConditions(Specification<T> spec, List<? extends Specification<T>> conditions);
+
+    /**
+     * Initializes the collection-valued {@code associations} of {@code entities} with one query per association,
+     * instead of one lazy load per entity. The entities need not be managed any longer: the fetched collections
+     * are set onto them. Nested paths are fetched by their first collection, other paths are ignored.
+     */
+    void fetchCollections(List<? extends T> entities, Collection<String> associations);
+
+    /**
+     * Lengths of the binary {@code attribute} of the entities with the given ids, read with a projection query
+     * so that the contents are not loaded. Entities holding no content are left out.
+     */
+    Map<Object, Long> binaryLengths(Collection<?> ids, String attribute);
+
+    /**
+     * Reads the binary {@code attribute} of a single entity without loading the entity itself.
+     *
+     * @return the content, or {@code null} if the entity does not exist or holds no content
+     */
+    byte[] binaryContent(ID id, String attribute);
+
+    void detach(Iterable<? extends T> entities);
 }
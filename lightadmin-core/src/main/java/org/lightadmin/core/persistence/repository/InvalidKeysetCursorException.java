@@ -0,0 +1,16 @@
+package org.lightadmin.core.persistence.repository;
+
+/**
+ * Thrown for a keyset cursor that is malformed, was issued for another ordering,
+ * or is used with an ordering that does not allow keyset pagination.
+ */
+public class InvalidKeysetCursorException extends IllegalArgumentException {
+
+    public InvalidKeysetCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidKeysetCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,40 @@
+package org.lightadmin.core.persistence.repository.support;
+
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+
+public class DynamicJpaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable> extends JpaRepositoryFactoryBean<T, S, ID> {
+
+    @Override
+    protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
+        return new DynamicJpaRepositoryFactory(entityManager);
+    }
+
+    private static class DynamicJpaRepositoryFactory extends JpaRepositoryFactory {
+
+        public DynamicJpaRepositoryFactory(EntityManager entityManager) {
+            super(entityManager);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <T, ID extends Serializable> SimpleJpaRepository<?, ?> getTargetRepository(RepositoryMetadata metadata, EntityManager entityManager) {
+            JpaEntityInformation<T, ?> entityInformation = (JpaEntityInformation<T, ?>) getEntityInformation(metadata.getDomainType());
+
+            return new DynamicJpaRepositoryImpl<T, ID>(entityInformation, entityManager);
+        }
+
+        @Override
+        protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+            return DynamicJpaRepositoryImpl.class;
+        }
+    }
+}
@@ -0,0 +1,590 @@
+package org.lightadmin.core.persistence.repository.support;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.lightadmin.core.persistence.repository.InvalidKeysetCursorException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.partition;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.jpa.domain.Specifications.where;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+import static org.springframework.util.ClassUtils.isAssignable;
+import static org.springframework.util.ClassUtils.resolvePrimitiveIfNecessary;
+
+@SuppressWarnings("unchecked")
+public class DynamicJpaRepositoryImpl<T, ID extends Serializable> extends SimpleJpaRepository<T, ID> implements DynamicJpaRepository<T, ID> {
+
+    private static final int ID_BATCH_SIZE = 500;
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+    private final KeysetCursorCodec keysetCursorCodec = new KeysetCursorCodec();
+
+    public DynamicJpaRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Iterable<List<T>> findAllInChunks(final Specification<T> spec, final Sort sort, final int chunkSize) {
+        final Sort chunkSort = withIdTieBreaker(sort);
+        final boolean keysetApplicable = isKeysetApplicable(chunkSort);
+
+        return new Iterable<List<T>>() {
+            @Override
+            public Iterator<List<T>> iterator() {
+                return new AbstractIterator<List<T>>() {
+                    private T last;
+                    private int offset;
+                    private boolean exhausted;
+
+                    @Override
+                    protected List<T> computeNext() {
+                        if (exhausted) {
+                            return endOfData();
+                        }
+
+                        final boolean seekable = keysetApplicable && (last == null || hasSortKeyValues(chunkSort, last));
+
+                        final List<T> chunk = seekable ? findChunkAfter(spec, chunkSort, last, chunkSize) : findChunk(spec, chunkSort, offset, chunkSize);
+                        if (chunk.isEmpty()) {
+                            return endOfData();
+                        }
+
+                        exhausted = chunk.size() < chunkSize;
+                        last = chunk.get(chunk.size() - 1);
+                        offset += chunk.size();
+
+                        return chunk;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        TypedQuery<T> query = getQuery(spec, pageable.getSort());
+        query.setFirstResult(pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        final List<T> content = query.getResultList();
+        final boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable, Collection<String> attributes) {
+        if (entityInformation.hasCompositeId() || Modifier.isAbstract(getDomainClass().getModifiers())) {
+            return findSlice(spec, pageable);
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        final Root<T> root = query.from(getDomainClass());
+
+        final List<SingularAttribute<? super T, ?>> projectedAttributes = projectedAttributes(attributes);
+
+        final List<Selection<?>> selections = newArrayList();
+        for (SingularAttribute<? super T, ?> attribute : projectedAttributes) {
+            selections.add(attribute.isAssociation() ? root.join(attribute.getName(), JoinType.LEFT) : root.get(attribute.getName()));
+        }
+        query.multiselect(selections);
+
+        final Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        if (pageable.getSort() != null) {
+            query.orderBy(toOrders(pageable.getSort(), root, builder));
+        }
+
+        final TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult(pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        final List<T> content = newArrayList();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            content.add(projectedInstance(projectedAttributes, tuple));
+        }
+        final boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countCapped(Specification<T> spec, long limit) {
+        final long cappedLimit = Math.min(limit + 1, Integer.MAX_VALUE);
+
+        if (entityInformation.hasCompositeId()) {
+            return Math.min(count(spec), cappedLimit);
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Object> query = builder.createQuery(Object.class);
+        final Root<T> root = query.from(getDomainClass());
+
+        query.select(root.get(entityInformation.getIdAttribute().getName()));
+
+        final Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).setMaxResults((int) cappedLimit).getResultList().size();
+    }
+
+    @Override
+    public List<T> findAllAfter(Specification<T> spec, Sort sort, String cursor, int limit) {
+        final Sort keysetSort = withIdTieBreaker(sort);
+        if (!isKeysetApplicable(keysetSort)) {
+            throw new InvalidKeysetCursorException("Ordering " + keysetSort + " does not allow keyset pagination");
+        }
+
+        final List<Object> values = keysetCursorCodec.decode(cursor, keysetSort, sortKeyTypes(keysetSort));
+
+        TypedQuery<T> query = getQuery(new SeekSpecification(spec, keysetSort, values), keysetSort);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public String keysetCursor(T entity, Sort sort) {
+        final Sort keysetSort = withIdTieBreaker(sort);
+        if (!isKeysetApplicable(keysetSort) || !hasSortKeyValues(keysetSort, entity)) {
+            return null;
+        }
+
+        return keysetCursorCodec.encode(keysetSort, sortKeyValues(keysetSort, entity));
+    }
+
+    @Override
+    public long[] countByConditions(Specification<T> spec, List<? extends Specification<T>> conditions) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        final Root<T> root = query.from(getDomainClass());
+
+        final List<Selection<?>> selections = newArrayList();
+        selections.add(builder.count(root));
+
+        for (Specification<T> condition : conditions) {
+            final Predicate predicate = condition == null ? null : condition.toPredicate(root, query, builder);
+            if (predicate == null) {
+                selections.add(builder.count(root));
+            } else {
+                selections.add(builder.sum(builder.<Long>selectCase().when(predicate, 1L).otherwise(0L)));
+            }
+        }
+
+        final Predicate predicate = spec == null ? null : spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        if (!root.getJoins().isEmpty() || !root.getFetches().isEmpty() || query.isDistinct()) {
+            return countSeparately(spec, conditions);
+        }
+
+        query.multiselect(selections);
+
+        final Object[] row = entityManager.createQuery(query).getSingleResult();
+
+        final long[] counts = new long[row.length];
+        for (int i = 0; i < row.length; i++) {
+            counts[i] = row[i] == null ? 0 : ((Number) row[i]).longValue();
+        }
+        return counts;
+    }
+
+    /**
+     * Joins or distinct selection introduced by a specification change the row multiplicity
+     * for every other aggregate, so such specifications are counted one by one.
+     */
+    private long[] countSeparately(Specification<T> spec, List<? extends Specification<T>> conditions) {
+        final long[] counts = new long[conditions.size() + 1];
+        counts[0] = count(spec);
+        for (int i = 0; i < conditions.size(); i++) {
+            counts[i + 1] = count(where(spec).and(conditions.get(i)));
+        }
+        return counts;
+    }
+
+    @Override
+    public void fetchCollections(List<? extends T> entities, Collection<String> associations) {
+        if (entities.isEmpty() || entityInformation.hasCompositeId()) {
+            return;
+        }
+
+        final Map<Object, T> entitiesById = newLinkedHashMap();
+        for (T entity : entities) {
+            entitiesById.put(entityInformation.getId(entity), entity);
+        }
+
+        final Map<String, Attribute<? super T, ?>> collections = newLinkedHashMap();
+        for (String association : associations) {
+            final Attribute<? super T, ?> attribute = collectionAttribute(substringBefore(association, "."));
+            if (attribute != null) {
+                collections.put(attribute.getName(), attribute);
+            }
+        }
+
+        for (Attribute<? super T, ?> collection : collections.values()) {
+            for (List<Object> idChunk : partition(newArrayList(entitiesById.keySet()), ID_BATCH_SIZE)) {
+                final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+                final CriteriaQuery<T> query = builder.createQuery(getDomainClass());
+                final Root<T> root = query.from(getDomainClass());
+
+                root.fetch(collection.getName(), JoinType.LEFT);
+                query.select(root).distinct(true).where(root.get(entityInformation.getIdAttribute().getName()).in(idChunk));
+
+                for (T fetched : entityManager.createQuery(query).getResultList()) {
+                    final T entity = entitiesById.get(entityInformation.getId(fetched));
+                    if (entity != null && entity != fetched) {
+                        setMemberValue(entity, collection, memberValue(fetched, collection.getJavaMember()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<Object, Long> binaryLengths(Collection<?> ids, String attribute) {
+        final SingularAttribute<? super T, ?> binaryAttribute = binaryAttribute(attribute);
+
+        final Map<Object, Long> lengths = newHashMap();
+        if (entityInformation.hasCompositeId()) {
+            for (Object id : ids) {
+                final byte[] content = binaryContent((ID) id, attribute);
+                if (content != null) {
+                    lengths.put(id, (long) content.length);
+                }
+            }
+            return lengths;
+        }
+
+        for (List<Object> idChunk : partition(Lists.<Object>newArrayList(ids), ID_BATCH_SIZE)) {
+            final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            final CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+            final Root<T> root = query.from(getDomainClass());
+
+            final Path<Object> idPath = root.get(entityInformation.getIdAttribute().getName());
+            final Path<String> binaryPath = root.get(binaryAttribute.getName());
+
+            query.multiselect(idPath, builder.length(binaryPath)).where(idPath.in(idChunk), builder.isNotNull(binaryPath));
+
+            for (Object[] row : entityManager.createQuery(query).getResultList()) {
+                lengths.put(row[0], row[1] == null ? 0 : ((Number) row[1]).longValue());
+            }
+        }
+        return lengths;
+    }
+
+    @Override
+    public byte[] binaryContent(ID id, String attribute) {
+        final SingularAttribute<? super T, ?> binaryAttribute = binaryAttribute(attribute);
+
+        if (entityInformation.hasCompositeId()) {
+            final T entity = findOne(id);
+            return entity == null ? null : (byte[]) memberValue(entity, binaryAttribute.getJavaMember());
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<byte[]> query = builder.createQuery(byte[].class);
+        final Root<T> root = query.from(getDomainClass());
+
+        query.select(root.<byte[]>get(binaryAttribute.getName())).where(builder.equal(root.get(entityInformation.getIdAttribute().getName()), id));
+
+        final List<byte[]> result = entityManager.createQuery(query).getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public void detach(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            entityManager.detach(entity);
+        }
+    }
+
+    /**
+     * Applies the fetch plan of the current request to every specification query, counts are left untouched.
+     */
+    @Override
+    protected TypedQuery<T> getQuery(Specification<T> spec, Sort sort) {
+        final TypedQuery<T> query = super.getQuery(spec, sort);
+
+        final Set<String> fetchPaths = QueryFetchPlan.fetchPaths(getDomainClass());
+        if (!fetchPaths.isEmpty()) {
+            final EntityGraph<T> entityGraph = QueryFetchPlan.entityGraph(entityManager, getDomainClass(), fetchPaths);
+            if (entityGraph != null) {
+                query.setHint(QueryFetchPlan.LOAD_GRAPH_HINT, entityGraph);
+            }
+        }
+        return query;
+    }
+
+    protected List<T> findChunk(Specification<T> spec, Sort sort, int offset, int limit) {
+        TypedQuery<T> query = getQuery(spec, sort);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    protected List<T> findChunkAfter(Specification<T> spec, Sort sort, T last, int limit) {
+        Specification<T> chunkSpec = last == null ? spec : new SeekSpecification(spec, sort, sortKeyValues(sort, last));
+
+        TypedQuery<T> query = getQuery(chunkSpec, sort);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    protected Sort withIdTieBreaker(Sort sort) {
+        if (entityInformation.hasCompositeId()) {
+            return sort;
+        }
+
+        final String idAttributeName = entityInformation.getIdAttribute().getName();
+        final Sort idSort = new Sort(ASC, idAttributeName);
+
+        if (sort == null) {
+            return idSort;
+        }
+
+        return sort.getOrderFor(idAttributeName) != null ? sort : sort.and(idSort);
+    }
+
+    /**
+     * Seek predicates silently drop rows holding NULL sort keys, so keyset chunks are only used
+     * when every sort key is a non-optional comparable attribute of the root entity.
+     */
+    protected boolean isKeysetApplicable(Sort sort) {
+        if (sort == null || entityInformation.hasCompositeId()) {
+            return false;
+        }
+
+        for (Sort.Order order : sort) {
+            if (order.isIgnoreCase()) {
+                return false;
+            }
+
+            SingularAttribute<? super T, ?> attribute = singularAttribute(order.getProperty());
+            if (attribute == null || (attribute.isOptional() && !attribute.isId())) {
+                return false;
+            }
+
+            if (!isAssignable(Comparable.class, resolvePrimitiveIfNecessary(attribute.getJavaType()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean hasSortKeyValues(Sort sort, T entity) {
+        for (Sort.Order order : sort) {
+            if (attributeValue(entity, order.getProperty()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Object> sortKeyValues(Sort sort, T entity) {
+        final List<Object> values = newArrayList();
+        for (Sort.Order order : sort) {
+            values.add(attributeValue(entity, order.getProperty()));
+        }
+        return values;
+    }
+
+    private List<Class<?>> sortKeyTypes(Sort sort) {
+        final List<Class<?>> types = newArrayList();
+        for (Sort.Order order : sort) {
+            types.add(resolvePrimitiveIfNecessary(singularAttribute(order.getProperty()).getJavaType()));
+        }
+        return types;
+    }
+
+    private List<SingularAttribute<? super T, ?>> projectedAttributes(Collection<String> attributeNames) {
+        final List<SingularAttribute<? super T, ?>> attributes = newArrayList();
+        attributes.add((SingularAttribute<? super T, ?>) entityInformation.getIdAttribute());
+
+        for (Attribute<? super T, ?> attribute : entityManager.getMetamodel().entity(getDomainClass()).getAttributes()) {
+            if (attribute.isCollection() || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                continue;
+            }
+            if (attributeNames.contains(attribute.getName()) && !attributes.contains(attribute)) {
+                attributes.add((SingularAttribute<? super T, ?>) attribute);
+            }
+        }
+        return attributes;
+    }
+
+    private T projectedInstance(List<SingularAttribute<? super T, ?>> attributes, Tuple tuple) {
+        final T instance;
+        try {
+            final Constructor<T> constructor = getDomainClass().getDeclaredConstructor();
+            ReflectionUtils.makeAccessible(constructor);
+            instance = BeanUtils.instantiateClass(constructor);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Entity " + getDomainClass().getName() + " has no default constructor", e);
+        }
+
+        for (int i = 0; i < attributes.size(); i++) {
+            final Member member = attributes.get(i).getJavaMember();
+            final Object value = tuple.get(i);
+
+            if (member instanceof Field) {
+                ReflectionUtils.makeAccessible((Field) member);
+                ReflectionUtils.setField((Field) member, instance, value);
+            } else if (value != null) {
+                PropertyAccessorFactory.forBeanPropertyAccess(instance).setPropertyValue(attributes.get(i).getName(), value);
+            }
+        }
+        return instance;
+    }
+
+    private Attribute<? super T, ?> collectionAttribute(String attributeName) {
+        for (Attribute<? super T, ?> attribute : entityManager.getMetamodel().entity(getDomainClass()).getAttributes()) {
+            if (attribute.getName().equals(attributeName)) {
+                return attribute.isCollection() ? attribute : null;
+            }
+        }
+        return null;
+    }
+
+    private SingularAttribute<? super T, ?> binaryAttribute(String propertyName) {
+        final SingularAttribute<? super T, ?> attribute = singularAttribute(propertyName);
+        if (attribute == null || !byte[].class.equals(attribute.getJavaType())) {
+            throw new IllegalArgumentException("Entity " + getDomainClass().getName() + " has no binary attribute " + propertyName);
+        }
+        return attribute;
+    }
+
+    private SingularAttribute<? super T, ?> singularAttribute(String propertyName) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(getDomainClass());
+
+        for (Attribute<? super T, ?> attribute : entityType.getAttributes()) {
+            if (attribute.getName().equals(propertyName) && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                return (SingularAttribute<? super T, ?>) attribute;
+            }
+        }
+
+        return null;
+    }
+
+    private Comparable<Object> attributeValue(T entity, String propertyName) {
+        return (Comparable<Object>) memberValue(entity, singularAttribute(propertyName).getJavaMember());
+    }
+
+    private Object memberValue(T entity, Member member) {
+        if (member instanceof Field) {
+            ReflectionUtils.makeAccessible((Field) member);
+            return ReflectionUtils.getField((Field) member, entity);
+        }
+
+        ReflectionUtils.makeAccessible((Method) member);
+        return ReflectionUtils.invokeMethod((Method) member, entity);
+    }
+
+    private void setMemberValue(T entity, Attribute<? super T, ?> attribute, Object value) {
+        final Member member = attribute.getJavaMember();
+        if (member instanceof Field) {
+            ReflectionUtils.makeAccessible((Field) member);
+            ReflectionUtils.setField((Field) member, entity, value);
+        } else {
+            PropertyAccessorFactory.forBeanPropertyAccess(entity).setPropertyValue(attribute.getName(), value);
+        }
+    }
+
+    private class SeekSpecification implements Specification<T> {
+
+        private final Specification<T> spec;
+        private final Sort sort;
+        private final List<Object> values;
+
+        private SeekSpecification(Specification<T> spec, Sort sort, List<Object> values) {
+            this.spec = spec;
+            this.sort = sort;
+            this.values = values;
+        }
+
+        @Override
+        public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+            final List<Predicate> alternatives = newArrayList();
+            final List<Predicate> equalities = newArrayList();
+
+            int index = 0;
+            for (Sort.Order order : sort) {
+                final Expression<Comparable<Object>> path = root.get(order.getProperty());
+                final Comparable<Object> value = (Comparable<Object>) values.get(index++);
+
+                final Predicate beyond = order.isAscending() ? builder.greaterThan(path, value) : builder.lessThan(path, value);
+
+                alternatives.add(builder.and(append(equalities, beyond)));
+                equalities.add(builder.equal(path, value));
+            }
+
+            final Predicate seek = builder.or(alternatives.toArray(new Predicate[alternatives.size()]));
+
+            if (spec == null) {
+                return seek;
+            }
+
+            final Predicate predicate = spec.toPredicate(root, query, builder);
+
+            return predicate == null ? seek : builder.and(predicate, seek);
+        }
+
+        private Predicate[] append(List<Predicate> predicates, Predicate predicate) {
+            final List<Predicate> result = newArrayList(predicates);
+            result.add(predicate);
+            return result.toArray(new Predicate[result.size()]);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.lightadmin.core.persistence.repository.support;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.io.BaseEncoding;
+import org.lightadmin.core.persistence.repository.InvalidKeysetCursorException;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Encodes the sort key values of a row into an opaque, URL-safe cursor. The sort itself is part of the
+ * cursor, so a cursor issued for one ordering is rejected for another.
+ */
+class KeysetCursorCodec {
+
+    private static final BaseEncoding ENCODING = BaseEncoding.base64Url().omitPadding();
+
+    private static final char SEPARATOR = '.';
+
+    private final ConversionService conversionService = new DefaultConversionService();
+
+    public String encode(Sort sort, List<?> values) {
+        final List<String> components = newArrayList();
+        components.add(encodeComponent(sort.toString()));
+        for (Object value : values) {
+            components.add(encodeComponent(valueToString(value)));
+        }
+        return Joiner.on(SEPARATOR).join(components);
+    }
+
+    /**
+     * @throws InvalidKeysetCursorException if the cursor is malformed or was issued for another ordering
+     */
+    public List<Object> decode(String cursor, Sort sort, List<Class<?>> types) {
+        final List<String> components = Splitter.on(SEPARATOR).splitToList(cursor);
+
+        if (components.size() != types.size() + 1 || !sort.toString().equals(decodeComponent(components.get(0)))) {
+            throw new InvalidKeysetCursorException("Cursor does not match the requested ordering");
+        }
+
+        final List<Object> values = newArrayList();
+        try {
+            for (int i = 0; i < types.size(); i++) {
+                values.add(stringToValue(decodeComponent(components.get(i + 1)), types.get(i)));
+            }
+        } catch (ConversionException e) {
+            throw new InvalidKeysetCursorException("Cursor holds values of unexpected types", e);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new InvalidKeysetCursorException("Malformed cursor", e);
+        }
+        return values;
+    }
+
+    private String valueToString(Object value) {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).getTime() + ":" + ((java.sql.Timestamp) value).getNanos();
+        }
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        if (value instanceof Calendar) {
+            return String.valueOf(((Calendar) value).getTimeInMillis());
+        }
+        return conversionService.convert(value, String.class);
+    }
+
+    private Object stringToValue(String value, Class<?> type) {
+        if (type.isAssignableFrom(java.sql.Timestamp.class) && value.indexOf(':') > 0) {
+            final List<String> parts = Splitter.on(':').splitToList(value);
+            final java.sql.Timestamp timestamp = new java.sql.Timestamp(Long.parseLong(parts.get(0)));
+            timestamp.setNanos(Integer.parseInt(parts.get(1)));
+            return timestamp;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return dateValue(Long.parseLong(value), type);
+        }
+        if (Calendar.class.isAssignableFrom(type)) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(Long.parseLong(value));
+            return calendar;
+        }
+        return conversionService.convert(value, type);
+    }
+
+    private Date dateValue(long time, Class<?> type) {
+        if (java.sql.Date.class.equals(type)) {
+            return new java.sql.Date(time);
+        }
+        if (java.sql.Time.class.equals(type)) {
+            return new java.sql.Time(time);
+        }
+        return new Date(time);
+    }
+
+    private String encodeComponent(String value) {
+        return ENCODING.encode(value.getBytes(Charsets.UTF_8));
+    }
+
+    private String decodeComponent(String component) {
+        try {
+            return new String(ENCODING.decode(component), Charsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeysetCursorException("Malformed cursor", e);
+        }
+    }
+}
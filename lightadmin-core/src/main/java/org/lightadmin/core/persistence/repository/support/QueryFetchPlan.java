@@ -0,0 +1,100 @@
+package org.lightadmin.core.persistence.repository.support;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static org.apache.commons.lang3.StringUtils.split;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+/**
+ * Associations queries of the current request load along with the entities of a domain type,
+ * so that rendering the results does not issue a lazy load per row.
+ */
+@SuppressWarnings("unchecked")
+public abstract class QueryFetchPlan {
+
+    public static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
+
+    private static final String FETCH_PATHS_ATTRIBUTE = QueryFetchPlan.class.getName() + ".FETCH_PATHS";
+
+    public static void fetch(Class<?> domainType, Set<String> associationPaths) {
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return;
+        }
+
+        Map<Class<?>, Set<String>> fetchPaths = (Map<Class<?>, Set<String>>) requestAttributes.getAttribute(FETCH_PATHS_ATTRIBUTE, SCOPE_REQUEST);
+        if (fetchPaths == null) {
+            fetchPaths = newHashMap();
+            requestAttributes.setAttribute(FETCH_PATHS_ATTRIBUTE, fetchPaths, SCOPE_REQUEST);
+        }
+        fetchPaths.put(domainType, associationPaths);
+    }
+
+    public static Set<String> fetchPaths(Class<?> domainType) {
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return Collections.emptySet();
+        }
+
+        final Map<Class<?>, Set<String>> fetchPaths = (Map<Class<?>, Set<String>>) requestAttributes.getAttribute(FETCH_PATHS_ATTRIBUTE, SCOPE_REQUEST);
+        if (fetchPaths == null || !fetchPaths.containsKey(domainType)) {
+            return Collections.emptySet();
+        }
+        return fetchPaths.get(domainType);
+    }
+
+    /**
+     * Only single-valued associations are fetched: joining a collection multiplies the rows and
+     * makes the persistence provider apply paging in memory. Unknown paths are ignored.
+     *
+     * @return load graph of the fetch paths, or <code>null</code> when none of them is a single-valued association
+     */
+    public static <T> EntityGraph<T> entityGraph(EntityManager entityManager, Class<T> domainType, Set<String> associationPaths) {
+        final Metamodel metamodel = entityManager.getMetamodel();
+        final EntityGraph<T> entityGraph = entityManager.createEntityGraph(domainType);
+        final Map<String, Subgraph<?>> subgraphs = newHashMap();
+
+        for (String associationPath : associationPaths) {
+            ManagedType<?> managedType = metamodel.managedType(domainType);
+            String path = null;
+            Subgraph<?> subgraph = null;
+
+            for (String attributeName : split(associationPath, '.')) {
+                final SingularAttribute<?, ?> attribute = singularAssociation(managedType, attributeName);
+                if (attribute == null) {
+                    break;
+                }
+
+                path = path == null ? attributeName : path + "." + attributeName;
+                if (!subgraphs.containsKey(path)) {
+                    subgraphs.put(path, subgraph == null ? entityGraph.addSubgraph(attributeName) : subgraph.addSubgraph(attributeName));
+                }
+                subgraph = subgraphs.get(path);
+                managedType = metamodel.managedType(attribute.getJavaType());
+            }
+        }
+        return subgraphs.isEmpty() ? null : entityGraph;
+    }
+
+    private static SingularAttribute<?, ?> singularAssociation(ManagedType<?> managedType, String attributeName) {
+        for (Attribute<?, ?> attribute : managedType.getAttributes()) {
+            if (attribute.getName().equals(attributeName)) {
+                return attribute.isAssociation() && !attribute.isCollection() ? (SingularAttribute<?, ?>) attribute : null;
+            }
+        }
+        return null;
+    }
+}
@@ -2,17 +2,31 @@ package org.lightadmin.core.rest;
 
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
 import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
+import org.lightadmin.core.rest.binary.BinaryFileLengths;
+import org.lightadmin.core.rest.binary.DirtyFileReferences;
+import org.lightadmin.core.rest.binary.FileDescriptor;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
+import org.lightadmin.core.rest.binary.FileUploadStorage;
+import org.lightadmin.core.rest.binary.GetFileRestOperation;
+import org.lightadmin.core.rest.binary.ImageRenditionCache;
 import org.lightadmin.core.rest.binary.OperationBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.mapping.SimplePropertyHandler;
+import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.support.Repositories;
 import org.springframework.data.rest.core.event.AbstractRepositoryEventListener;
+import org.springframework.data.rest.webmvc.support.AssociationOptionsCache;
+import org.springframework.data.rest.webmvc.support.PredicateScopeSearcher;
+import org.springframework.data.rest.webmvc.support.ScopeCountService;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
 
 public class DomainRepositoryEventListener extends AbstractRepositoryEventListener<Object> {
 
@@ -25,41 +39,143 @@ public class DomainRepositoryEventListener extends AbstractRepositoryEventListen
     @Autowired
     private Repositories repositories;
 
+    @Autowired
+    private ScopeCountService scopeCountService;
+
+    @Autowired
+    private PredicateScopeSearcher predicateScopeSearcher;
+
+    @Autowired
+    private AssociationOptionsCache associationOptionsCache;
+
+    @Autowired
+    private ImageRenditionCache imageRenditionCache;
+
+    @Autowired
+    private FileMetadataCache fileMetadataCache;
+
+    @Autowired
+    private FileUploadStorage fileUploadStorage;
+
     private OperationBuilder operationBuilder;
 
     @PostConstruct
     public void init() {
-        this.operationBuilder = OperationBuilder.operationBuilder(configuration, lightAdminConfiguration);
+        this.operationBuilder = OperationBuilder.operationBuilder(configuration, lightAdminConfiguration, fileUploadStorage);
+    }
+
+    @Override
+    protected void onBeforeCreate(Object entity) {
+        for (PersistentProperty<?> property : fileReferenceProperties(entity)) {
+            try {
+                if (!operationBuilder.saveOperation(entity).performRelocation(property, null)) {
+                    DirtyFileReferences.markDirty(entity, property, null);
+                }
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void onAfterCreate(Object entity) {
+        invalidateCaches(entity);
+
+        if (relocateDirtyFileReferences(entity)) {
+            ((CrudRepository<Object, ?>) repositories.getRepositoryFor(entity.getClass())).save(entity);
+        }
+
+        generateImageRenditions(entity);
+    }
+
+    @Override
+    protected void onBeforeSave(Object entity) {
+        relocateDirtyFileReferences(entity);
     }
 
     @Override
     protected void onAfterSave(final Object entity) {
-        PersistentEntity<?, ?> persistentEntity = repositories.getPersistentEntity(entity.getClass());
+        invalidateCaches(entity);
 
-        persistentEntity.doWithProperties(new SimplePropertyHandler() {
-            @Override
-            public void doWithPersistentProperty(PersistentProperty<?> property) {
-                if (PersistentPropertyType.isOfFileReferenceType(property)) {
-                    try {
-                        operationBuilder.saveOperation(entity).performCleanup(property);
-                    } catch (IOException e) {
-                    }
+        generateImageRenditions(entity);
+    }
+
+    /**
+     * Files are released only once the entity is deleted, bulk deletes publish this event after their chunk is committed.
+     */
+    @Override
+    protected void onAfterDelete(Object entity) {
+        invalidateCaches(entity);
+
+        PersistentEntityMetadata metadata = configuration.forPersistentEntity(entity.getClass());
+        if (metadata != null) {
+            for (PersistentProperty property : metadata.getFileProperties()) {
+                imageRenditionCache.evict(operationBuilder.getOperation(entity), property);
+                fileMetadataCache.evict(operationBuilder.getOperation(entity), property);
+            }
+        }
+
+        for (PersistentProperty<?> property : fileReferenceProperties(entity)) {
+            operationBuilder.deleteOperation(entity).perform(property);
+        }
+    }
+
+    private boolean relocateDirtyFileReferences(Object entity) {
+        boolean relocated = false;
+        for (PersistentProperty<?> property : fileReferenceProperties(entity)) {
+            if (!DirtyFileReferences.isDirty(entity, property)) {
+                continue;
+            }
+
+            try {
+                relocated |= operationBuilder.saveOperation(entity).performRelocation(property, DirtyFileReferences.previousReference(entity, property));
+            } catch (IOException e) {
+            }
+        }
+        DirtyFileReferences.clear(entity);
+        return relocated;
+    }
+
+    private void generateImageRenditions(Object entity) {
+        PersistentEntityMetadata metadata = configuration.forPersistentEntity(entity.getClass());
+        if (metadata == null) {
+            return;
+        }
+
+        GetFileRestOperation operation = operationBuilder.getOperation(entity);
+        for (PersistentProperty property : metadata.getFileProperties()) {
+            try {
+                FileDescriptor fileDescriptor = fileMetadataCache.refresh(operation, property);
+                if (fileDescriptor != null) {
+                    imageRenditionCache.generateRenditions(operation, property, fileDescriptor);
                 }
+            } catch (IOException e) {
             }
-        });
+        }
     }
 
-    @Override
-    protected void onBeforeDelete(final Object entity) {
-        PersistentEntity<?, ?> persistentEntity = repositories.getPersistentEntity(entity.getClass());
+    private List<PersistentProperty> fileReferenceProperties(Object entity) {
+        PersistentEntityMetadata metadata = configuration.forPersistentEntity(entity.getClass());
+        if (metadata != null) {
+            return metadata.getFileReferenceProperties();
+        }
 
-        persistentEntity.doWithProperties(new SimplePropertyHandler() {
+        final List<PersistentProperty> result = newArrayList();
+        repositories.getPersistentEntity(entity.getClass()).doWithProperties(new SimplePropertyHandler() {
             @Override
             public void doWithPersistentProperty(PersistentProperty<?> property) {
                 if (PersistentPropertyType.isOfFileReferenceType(property)) {
-                    operationBuilder.deleteOperation(entity).perform(property);
+                    result.add(property);
                 }
             }
         });
+        return result;
+    }
+
+    private void invalidateCaches(Object entity) {
+        scopeCountService.invalidate(entity.getClass());
+        predicateScopeSearcher.evictCounts(entity.getClass());
+        associationOptionsCache.invalidate(entity.getClass());
+        BinaryFileLengths.clear(entity.getClass());
     }
-}
\ No newline at end of file
+}
@@ -4,13 +4,16 @@ import org.lightadmin.api.config.annotation.FileReference;
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
 import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.mapping.model.BeanWrapper;
 import org.springframework.util.ClassUtils;
 
 import java.io.File;
+import java.io.Serializable;
+import java.util.Map;
 
+import static com.google.common.collect.Maps.newHashMap;
 import static java.lang.String.valueOf;
 import static org.apache.commons.io.FileUtils.getFile;
 import static org.lightadmin.core.rest.binary.FileStorageUtils.relativePathToDomainStorageAttributeDirectory;
@@ -24,6 +27,8 @@ public abstract class AbstractFileRestOperation {
 
     protected final Object entity;
 
+    private final Map<String, byte[]> binaryContents = newHashMap();
+
     protected AbstractFileRestOperation(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration, Object entity) {
         this.domainTypeAdministrationConfiguration = configuration.forManagedDomainType(ClassUtils.getUserClass(entity));
         this.lightAdminConfiguration = lightAdminConfiguration;
@@ -56,19 +61,47 @@ public abstract class AbstractFileRestOperation {
         return getFile(lightAdminConfiguration.getFileStorageDirectory(), relativePathToDomainStorageDirectory(domainTypeName(), idAttributeValue()));
     }
 
-    protected File referencedFile(PersistentProperty persistentProperty) {
-        final FileReference fileReference = (FileReference) persistentProperty.findAnnotation(FileReference.class);
-        return getFile(fileReference.baseDirectory(), valueOf(BeanWrapper.create(entity, null).getProperty(persistentProperty)));
+    protected FileStorage fileStorage(PersistentProperty attrMeta) {
+        return lightAdminConfiguration.getFileStorageType().fileStorage(fileStorageRootDirectory(attrMeta));
     }
 
-    protected File fileStorageFile(PersistentProperty persistentProperty) {
-        return getFile(lightAdminConfiguration.getFileStorageDirectory(), valueOf(BeanWrapper.create(entity, null).getProperty(persistentProperty)));
+    protected File fileStorageRootDirectory(PersistentProperty attrMeta) {
+        final FileReference fileReference = (FileReference) attrMeta.findAnnotation(FileReference.class);
+        if (getFile(fileReference.baseDirectory()).exists()) {
+            return getFile(fileReference.baseDirectory());
+        }
+        return lightAdminConfiguration.getFileStorageDirectory();
+    }
+
+    protected String currentReference(PersistentProperty attrMeta) {
+        final Object value = BeanWrapper.create(entity, null).getProperty(attrMeta);
+
+        return value == null || FileUploadStorage.isUploadToken(value) ? null : valueOf(value);
     }
 
-    protected JpaRepository repository() {
+    protected DynamicJpaRepository repository() {
         return domainTypeAdministrationConfiguration.getRepository();
     }
 
+    protected long binaryLength(PersistentProperty attrMeta) {
+        return BinaryFileLengths.length(repository(), entity, idAttributeValue(), attrMeta);
+    }
+
+    /**
+     * Content held by the entity, read from the database when the entity was loaded without it.
+     */
+    protected byte[] binaryContent(PersistentProperty attrMeta) {
+        final byte[] content = (byte[]) BeanWrapper.create(entity, null).getProperty(attrMeta);
+        if (content != null) {
+            return content;
+        }
+
+        if (!binaryContents.containsKey(attrMeta.getName())) {
+            binaryContents.put(attrMeta.getName(), (byte[]) repository().binaryContent((Serializable) idAttributeValue(), attrMeta.getName()));
+        }
+        return binaryContents.get(attrMeta.getName());
+    }
+
     protected Object idAttributeValue() {
         BeanWrapper beanWrapper = BeanWrapper.create(entity, null);
 
@@ -0,0 +1,109 @@
+package org.lightadmin.core.rest.binary;
+
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static org.springframework.util.ClassUtils.getUserClass;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+/**
+ * Lengths of byte[] file properties within the current request, answered by projection queries instead of
+ * reading the contents. Pages of entities are looked up with one query per property rather than one per entity.
+ */
+@SuppressWarnings("unchecked")
+public abstract class BinaryFileLengths {
+
+    private static final String BINARY_FILE_LENGTHS_ATTRIBUTE = BinaryFileLengths.class.getName() + ".BINARY_FILE_LENGTHS";
+
+    public static void prefetch(DynamicJpaRepository<?, ?> repository, PersistentEntityMetadata metadata, List<?> entities) {
+        if (entities.isEmpty() || metadata.getBinaryFileProperties().isEmpty()) {
+            return;
+        }
+
+        final List<Object> ids = newArrayList();
+        for (Object entity : entities) {
+            ids.add(metadata.getIdValue(entity));
+        }
+
+        for (PersistentProperty persistentProperty : metadata.getBinaryFileProperties()) {
+            final Map<Object, Long> cachedLengths = cachedLengths(metadata.getPersistentEntity().getType(), persistentProperty);
+            if (cachedLengths == null) {
+                return;
+            }
+
+            final Map<Object, Long> lengths = repository.binaryLengths(ids, persistentProperty.getName());
+            for (Object id : ids) {
+                cachedLengths.put(id, lengths.containsKey(id) ? lengths.get(id) : 0L);
+            }
+        }
+    }
+
+    /**
+     * @return length of the stored content, 0 if there is none
+     */
+    public static long length(DynamicJpaRepository<?, ?> repository, Object entity, Object id, PersistentProperty persistentProperty) {
+        final Map<Object, Long> cachedLengths = cachedLengths(getUserClass(entity), persistentProperty);
+        if (cachedLengths != null && cachedLengths.containsKey(id)) {
+            return cachedLengths.get(id);
+        }
+
+        final Map<Object, Long> lengths = repository.binaryLengths(Collections.singletonList(id), persistentProperty.getName());
+        final long length = lengths.containsKey(id) ? lengths.get(id) : 0L;
+
+        if (cachedLengths != null) {
+            cachedLengths.put(id, length);
+        }
+        return length;
+    }
+
+    public static void clear(Class<?> domainType) {
+        final Map<String, Map<Object, Long>> binaryFileLengths = binaryFileLengths(false);
+        if (binaryFileLengths == null) {
+            return;
+        }
+
+        for (String key : newArrayList(binaryFileLengths.keySet())) {
+            if (key.startsWith(domainType.getName() + "#")) {
+                binaryFileLengths.remove(key);
+            }
+        }
+    }
+
+    private static Map<Object, Long> cachedLengths(Class<?> domainType, PersistentProperty persistentProperty) {
+        final Map<String, Map<Object, Long>> binaryFileLengths = binaryFileLengths(true);
+        if (binaryFileLengths == null) {
+            return null;
+        }
+
+        final String key = domainType.getName() + "#" + persistentProperty.getName();
+        Map<Object, Long> lengths = binaryFileLengths.get(key);
+        if (lengths == null) {
+            lengths = newHashMap();
+            binaryFileLengths.put(key, lengths);
+        }
+        return lengths;
+    }
+
+    private static Map<String, Map<Object, Long>> binaryFileLengths(boolean create) {
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+
+        Map<String, Map<Object, Long>> binaryFileLengths = (Map<String, Map<Object, Long>>) requestAttributes.getAttribute(BINARY_FILE_LENGTHS_ATTRIBUTE, SCOPE_REQUEST);
+        if (binaryFileLengths == null && create) {
+            binaryFileLengths = newHashMap();
+            requestAttributes.setAttribute(BINARY_FILE_LENGTHS_ATTRIBUTE, binaryFileLengths, SCOPE_REQUEST);
+        }
+        return binaryFileLengths;
+    }
+}
@@ -0,0 +1,126 @@
+package org.lightadmin.core.rest.binary;
+
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Striped;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Charsets.US_ASCII;
+import static com.google.common.io.Files.hash;
+import static java.lang.String.format;
+import static org.apache.commons.io.FileUtils.*;
+import static org.lightadmin.core.rest.binary.FileStorageUtils.moveFile;
+import static org.lightadmin.core.rest.binary.FileStorageUtils.referencedFile;
+
+/**
+ * Stores each distinct content once under its SHA-256 in a sharded layout (/content/ab/cd/abcd...),
+ * counting the references held by entity properties. Content goes away with its last reference.
+ * References outside the content layout are treated as per-entity files and deleted on release.
+ */
+public class ContentAddressedFileStorage implements FileStorage {
+
+    private static final String CONTENT_DIRECTORY = "content";
+
+    private static final Pattern CONTENT_REFERENCE_PATTERN = Pattern.compile("^/" + CONTENT_DIRECTORY + "/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})$");
+
+    private static final Striped<Lock> CONTENT_LOCKS = Striped.lock(64);
+
+    private final File rootDirectory;
+
+    public ContentAddressedFileStorage(File rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    public static String contentReference(String hash) {
+        return format("/%s/%s/%s/%s", CONTENT_DIRECTORY, hash.substring(0, 2), hash.substring(2, 4), hash);
+    }
+
+    @Override
+    public File file(String reference) {
+        return referencedFile(rootDirectory, reference);
+    }
+
+    @Override
+    public String store(String currentReference, String entityReference, File content) throws IOException {
+        final String hash = hash(content, Hashing.sha256()).toString();
+        final String reference = contentReference(hash);
+
+        if (reference.equals(currentReference)) {
+            deleteQuietly(content);
+            return currentReference;
+        }
+
+        final Lock lock = CONTENT_LOCKS.get(hash);
+        lock.lock();
+        try {
+            final int referenceCount = readReferenceCount(reference);
+            if (referenceCount > 0) {
+                deleteQuietly(content);
+            } else {
+                moveFile(content, file(reference));
+            }
+            writeReferenceCount(reference, referenceCount + 1);
+        } finally {
+            lock.unlock();
+        }
+
+        release(currentReference);
+
+        return reference;
+    }
+
+    @Override
+    public void release(String reference) throws IOException {
+        if (reference == null) {
+            return;
+        }
+
+        final Matcher matcher = CONTENT_REFERENCE_PATTERN.matcher(reference);
+        if (!matcher.matches()) {
+            deleteQuietly(file(reference));
+            return;
+        }
+
+        final Lock lock = CONTENT_LOCKS.get(matcher.group(1));
+        lock.lock();
+        try {
+            final int referenceCount = readReferenceCount(reference) - 1;
+            if (referenceCount > 0) {
+                writeReferenceCount(reference, referenceCount);
+            } else {
+                deleteQuietly(file(reference));
+                deleteQuietly(referenceCountFile(reference));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int referenceCount(String reference) throws IOException {
+        return readReferenceCount(reference);
+    }
+
+    private int readReferenceCount(String reference) throws IOException {
+        final File referenceCountFile = referenceCountFile(reference);
+        if (!referenceCountFile.isFile()) {
+            return file(reference).isFile() ? 1 : 0;
+        }
+        return Integer.parseInt(readFileToString(referenceCountFile, US_ASCII).trim());
+    }
+
+    private void writeReferenceCount(String reference, int referenceCount) throws IOException {
+        final File referenceCountFile = referenceCountFile(reference);
+        final File temporaryFile = new File(referenceCountFile.getParentFile(), referenceCountFile.getName() + ".tmp");
+
+        writeStringToFile(temporaryFile, Integer.toString(referenceCount), US_ASCII);
+        moveFile(temporaryFile, referenceCountFile);
+    }
+
+    private File referenceCountFile(String reference) {
+        return file(reference + ".refs");
+    }
+}
@@ -6,6 +6,7 @@ import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
 import org.springframework.data.mapping.PersistentProperty;
 
 import java.io.File;
+import java.io.IOException;
 
 import static org.apache.commons.io.FileUtils.deleteQuietly;
 import static org.apache.commons.io.FileUtils.getFile;
@@ -17,6 +18,9 @@ public class DeleteFileRestOperation extends AbstractFileRestOperation {
         super(configuration, lightAdminConfiguration, entity);
     }
 
+    /**
+     * Releases the file held by the property, content shared with other entities stays in place.
+     */
     public void perform(PersistentProperty attrMeta) {
         if (attrMeta.getType().equals(byte[].class)) {
             resetAttrValue(attrMeta);
@@ -37,10 +41,17 @@ public class DeleteFileRestOperation extends AbstractFileRestOperation {
     }
 
     private boolean deleteFile(PersistentProperty attrMeta) {
-        if (fieldLevelBaseDirectoryDefined(attrMeta)) {
-            return deleteQuietly(referencedFile(attrMeta));
+        final String reference = currentReference(attrMeta);
+        if (reference == null) {
+            return false;
+        }
+
+        try {
+            fileStorage(attrMeta).release(reference);
+            return true;
+        } catch (IOException e) {
+            return false;
         }
-        return deleteQuietly(fileStorageFile(attrMeta));
     }
 
     private void removeDomainEntityDirectory(PersistentProperty attrMeta) {
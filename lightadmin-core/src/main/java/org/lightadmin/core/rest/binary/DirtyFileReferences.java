@@ -0,0 +1,81 @@
+package org.lightadmin.core.rest.binary;
+
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+/**
+ * @FileReference properties changed within the current request, along with the references they held before.
+ * Only these properties have their contents relocated when the entity is saved.
+ */
+public abstract class DirtyFileReferences {
+
+    private static final String DIRTY_FILE_REFERENCES_ATTRIBUTE = DirtyFileReferences.class.getName() + ".DIRTY_FILE_REFERENCES";
+
+    public static void markDirty(Object entity, PersistentProperty persistentProperty, Object previousValue) {
+        final Map<Object, Map<String, Object>> dirtyFileReferences = dirtyFileReferences(true);
+        if (dirtyFileReferences == null) {
+            return;
+        }
+
+        Map<String, Object> previousValues = dirtyFileReferences.get(entity);
+        if (previousValues == null) {
+            previousValues = newHashMap();
+            dirtyFileReferences.put(entity, previousValues);
+        }
+
+        if (!previousValues.containsKey(persistentProperty.getName())) {
+            previousValues.put(persistentProperty.getName(), previousValue);
+        }
+    }
+
+    public static boolean isDirty(Object entity, PersistentProperty persistentProperty) {
+        final Map<String, Object> previousValues = previousValues(entity);
+
+        return previousValues != null && previousValues.containsKey(persistentProperty.getName());
+    }
+
+    public static String previousReference(Object entity, PersistentProperty persistentProperty) {
+        final Map<String, Object> previousValues = previousValues(entity);
+        if (previousValues == null) {
+            return null;
+        }
+
+        final Object previousValue = previousValues.get(persistentProperty.getName());
+        return previousValue == null || FileUploadStorage.isUploadToken(previousValue) ? null : previousValue.toString();
+    }
+
+    public static void clear(Object entity) {
+        final Map<Object, Map<String, Object>> dirtyFileReferences = dirtyFileReferences(false);
+        if (dirtyFileReferences != null) {
+            dirtyFileReferences.remove(entity);
+        }
+    }
+
+    private static Map<String, Object> previousValues(Object entity) {
+        final Map<Object, Map<String, Object>> dirtyFileReferences = dirtyFileReferences(false);
+
+        return dirtyFileReferences == null ? null : dirtyFileReferences.get(entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Map<String, Object>> dirtyFileReferences(boolean create) {
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+
+        Map<Object, Map<String, Object>> dirtyFileReferences = (Map<Object, Map<String, Object>>) requestAttributes.getAttribute(DIRTY_FILE_REFERENCES_ATTRIBUTE, SCOPE_REQUEST);
+        if (dirtyFileReferences == null && create) {
+            dirtyFileReferences = new IdentityHashMap<Object, Map<String, Object>>();
+            requestAttributes.setAttribute(DIRTY_FILE_REFERENCES_ATTRIBUTE, dirtyFileReferences, SCOPE_REQUEST);
+        }
+        return dirtyFileReferences;
+    }
+}
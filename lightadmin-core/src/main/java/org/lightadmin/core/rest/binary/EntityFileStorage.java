@@ -0,0 +1,42 @@
+package org.lightadmin.core.rest.binary;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.lightadmin.core.rest.binary.FileStorageUtils.moveFile;
+import static org.lightadmin.core.rest.binary.FileStorageUtils.referencedFile;
+
+/**
+ * Stores every property content at its own per-entity location.
+ */
+public class EntityFileStorage implements FileStorage {
+
+    private final File rootDirectory;
+
+    public EntityFileStorage(File rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    @Override
+    public File file(String reference) {
+        return referencedFile(rootDirectory, reference);
+    }
+
+    @Override
+    public String store(String currentReference, String entityReference, File content) throws IOException {
+        moveFile(content, file(entityReference));
+
+        if (currentReference != null && !currentReference.equals(entityReference)) {
+            release(currentReference);
+        }
+        return entityReference;
+    }
+
+    @Override
+    public void release(String reference) {
+        if (reference != null) {
+            deleteQuietly(file(reference));
+        }
+    }
+}
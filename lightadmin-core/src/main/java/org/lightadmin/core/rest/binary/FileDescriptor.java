@@ -0,0 +1,60 @@
+package org.lightadmin.core.rest.binary;
+
+import org.apache.tika.Tika;
+import org.springframework.util.DigestUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+import static java.lang.Long.toHexString;
+
+/**
+ * Size, content type and version hash of a stored file, resolved without loading file contents into memory.
+ * The hash is the entity tag served by the file download endpoint.
+ */
+public class FileDescriptor {
+
+    private static final Tika TIKA = new Tika();
+
+    private final long size;
+    private final String contentType;
+    private final String hash;
+
+    private FileDescriptor(long size, String contentType, String hash) {
+        this.size = size;
+        this.contentType = contentType;
+        this.hash = hash;
+    }
+
+    public static FileDescriptor fileDescriptor(byte[] content) {
+        return new FileDescriptor(content.length, TIKA.detect(content), hash(content));
+    }
+
+    public static FileDescriptor fileDescriptor(long size) {
+        return new FileDescriptor(size, null, null);
+    }
+
+    public static FileDescriptor fileDescriptor(File file) throws IOException {
+        return new FileDescriptor(file.length(), TIKA.detect(file), hash(file));
+    }
+
+    public static String hash(byte[] content) {
+        return DigestUtils.md5DigestAsHex(content);
+    }
+
+    public static String hash(File file) {
+        return toHexString(file.lastModified()) + "-" + toHexString(file.length());
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,230 @@
+package org.lightadmin.core.rest.binary;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mapping.PersistentProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static java.util.Collections.newSetFromMap;
+
+/**
+ * Size, content type and version of stored files kept in memory, so that describing file properties
+ * while serializing entities does not touch the disk.
+ * Entries on local disks are invalidated by a {@link WatchService}, entries on network file systems,
+ * where changes made by other hosts are not reported, expire after {@link #UNWATCHED_EXPIRATION_MILLIS}.
+ * Hashes of byte[] contents are refreshed when the entity is saved and expire the same way.
+ */
+public class FileMetadataCache implements DisposableBean {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    public static final long UNWATCHED_EXPIRATION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    static final int MAX_WATCHED_DIRECTORIES = 4096;
+
+    private static final Set<String> NETWORK_FILE_STORE_TYPES = ImmutableSet.of("nfs", "nfs4", "cifs", "smbfs", "smb2", "afs", "fuse.sshfs", "9p");
+
+    private final Cache<String, CachedFileMetadata> entries;
+
+    private final Set<Path> watchedDirectories = newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+    private final WatchService watchService;
+
+    public FileMetadataCache(long maximumSize) {
+        this.entries = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        this.watchService = newWatchService();
+
+        if (watchService != null) {
+            final Thread watcher = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    processWatchEvents();
+                }
+            }, "lightadmin-file-metadata-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    /**
+     * byte[] contents are described by their size only, so that serializing entities does not read them.
+     *
+     * @return file descriptor or null if the property holds no file
+     */
+    public FileDescriptor describe(GetFileRestOperation operation, PersistentProperty persistentProperty) throws IOException {
+        final File file = operation.file(persistentProperty);
+        if (file == null) {
+            return operation.describeSize(persistentProperty);
+        }
+        return describe(file);
+    }
+
+    /**
+     * Same as {@link #describe(GetFileRestOperation, PersistentProperty)}, but byte[] contents are described
+     * with content type and hash as well. These are computed on first use and kept like file entries.
+     *
+     * @return file descriptor or null if the property holds no file
+     */
+    public FileDescriptor describeContent(GetFileRestOperation operation, PersistentProperty persistentProperty) throws IOException {
+        final File file = operation.file(persistentProperty);
+        if (file != null) {
+            return describe(file);
+        }
+
+        final String key = binaryContentKey(operation, persistentProperty);
+
+        final CachedFileMetadata cachedFileMetadata = entries.getIfPresent(key);
+        if (cachedFileMetadata != null && !cachedFileMetadata.isExpired()) {
+            return cachedFileMetadata.fileDescriptor;
+        }
+
+        final FileDescriptor fileDescriptor = operation.describe(persistentProperty);
+
+        entries.put(key, new CachedFileMetadata(fileDescriptor, System.currentTimeMillis() + UNWATCHED_EXPIRATION_MILLIS));
+
+        return fileDescriptor;
+    }
+
+    public FileDescriptor describe(File file) throws IOException {
+        final Path path = path(file);
+
+        final CachedFileMetadata cachedFileMetadata = entries.getIfPresent(path.toString());
+        if (cachedFileMetadata != null && !cachedFileMetadata.isExpired()) {
+            return cachedFileMetadata.fileDescriptor;
+        }
+
+        // watch before stat, so a change right after the stat is still reported
+        final boolean watched = watch(path.getParent());
+
+        final FileDescriptor fileDescriptor = file.isFile() && file.length() > 0 ? FileDescriptor.fileDescriptor(file) : null;
+
+        entries.put(path.toString(), new CachedFileMetadata(fileDescriptor, watched ? Long.MAX_VALUE : System.currentTimeMillis() + UNWATCHED_EXPIRATION_MILLIS));
+
+        return fileDescriptor;
+    }
+
+    /**
+     * @return full file descriptor, including content type and hash of byte[] contents
+     */
+    public FileDescriptor refresh(GetFileRestOperation operation, PersistentProperty persistentProperty) throws IOException {
+        evict(operation, persistentProperty);
+
+        return describeContent(operation, persistentProperty);
+    }
+
+    public void evict(GetFileRestOperation operation, PersistentProperty persistentProperty) {
+        final File file = operation.file(persistentProperty);
+        entries.invalidate(file == null ? binaryContentKey(operation, persistentProperty) : path(file).toString());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private boolean watch(Path directory) {
+        if (watchService == null || directory == null) {
+            return false;
+        }
+
+        if (watchedDirectories.contains(directory)) {
+            return true;
+        }
+
+        if (watchedDirectories.size() >= MAX_WATCHED_DIRECTORIES || !Files.isDirectory(directory)) {
+            return false;
+        }
+
+        try {
+            if (NETWORK_FILE_STORE_TYPES.contains(Files.getFileStore(directory).type().toLowerCase())) {
+                return false;
+            }
+
+            directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            watchedDirectories.add(directory);
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (ClosedWatchServiceException e) {
+            return false;
+        }
+    }
+
+    private void processWatchEvents() {
+        try {
+            while (true) {
+                final WatchKey watchKey = watchService.take();
+                final Path directory = (Path) watchKey.watchable();
+
+                for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                    if (watchEvent.kind() == OVERFLOW) {
+                        entries.invalidateAll();
+                    } else {
+                        entries.invalidate(directory.resolve((Path) watchEvent.context()).toString());
+                    }
+                }
+
+                if (!watchKey.reset()) {
+                    watchedDirectories.remove(directory);
+                    invalidateDirectory(directory);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // cache destroyed
+        }
+    }
+
+    private void invalidateDirectory(Path directory) {
+        for (String key : entries.asMap().keySet()) {
+            if (directory.equals(Paths.get(key).getParent())) {
+                entries.invalidate(key);
+            }
+        }
+    }
+
+    private static String binaryContentKey(GetFileRestOperation operation, PersistentProperty persistentProperty) {
+        return operation.domainTypeName() + "#" + operation.idAttributeValue() + "#" + persistentProperty.getName();
+    }
+
+    private static Path path(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static WatchService newWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            return null;
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static class CachedFileMetadata {
+
+        private final FileDescriptor fileDescriptor;
+        private final long expiresAt;
+
+        CachedFileMetadata(FileDescriptor fileDescriptor, long expiresAt) {
+            this.fileDescriptor = fileDescriptor;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.lightadmin.core.rest.binary;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Keeps contents of @FileReference properties below a root directory.
+ * Property values are references relative to that root.
+ */
+public interface FileStorage {
+
+    File file(String reference);
+
+    /**
+     * Takes ownership of the content file and returns the reference to keep in the property.
+     *
+     * @param currentReference reference the property holds now, released when replaced
+     * @param entityReference  per-entity location of the property content
+     */
+    String store(String currentReference, String entityReference, File content) throws IOException;
+
+    void release(String reference) throws IOException;
+}
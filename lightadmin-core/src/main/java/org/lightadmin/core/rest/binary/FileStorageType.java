@@ -0,0 +1,40 @@
+package org.lightadmin.core.rest.binary;
+
+import java.io.File;
+
+public enum FileStorageType {
+
+    ENTITY("entity") {
+        @Override
+        public FileStorage fileStorage(File rootDirectory) {
+            return new EntityFileStorage(rootDirectory);
+        }
+    },
+    CONTENT_ADDRESSED("content-addressed") {
+        @Override
+        public FileStorage fileStorage(File rootDirectory) {
+            return new ContentAddressedFileStorage(rootDirectory);
+        }
+    };
+
+    private final String name;
+
+    FileStorageType(String name) {
+        this.name = name;
+    }
+
+    public abstract FileStorage fileStorage(File rootDirectory);
+
+    public String getName() {
+        return name;
+    }
+
+    public static FileStorageType forName(String name) {
+        for (FileStorageType fileStorageType : values()) {
+            if (fileStorageType.name.equalsIgnoreCase(name)) {
+                return fileStorageType;
+            }
+        }
+        return CONTENT_ADDRESSED;
+    }
+}
@@ -2,8 +2,18 @@ package org.lightadmin.core.rest.binary;
 
 import org.springframework.data.mapping.PersistentProperty;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.io.FileUtils.forceMkdir;
+import static org.apache.commons.lang3.StringUtils.stripStart;
 
 public class FileStorageUtils {
 
@@ -21,4 +31,37 @@ public class FileStorageUtils {
                 valueOf(idValue)
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves a property reference against the storage root. References are normalized first,
+     * so ones escaping the root through ".." segments are refused.
+     *
+     * @throws IllegalArgumentException if the reference does not resolve below the root directory
+     */
+    public static File referencedFile(File rootDirectory, String reference) {
+        final Path root = rootDirectory.toPath().toAbsolutePath().normalize();
+        final Path file = root.resolve(stripStart(reference, "/\\")).normalize();
+
+        if (file.equals(root) || !file.startsWith(root)) {
+            throw new IllegalArgumentException(format("File reference '%s' points outside of the file storage", reference));
+        }
+        return file.toFile();
+    }
+
+    /**
+     * Moves file over the target. Within one file system the move is atomic,
+     * otherwise content is copied next to the target first and renamed over it.
+     */
+    public static void moveFile(File source, File target) throws IOException {
+        forceMkdir(target.getParentFile());
+
+        try {
+            Files.move(source.toPath(), target.toPath(), ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            final Path temporaryTarget = new File(target.getParentFile(), target.getName() + ".tmp").toPath();
+            Files.copy(source.toPath(), temporaryTarget, REPLACE_EXISTING);
+            Files.move(temporaryTarget, target.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+            Files.delete(source.toPath());
+        }
+    }
+}
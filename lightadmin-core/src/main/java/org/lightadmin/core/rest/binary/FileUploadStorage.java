@@ -0,0 +1,93 @@
+package org.lightadmin.core.rest.binary;
+
+import org.lightadmin.core.config.LightAdminConfiguration;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static org.apache.commons.io.FileUtils.*;
+import static org.lightadmin.core.rest.binary.FileStorageUtils.moveFile;
+
+/**
+ * Temporary area uploaded files are streamed to before the owning entity is saved.
+ * Clients reference an upload by the returned token instead of posting file content back.
+ */
+public class FileUploadStorage {
+
+    public static final String UPLOAD_TOKEN_PREFIX = "upload:";
+
+    private static final Pattern UPLOAD_TOKEN_PATTERN = Pattern.compile("^" + UPLOAD_TOKEN_PREFIX + "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})$");
+
+    private static final String UPLOADS_DIRECTORY = ".uploads";
+
+    private static final long UPLOAD_EXPIRATION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final File uploadsDirectory;
+
+    public FileUploadStorage(LightAdminConfiguration lightAdminConfiguration) {
+        final File storageDirectory = lightAdminConfiguration.getFileStorageDirectory();
+
+        this.uploadsDirectory = storageDirectory == null ? getFile(getTempDirectory(), "lightadmin" + UPLOADS_DIRECTORY) : getFile(storageDirectory, UPLOADS_DIRECTORY);
+    }
+
+    public static boolean isUploadToken(Object value) {
+        return value instanceof String && UPLOAD_TOKEN_PATTERN.matcher((String) value).matches();
+    }
+
+    public String store(MultipartFile multipartFile) throws IOException {
+        forceMkdir(uploadsDirectory);
+        purgeExpiredUploads();
+
+        final String uploadId = UUID.randomUUID().toString();
+
+        multipartFile.transferTo(getFile(uploadsDirectory, uploadId));
+
+        return UPLOAD_TOKEN_PREFIX + uploadId;
+    }
+
+    public byte[] read(String uploadToken) throws IOException {
+        final File uploadedFile = uploadedFile(uploadToken);
+        try {
+            return readFileToByteArray(uploadedFile);
+        } finally {
+            deleteQuietly(uploadedFile);
+        }
+    }
+
+    public void moveTo(String uploadToken, File target) throws IOException {
+        moveFile(uploadedFile(uploadToken), target);
+    }
+
+    File uploadedFile(String uploadToken) throws IOException {
+        final Matcher matcher = UPLOAD_TOKEN_PATTERN.matcher(uploadToken);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(format("Invalid upload token %s", uploadToken));
+        }
+
+        final File uploadedFile = getFile(uploadsDirectory, matcher.group(1));
+        if (!uploadedFile.isFile()) {
+            throw new IOException(format("Upload %s expired or already consumed", uploadToken));
+        }
+        return uploadedFile;
+    }
+
+    private void purgeExpiredUploads() {
+        final File[] uploadedFiles = uploadsDirectory.listFiles();
+        if (uploadedFiles == null) {
+            return;
+        }
+
+        final long expiredBefore = System.currentTimeMillis() - UPLOAD_EXPIRATION_MILLIS;
+        for (File uploadedFile : uploadedFiles) {
+            if (uploadedFile.lastModified() < expiredBefore) {
+                deleteQuietly(uploadedFile);
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import static java.lang.String.valueOf;
 import static org.apache.commons.io.FileUtils.*;
 import static org.springframework.util.FileCopyUtils.copy;
 
@@ -23,24 +24,18 @@ public class GetFileRestOperation extends AbstractFileRestOperation {
 
     public byte[] perform(PersistentProperty persistentProperty) throws IOException {
         if (persistentProperty.getType().equals(byte[].class)) {
-            return (byte[]) BeanWrapper.create(entity, null).getProperty(persistentProperty);
+            return binaryContent(persistentProperty);
         }
 
         if (persistentProperty.isAnnotationPresent(FileReference.class)) {
-            FileReference fileReference = (FileReference) persistentProperty.findAnnotation(FileReference.class);
-
-            if (getFile(fileReference.baseDirectory()).exists()) {
-                return readFileToByteArray(referencedFile(persistentProperty));
-            } else {
-                return readFileToByteArray(fileStorageFile(persistentProperty));
-            }
+            return readFileToByteArray(file(persistentProperty));
         }
         return new byte[]{};
     }
 
     public long performCopy(PersistentProperty persistentProperty, OutputStream outputStream) throws IOException {
         if (persistentProperty.getType().equals(byte[].class)) {
-            byte[] fileData = (byte[]) BeanWrapper.create(entity, null).getProperty(persistentProperty);
+            byte[] fileData = binaryContent(persistentProperty);
             if (ArrayUtils.isNotEmpty(fileData)) {
                 copy(fileData, outputStream);
                 return fileData.length;
@@ -48,16 +43,45 @@ public class GetFileRestOperation extends AbstractFileRestOperation {
         }
 
         if (persistentProperty.isAnnotationPresent(FileReference.class)) {
-            FileReference fileReference = (FileReference) persistentProperty.findAnnotation(FileReference.class);
+            return copyToOutputStream(file(persistentProperty), outputStream);
+        }
 
-            if (getFile(fileReference.baseDirectory()).exists()) {
-                return copyToOutputStream(referencedFile(persistentProperty), outputStream);
-            }
+        return 0l;
+    }
 
-            return copyToOutputStream(fileStorageFile(persistentProperty), outputStream);
+    public File file(PersistentProperty persistentProperty) {
+        if (!persistentProperty.isAnnotationPresent(FileReference.class)) {
+            return null;
         }
 
-        return 0l;
+        return fileStorage(persistentProperty).file(valueOf(BeanWrapper.create(entity, null).getProperty(persistentProperty)));
+    }
+
+    public FileDescriptor describe(PersistentProperty persistentProperty) throws IOException {
+        final File file = file(persistentProperty);
+        if (file != null) {
+            return file.isFile() && file.length() > 0 ? FileDescriptor.fileDescriptor(file) : null;
+        }
+
+        if (persistentProperty.getType().equals(byte[].class)) {
+            byte[] fileData = binaryContent(persistentProperty);
+            return ArrayUtils.isNotEmpty(fileData) ? FileDescriptor.fileDescriptor(fileData) : null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Size of the stored file, byte[] contents are measured by the database without being read.
+     *
+     * @return descriptor without content type and hash, or null if the property holds no file
+     */
+    public FileDescriptor describeSize(PersistentProperty persistentProperty) throws IOException {
+        if (persistentProperty.getType().equals(byte[].class)) {
+            final long length = binaryLength(persistentProperty);
+            return length > 0 ? FileDescriptor.fileDescriptor(length) : null;
+        }
+        return describe(persistentProperty);
     }
 
     private long copyToOutputStream(File file, OutputStream outputStream) throws IOException {
@@ -0,0 +1,265 @@
+package org.lightadmin.core.rest.binary;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import org.lightadmin.core.config.LightAdminConfiguration;
+import org.lightadmin.core.util.ImageUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.http.MediaType;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static org.apache.commons.io.FileUtils.*;
+import static org.lightadmin.core.util.ImageUtils.isImage;
+import static org.lightadmin.core.util.ImageUtils.scaleImage;
+import static org.springframework.http.MediaType.parseMediaType;
+
+/**
+ * Scaled image renditions kept in memory up to a byte limit and spilled to disk under the file storage directory.
+ * Renditions are keyed by content hash, so a changed file never hits a stale rendition.
+ */
+public class ImageRenditionCache {
+
+    public static final long DEFAULT_MEMORY_LIMIT = 32 * 1024 * 1024;
+
+    public static final long GENERATION_TIMEOUT_SECONDS = 30;
+
+    public static final int MAX_RENDITION_SIZE = ImageUtils.MAX_SCALED_SIZE;
+
+    private static final String RENDITIONS_DIRECTORY = ".renditions";
+
+    private final Cache<String, byte[]> renditions;
+    private final File renditionsDirectory;
+    private final List<Dimension> renditionSizes;
+    private final AsyncTaskExecutor executor;
+
+    /**
+     * @param executor bounded image processing executor, requests it rejects are answered as unavailable
+     */
+    public ImageRenditionCache(LightAdminConfiguration lightAdminConfiguration, AsyncTaskExecutor executor, long memoryLimit) {
+        this.renditions = CacheBuilder.newBuilder()
+                .maximumWeight(memoryLimit)
+                .weigher(new Weigher<String, byte[]>() {
+                    @Override
+                    public int weigh(String key, byte[] value) {
+                        return value.length;
+                    }
+                }).build();
+        this.renditionsDirectory = lightAdminConfiguration.getFileStorageDirectory() == null ? null : getFile(lightAdminConfiguration.getFileStorageDirectory(), RENDITIONS_DIRECTORY);
+        this.renditionSizes = lightAdminConfiguration.getFileRenditionSizes();
+        this.executor = executor;
+    }
+
+    /**
+     * @throws RejectedExecutionException when image processing is saturated or the rendition takes longer than {@link #GENERATION_TIMEOUT_SECONDS}
+     */
+    public byte[] rendition(GetFileRestOperation operation, PersistentProperty persistentProperty, FileDescriptor fileDescriptor, int width, int height) throws IOException {
+        final Dimension size = renditionSize(width, height);
+
+        return rendition(new RenditionKey(operation, persistentProperty, fileDescriptor, size.width, size.height), new ImageSource(operation, persistentProperty));
+    }
+
+    /**
+     * Requested sizes snap to the nearest configured rendition size, so that clients cannot make up any number of
+     * renditions or arbitrarily large ones. Without configured sizes each side is capped at {@link #MAX_RENDITION_SIZE}.
+     */
+    Dimension renditionSize(int width, int height) {
+        if (renditionSizes.isEmpty()) {
+            return new Dimension(Math.min(width, MAX_RENDITION_SIZE), Math.min(height, MAX_RENDITION_SIZE));
+        }
+
+        Dimension nearestSize = null;
+        long nearestDistance = Long.MAX_VALUE;
+        for (Dimension size : renditionSizes) {
+            final long distance = Math.abs((long) size.width - width) + Math.abs((long) size.height - height);
+            if (distance < nearestDistance) {
+                nearestSize = size;
+                nearestDistance = distance;
+            }
+        }
+        return nearestSize;
+    }
+
+    /**
+     * Generates configured rendition sizes in background, original content is read once for all of them.
+     */
+    public void generateRenditions(final GetFileRestOperation operation, final PersistentProperty persistentProperty, final FileDescriptor fileDescriptor) {
+        if (renditionSizes.isEmpty() || !isImage(fileDescriptor.getContentType())) {
+            return;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    evictStale(operation, persistentProperty, fileDescriptor);
+
+                    final ImageSource imageSource = new ImageSource(operation, persistentProperty);
+                    for (Dimension size : renditionSizes) {
+                        try {
+                            generate(new RenditionKey(operation, persistentProperty, fileDescriptor, size.width, size.height), imageSource);
+                        } catch (Exception e) {
+                            return;
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // renditions are generated on first request instead
+        }
+    }
+
+    public void evict(GetFileRestOperation operation, PersistentProperty persistentProperty) {
+        if (renditionsDirectory != null) {
+            deleteQuietly(getFile(renditionsDirectory, RenditionKey.propertyPath(operation, persistentProperty)));
+        }
+    }
+
+    private void evictStale(GetFileRestOperation operation, PersistentProperty persistentProperty, FileDescriptor fileDescriptor) {
+        if (renditionsDirectory == null) {
+            return;
+        }
+
+        final File[] renditionFiles = getFile(renditionsDirectory, RenditionKey.propertyPath(operation, persistentProperty)).listFiles();
+        if (renditionFiles == null) {
+            return;
+        }
+
+        for (File renditionFile : renditionFiles) {
+            if (!renditionFile.getName().startsWith(fileDescriptor.getHash() + "-")) {
+                deleteQuietly(renditionFile);
+            }
+        }
+    }
+
+    byte[] rendition(final RenditionKey key, final ImageSource imageSource) throws IOException {
+        final byte[] rendition = cachedRendition(key);
+        if (rendition != null) {
+            return rendition;
+        }
+
+        final Future<byte[]> generation = executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                return generate(key, imageSource);
+            }
+        });
+
+        try {
+            return generation.get(GENERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            generation.cancel(true);
+            throw new RejectedExecutionException(format("Rendition %s not generated in %d seconds", key, GENERATION_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            generation.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private byte[] generate(RenditionKey key, ImageSource imageSource) throws IOException {
+        byte[] rendition = cachedRendition(key);
+        if (rendition != null) {
+            return rendition;
+        }
+
+        rendition = scaleImage(imageSource.content(), key.mediaType, key.width, key.height);
+        store(renditionFile(key), rendition);
+
+        renditions.put(key.toString(), rendition);
+        return rendition;
+    }
+
+    private byte[] cachedRendition(RenditionKey key) throws IOException {
+        byte[] rendition = renditions.getIfPresent(key.toString());
+        if (rendition != null) {
+            return rendition;
+        }
+
+        final File renditionFile = renditionFile(key);
+        if (renditionFile != null && renditionFile.isFile()) {
+            rendition = readFileToByteArray(renditionFile);
+            renditions.put(key.toString(), rendition);
+        }
+        return rendition;
+    }
+
+    private void store(File renditionFile, byte[] rendition) throws IOException {
+        if (renditionFile == null) {
+            return;
+        }
+
+        final File temporaryFile = new File(renditionFile.getParentFile(), renditionFile.getName() + ".tmp");
+        writeByteArrayToFile(temporaryFile, rendition);
+        if (!temporaryFile.renameTo(renditionFile)) {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    private File renditionFile(RenditionKey key) {
+        return renditionsDirectory == null ? null : getFile(renditionsDirectory, key.toString());
+    }
+
+    static class RenditionKey {
+
+        private final String propertyPath;
+        private final String hash;
+        private final MediaType mediaType;
+        private final int width;
+        private final int height;
+
+        RenditionKey(GetFileRestOperation operation, PersistentProperty persistentProperty, FileDescriptor fileDescriptor, int width, int height) {
+            this(propertyPath(operation, persistentProperty), fileDescriptor.getHash(), parseMediaType(fileDescriptor.getContentType()), width, height);
+        }
+
+        RenditionKey(String propertyPath, String hash, MediaType mediaType, int width, int height) {
+            this.propertyPath = propertyPath;
+            this.hash = hash;
+            this.mediaType = mediaType;
+            this.width = Math.max(width, 0);
+            this.height = Math.max(height, 0);
+        }
+
+        static String propertyPath(GetFileRestOperation operation, PersistentProperty persistentProperty) {
+            return operation.domainTypeName() + File.separator + valueOf(operation.idAttributeValue()) + File.separator + persistentProperty.getName();
+        }
+
+        @Override
+        public String toString() {
+            return propertyPath + File.separator + format("%s-%dx%d.%s", hash, width, height, mediaType.getSubtype());
+        }
+    }
+
+    static class ImageSource {
+
+        private final GetFileRestOperation operation;
+        private final PersistentProperty persistentProperty;
+
+        private byte[] content;
+
+        ImageSource(GetFileRestOperation operation, PersistentProperty persistentProperty) {
+            this.operation = operation;
+            this.persistentProperty = persistentProperty;
+        }
+
+        byte[] content() throws IOException {
+            if (content == null) {
+                content = operation.perform(persistentProperty);
+            }
+            return content;
+        }
+    }
+}
@@ -2,23 +2,34 @@ package org.lightadmin.core.rest.binary;
 
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.springframework.util.Assert;
 
 public class OperationBuilder {
 
     private GlobalAdministrationConfiguration configuration;
     private LightAdminConfiguration lightAdminConfiguration;
+    private FileUploadStorage fileUploadStorage;
 
-    private OperationBuilder(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration) {
+    private OperationBuilder(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration, FileUploadStorage fileUploadStorage) {
         this.configuration = configuration;
         this.lightAdminConfiguration = lightAdminConfiguration;
+        this.fileUploadStorage = fileUploadStorage;
     }
 
     public static OperationBuilder operationBuilder(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration) {
-        return new OperationBuilder(configuration, lightAdminConfiguration);
+        return new OperationBuilder(configuration, lightAdminConfiguration, null);
+    }
+
+    /**
+     * @param fileUploadStorage storage of uploaded files, required to build save operations
+     */
+    public static OperationBuilder operationBuilder(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration, FileUploadStorage fileUploadStorage) {
+        return new OperationBuilder(configuration, lightAdminConfiguration, fileUploadStorage);
     }
 
     public SaveFileRestOperation saveOperation(Object entity) {
-        return new SaveFileRestOperation(configuration, lightAdminConfiguration, entity);
+        Assert.state(fileUploadStorage != null, "Save operations require the file upload storage");
+        return new SaveFileRestOperation(configuration, lightAdminConfiguration, fileUploadStorage, entity);
     }
 
     public DeleteFileRestOperation deleteOperation(Object entity) {
@@ -1,100 +1,91 @@
 package org.lightadmin.core.rest.binary;
 
-import org.lightadmin.api.config.annotation.FileReference;
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.mapping.model.BeanWrapper;
 
 import java.io.File;
 import java.io.IOException;
 
-import static org.apache.commons.io.FileUtils.*;
+import static org.apache.commons.io.FileUtils.copyFile;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.lightadmin.core.rest.binary.FileStorageType.ENTITY;
 import static org.lightadmin.core.rest.binary.FileStorageUtils.relativePathToStoreBinaryAttrValue;
+import static org.lightadmin.core.rest.binary.FileUploadStorage.isUploadToken;
 import static org.springframework.security.crypto.codec.Base64.decode;
 import static org.springframework.security.crypto.codec.Base64.isBase64;
 import static org.springframework.util.StringUtils.isEmpty;
 
 public class SaveFileRestOperation extends AbstractFileRestOperation {
 
-    protected SaveFileRestOperation(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration, Object entity) {
+    private final FileUploadStorage fileUploadStorage;
+
+    protected SaveFileRestOperation(GlobalAdministrationConfiguration configuration, LightAdminConfiguration lightAdminConfiguration, FileUploadStorage fileUploadStorage, Object entity) {
         super(configuration, lightAdminConfiguration, entity);
+        this.fileUploadStorage = fileUploadStorage;
     }
 
-    public void perform(PersistentProperty attrMeta, Object incomingValueObject) throws IOException {
-        if (attrMeta.getType().equals(byte[].class)) {
-            performDirectSave(attrMeta, (byte[]) incomingValueObject);
-            return;
+    /**
+     * Moves the new content of a changed @FileReference property into storage and points the property at it.
+     * Uploaded files are moved, never read. A reference to another stored file is stored again as a copy,
+     * so shared content gets its reference counted. The entity is not saved, callers run this before the entity is written.
+     *
+     * @param previousReference reference the property held before the change, released once replaced
+     * @return false if the storage location depends on an identifier not assigned yet
+     */
+    public boolean performRelocation(PersistentProperty attrMeta, String previousReference) throws IOException {
+        if (idAttributeValue() == null && lightAdminConfiguration.getFileStorageType() == ENTITY) {
+            return false;
         }
 
-        if (attrMeta.isAnnotationPresent(FileReference.class)) {
-            final byte[] incomingVal = incomingValue(incomingValueObject);
+        final BeanWrapper<Object> beanWrapper = BeanWrapper.create(entity, null);
+        final FileStorage fileStorage = fileStorage(attrMeta);
+        final Object value = beanWrapper.getProperty(attrMeta);
 
-            final FileReference fileReference = (FileReference) attrMeta.findAnnotation(FileReference.class);
-            if (getFile(fileReference.baseDirectory()).exists()) {
-                performSaveAgainstReferenceField(attrMeta, incomingVal);
-            } else {
-                performSaveToFileStorage(attrMeta, incomingVal);
-            }
+        if (isEmpty(value)) {
+            fileStorage.release(previousReference);
+            resetAttrValue(attrMeta);
+            return true;
         }
-    }
 
-    public void performCleanup(PersistentProperty fileReferenceAttrMetadata) throws IOException {
-        final JpaRepository repository = domainTypeAdministrationConfiguration.getRepository();
-        final FileReference fileReference = (FileReference) fileReferenceAttrMetadata.findAnnotation(FileReference.class);
-
-        if (getFile(fileReference.baseDirectory()).exists()) {
-            File file = referencedFile(fileReferenceAttrMetadata);
-            byte[] fileData = readFileToByteArray(file);
-            deleteQuietly(file);
-            perform(fileReferenceAttrMetadata, fileData);
-
-        } else {
-            File file = fileStorageFile(fileReferenceAttrMetadata);
-            byte[] fileData = readFileToByteArray(file);
-            deleteQuietly(file);
-            perform(fileReferenceAttrMetadata, fileData);
+        if (value.equals(previousReference)) {
+            return true;
         }
 
-        repository.save(entity);
-    }
-
-    private byte[] incomingValue(Object incomingValueObject) {
-        final byte[] incomingValue = incomingValueObject instanceof String
-                ? ((String) incomingValueObject).getBytes()
-                : (byte[]) incomingValueObject;
-
-        return isBase64(incomingValue) ? decode(incomingValue) : incomingValue;
-    }
-
-    private void performSaveToFileStorage(PersistentProperty attrMeta, byte[] incomingVal) throws IOException {
         String relativePath = relativePathToStoreBinaryAttrValue(domainTypeName(), idAttributeValue(), attrMeta);
 
-        File file = getFile(lightAdminConfiguration.getFileStorageDirectory(), relativePath);
-
-        if (isEmpty(incomingVal)) {
-            resetAttrValue(attrMeta);
-            deleteQuietly(file);
-        } else {
-            writeByteArrayToFile(file, incomingVal);
-            BeanWrapper.create(entity, null).setProperty(attrMeta, relativePath);
+        final File content = isUploadToken(value) ? fileUploadStorage.uploadedFile((String) value) : storedOrInlineContent(fileStorage, value);
+        try {
+            beanWrapper.setProperty(attrMeta, fileStorage.store(previousReference, relativePath, content));
+        } catch (IOException e) {
+            beanWrapper.setProperty(attrMeta, previousReference);
+            throw e;
+        } finally {
+            if (!isUploadToken(value)) {
+                deleteQuietly(content);
+            }
         }
+        return true;
     }
 
-    private void performSaveAgainstReferenceField(PersistentProperty attrMeta, byte[] incomingVal) throws IOException {
-        final FileReference fileReference = (FileReference) attrMeta.findAnnotation(FileReference.class);
+    private File storedOrInlineContent(FileStorage fileStorage, Object value) throws IOException {
+        final File storedFile = fileStorage.file(value.toString());
+        if (!storedFile.isFile()) {
+            return inlineContent(value);
+        }
 
-        String relativePath = relativePathToStoreBinaryAttrValue(domainTypeName(), idAttributeValue(), attrMeta);
+        final File content = File.createTempFile("lightadmin", ".bin");
+        copyFile(storedFile, content);
+        return content;
+    }
 
-        File file = getFile(fileReference.baseDirectory(), relativePath);
+    private File inlineContent(Object value) throws IOException {
+        final byte[] incomingValue = value.toString().getBytes();
 
-        if (isEmpty(incomingVal)) {
-            resetAttrValue(attrMeta);
-            deleteQuietly(file);
-        } else {
-            writeByteArrayToFile(file, incomingVal);
-            BeanWrapper.create(entity, null).setProperty(attrMeta, relativePath);
-        }
+        final File content = File.createTempFile("lightadmin", ".bin");
+        writeByteArrayToFile(content, isBase64(incomingValue) ? decode(incomingValue) : incomingValue);
+        return content;
     }
-}
\ No newline at end of file
+}
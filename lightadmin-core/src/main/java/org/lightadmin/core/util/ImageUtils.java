@@ -0,0 +1,143 @@
+package org.lightadmin.core.util;
+
+import org.apache.tika.Tika;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import static java.lang.String.format;
+import static org.imgscalr.Scalr.Method.SPEED;
+import static org.imgscalr.Scalr.Mode.AUTOMATIC;
+import static org.imgscalr.Scalr.OP_ANTIALIAS;
+import static org.imgscalr.Scalr.resize;
+import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
+import static org.springframework.http.MediaType.parseMediaType;
+
+public abstract class ImageUtils {
+
+    public static final long MAX_DECODED_PIXELS = 16 * 1000 * 1000;
+
+    public static final int MAX_SCALED_SIZE = 2048;
+
+    private static final Tika TIKA = new Tika();
+
+    /**
+     * Detects media type by leading magic bytes only, content is never parsed.
+     */
+    public static MediaType mediaTypeOf(byte[] content) {
+        try {
+            return parseMediaType(TIKA.detect(content));
+        } catch (InvalidMediaTypeException e) {
+            return APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    public static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    public static boolean imageResizingRequired(final int width, final int height) {
+        return width > 0 || height > 0;
+    }
+
+    public static byte[] scaleImage(byte[] content, MediaType mediaType, int width, int height) throws IOException {
+        return scaleImage(content, mediaType, width, height, MAX_DECODED_PIXELS);
+    }
+
+    public static byte[] scaleImage(byte[] content, MediaType mediaType, int width, int height, long maxDecodedPixels) throws IOException {
+        final BufferedImage image = resizeImage(readImage(content, mediaType, width, height, maxDecodedPixels), width, height);
+
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, mediaType.getSubtype(), byteArrayOutputStream)) {
+            throw new IOException(format("No image writer available for %s", mediaType));
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Decodes only every n-th source pixel when the target is much smaller than the source,
+     * so the decoded raster never exceeds the given pixel count.
+     */
+    public static BufferedImage readImage(byte[] content, MediaType mediaType, int width, int height, long maxDecodedPixels) throws IOException {
+        try (ImageInputStream inputStream = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            final Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(inputStream);
+            if (!imageReaders.hasNext()) {
+                throw new IOException(format("No image reader available for %s", mediaType));
+            }
+
+            final ImageReader imageReader = imageReaders.next();
+            try {
+                imageReader.setInput(inputStream, true, true);
+
+                final int subsampling = sourceSubsampling(imageReader.getWidth(0), imageReader.getHeight(0), width, height, maxDecodedPixels);
+
+                final ImageReadParam readParam = imageReader.getDefaultReadParam();
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                return imageReader.read(0, readParam);
+            } finally {
+                imageReader.dispose();
+            }
+        }
+    }
+
+    static int sourceSubsampling(int sourceWidth, int sourceHeight, int width, int height, long maxDecodedPixels) {
+        double scale;
+        if (width > 0 && height > 0) {
+            scale = Math.min((double) sourceWidth / width, (double) sourceHeight / height);
+        } else if (width > 0) {
+            scale = (double) sourceWidth / width;
+        } else if (height > 0) {
+            scale = (double) sourceHeight / height;
+        } else {
+            scale = 1;
+        }
+
+        // twice the target resolution is kept for the antialiased downscale
+        int subsampling = Math.max(1, (int) (scale / 2));
+        while (decodedPixels(sourceWidth, subsampling) * decodedPixels(sourceHeight, subsampling) > maxDecodedPixels) {
+            subsampling++;
+        }
+        return subsampling;
+    }
+
+    private static long decodedPixels(int sourcePixels, int subsampling) {
+        return (sourcePixels + subsampling - 1) / subsampling;
+    }
+
+    /**
+     * Target sides larger than {@link #MAX_SCALED_SIZE} are scaled down keeping their proportion,
+     * so the output raster is bounded whatever size is requested.
+     */
+    public static BufferedImage resizeImage(BufferedImage sourceImage, int width, int height) {
+        final int currentWidth = sourceImage.getWidth();
+        final int currentHeight = sourceImage.getHeight();
+
+        float ratio = ((float) currentHeight / (float) currentWidth);
+
+        if (width <= 0) {
+            width = (int) (height / ratio);
+        }
+
+        if (height <= 0) {
+            height = (int) (width * ratio);
+        }
+
+        final int largestSide = Math.max(width, height);
+        if (largestSide > MAX_SCALED_SIZE) {
+            width = (int) ((long) width * MAX_SCALED_SIZE / largestSide);
+            height = (int) ((long) height * MAX_SCALED_SIZE / largestSide);
+        }
+
+        return resize(sourceImage, SPEED, AUTOMATIC, Math.max(width, 1), Math.max(height, 1), OP_ANTIALIAS);
+    }
+}
@@ -8,12 +8,21 @@ public class LightAdminConfigurationUtils {
     public static final String LIGHT_ADMINISTRATION_SECURITY_LOGOUT_URL = "light:administration:security-logout-url";
     public static final String LIGHT_ADMINISTRATION_BACK_TO_SITE_URL = "light:administration:back-to-site-url";
     public static final String LIGHT_ADMINISTRATION_FILE_STORAGE_PATH = "light:administration:file-storage";
+    public static final String LIGHT_ADMINISTRATION_FILE_STORAGE_TYPE = "light:administration:file-storage-type";
     public static final String LIGHT_ADMINISTRATION_FILE_STREAMING = "light:administration:file-streaming";
+    public static final String LIGHT_ADMINISTRATION_FILE_RENDITIONS = "light:administration:file-renditions";
+    public static final String LIGHT_ADMINISTRATION_IMAGE_PROCESSING_THREADS = "light:administration:image-processing-threads";
+    public static final String LIGHT_ADMINISTRATION_IMAGE_PROCESSING_QUEUE = "light:administration:image-processing-queue";
+    public static final String LIGHT_ADMINISTRATION_ASSOCIATION_OPTIONS_LIMIT = "light:administration:association-options-limit";
 
     public static final String LIGHT_ADMIN_DISPATCHER_NAME = "lightadmin-dispatcher";
     public static final String LIGHT_ADMIN_CUSTOM_RESOURCE_SERVLET_NAME = "lightadmin-cusom-resource-servlet";
     public static final String LIGHT_ADMIN_DISPATCHER_REDIRECTOR_NAME = "lightadmin-dispatcher-redirector";
     public static final String LIGHT_ADMIN_SECURITY_LOGOUT_URL_DEFAULT = "/logout";
+    public static final String LIGHT_ADMIN_FILE_RENDITIONS_DEFAULT = "0x21,0x150,0x200";
+    public static final int LIGHT_ADMIN_IMAGE_PROCESSING_THREADS_DEFAULT = 2;
+    public static final int LIGHT_ADMIN_IMAGE_PROCESSING_QUEUE_DEFAULT = 16;
+    public static final int LIGHT_ADMIN_ASSOCIATION_OPTIONS_LIMIT_DEFAULT = 200;
 
     public static final String LIGHT_ADMIN_REST_URL_DEFAULT = "/rest";
 }
\ No newline at end of file
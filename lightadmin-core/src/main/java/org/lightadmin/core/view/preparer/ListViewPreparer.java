@@ -1,22 +1,22 @@
 package org.lightadmin.core.view.preparer;
 
-import com.google.common.collect.Collections2;
 import org.apache.tiles.AttributeContext;
 import org.apache.tiles.context.TilesRequestContext;
-import org.lightadmin.api.config.utils.ScopeMetadataUtils;
 import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
 import org.lightadmin.core.config.domain.scope.ScopeMetadata;
-import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
 import org.lightadmin.core.util.Pair;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.support.ScopeCountService;
 
 import java.util.List;
+import java.util.Map;
 
 import static com.google.common.collect.Lists.newLinkedList;
-import static org.lightadmin.api.config.utils.ScopeMetadataUtils.*;
 
 public class ListViewPreparer extends ConfigurationAwareViewPreparer {
 
+    private ScopeCountService scopeCountService;
+
     @Override
     protected void execute(final TilesRequestContext tilesContext, final AttributeContext attributeContext, final DomainTypeAdministrationConfiguration configuration) {
         super.execute(tilesContext, attributeContext, configuration);
@@ -30,32 +30,18 @@ public class ListViewPreparer extends ConfigurationAwareViewPreparer {
 
     private List<Pair<? extends ScopeMetadata, Long>> scopes(DomainTypeAdministrationConfiguration configuration) {
         final List<Pair<? extends ScopeMetadata, Long>> result = newLinkedList();
-        final Iterable<ScopeMetadata> scopes = configuration.getScopes();
-
-        final DynamicJpaRepository<?, ?> repository = configuration.getRepository();
-
-        for (ScopeMetadata scope : scopes) {
-            if (isPredicateScope(scope)) {
-                result.add(scopeWithRecordsCount((PredicateScopeMetadata) scope, repository));
-            } else if (isSpecificationScope(scope)) {
-                result.add(scopeWithRecordsCount((ScopeMetadataUtils.SpecificationScopeMetadata) scope, repository));
-            } else {
-                result.add(Pair.create(scope, repository.count()));
-            }
+
+        final Map<String, Long> scopeCounts = scopeCountService.scopeCounts(configuration);
+
+        for (ScopeMetadata scope : configuration.getScopes()) {
+            result.add(Pair.create(scope, scopeCounts.get(scope.getName())));
         }
 
         return result;
     }
 
-    @SuppressWarnings("unchecked")
-    private Pair<? extends ScopeMetadata, Long> scopeWithRecordsCount(final ScopeMetadataUtils.SpecificationScopeMetadata scope, final DynamicJpaRepository<?, ?> repository) {
-        return Pair.create(scope, repository.count(scope.specification()));
-    }
-
-    @SuppressWarnings("unchecked")
-    private Pair<? extends ScopeMetadata, Long> scopeWithRecordsCount(final PredicateScopeMetadata scope, final JpaRepository<?, ?> repository) {
-        long recordsCount = Collections2.filter(repository.findAll(), scope.predicate()).size();
-
-        return Pair.create(scope, recordsCount);
+    @Autowired
+    public void setScopeCountService(ScopeCountService scopeCountService) {
+        this.scopeCountService = scopeCountService;
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,17 @@
 package org.lightadmin.core.view.tags.form;
 
-import org.lightadmin.api.config.utils.EntityNameExtractor;
 import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
-import org.lightadmin.core.util.Pair;
 import org.lightadmin.core.view.tags.AbstractAutowiredTag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.mapping.PersistentProperty;
-import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.data.rest.webmvc.support.AssociationOptionsCache;
+import org.springframework.data.rest.webmvc.support.AssociationOptionsCache.AssociationOptions;
 import org.springframework.util.Assert;
 
 import javax.servlet.jsp.JspContext;
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.tagext.JspFragment;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-
-import static com.google.common.collect.Lists.newArrayList;
-import static org.lightadmin.core.config.domain.configuration.support.ExceptionAwareTransformer.exceptionAwareNameExtractor;
 
 @SuppressWarnings("unchecked")
 public class DomainTypeElementsTag extends AbstractAutowiredTag {
@@ -28,6 +19,9 @@ public class DomainTypeElementsTag extends AbstractAutowiredTag {
     @Autowired(required = true)
     private GlobalAdministrationConfiguration configuration;
 
+    @Autowired(required = true)
+    private AssociationOptionsCache associationOptionsCache;
+
     private Class<?> domainType;
 
     private String idVar;
@@ -39,43 +33,15 @@ public class DomainTypeElementsTag extends AbstractAutowiredTag {
         DomainTypeBasicConfiguration domainTypeConfiguration = configuration.forDomainType(domainType);
         Assert.notNull(domainTypeConfiguration, "<domainTypeConfiguration> not found for association");
 
-        // TODO: Implement configurable ordering
-        List allElements = domainTypeConfiguration.getRepository().findAll();
-        allElements = sortByNaturalOrder(allElements, domainTypeConfiguration);
-
-        PersistentProperty idAttribute = domainTypeConfiguration.getPersistentEntity().getIdProperty();
-        EntityNameExtractor<Object> nameExtractor = domainTypeConfiguration.getEntityConfiguration().getNameExtractor();
         JspContext jspContext = getJspContext();
         JspFragment tagBody = getJspBody();
-        for (Object element : allElements) {
-            jspContext.setAttribute(idVar, BeanWrapper.create(element, null).getProperty(idAttribute));
-            jspContext.setAttribute(stringRepresentationVar, exceptionAwareNameExtractor(nameExtractor, domainTypeConfiguration).apply(element));
-            tagBody.invoke(null);
-        }
-    }
 
-    private List sortByNaturalOrder(List elements, DomainTypeBasicConfiguration elementTypeConfiguration) {
-
-        EntityNameExtractor<Object> nameExtractor = elementTypeConfiguration.getEntityConfiguration().getNameExtractor();
-
-        List<Pair<Object, String>> elementNamePairs = newArrayList();
-        for (Object element : elements) {
-            final String name = exceptionAwareNameExtractor(nameExtractor, elementTypeConfiguration).apply(element);
-            elementNamePairs.add(new Pair<Object, String>(element, name));
-        }
-
-        Collections.sort(elementNamePairs, new Comparator<Pair<Object, String>>() {
-            @Override
-            public int compare(Pair<Object, String> pair1, Pair<Object, String> pair2) {
-                return pair1.getSecond().compareToIgnoreCase(pair2.getSecond());
-            }
-        });
-
-        List sortedElements = new ArrayList<Object>(elementNamePairs.size());
-        for (Pair<Object, String> elementNamePair : elementNamePairs) {
-            sortedElements.add(elementNamePair.getFirst());
+        AssociationOptions options = associationOptionsCache.eagerOptions(domainTypeConfiguration);
+        for (int i = 0; i < options.size(); i++) {
+            jspContext.setAttribute(idVar, options.id(i));
+            jspContext.setAttribute(stringRepresentationVar, options.name(i));
+            tagBody.invoke(null);
         }
-        return sortedElements;
     }
 
     public void setDomainType(Class<?> type) {
@@ -3,16 +3,19 @@ package org.lightadmin.core.web.util;
 import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
 import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
 import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.mapping.model.BeanWrapper;
 import org.springframework.data.rest.webmvc.PersistentEntityResource;
 import org.springframework.hateoas.Link;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import java.io.Serializable;
 
 import static java.lang.String.valueOf;
+import static org.lightadmin.core.web.util.WebContextUtils.associationOptionsCache;
 import static org.lightadmin.core.web.util.WebContextUtils.getCurrentRequest;
 import static org.lightadmin.core.web.util.WebContextUtils.globalAdministrationConfiguration;
 
@@ -56,6 +59,29 @@ public final class ApplicationUrlResolver {
         return "/rest/" + configuration.getPluralDomainTypeName() + "/scope";
     }
 
+    public static String domainRestScopeCountsUrl(DomainTypeAdministrationConfiguration configuration) {
+        return "/rest/" + configuration.getPluralDomainTypeName() + "/scope-counts";
+    }
+
+    /**
+     * @return typeahead lookup url for the association, or <code>null</code> when its options are rendered eagerly
+     * because the association is configured so or the associated type is small enough to be cached
+     */
+    public static String associationLookupUrl(Class<?> domainType, PersistentProperty property) {
+        DomainTypeAdministrationConfiguration configuration = domainTypeAdministrationConfiguration(domainType);
+        if (configuration == null || configuration.getEntityConfiguration().getEagerAssociations().contains(property.getName())) {
+            return null;
+        }
+
+        ServletContext servletContext = getCurrentRequest().getServletContext();
+        DomainTypeBasicConfiguration associationConfiguration = globalAdministrationConfiguration(servletContext).forDomainType(property.getActualType());
+        if (associationConfiguration == null || !associationOptionsCache(servletContext).isLookupRequired(associationConfiguration)) {
+            return null;
+        }
+
+        return domainRestBaseUrl(configuration) + "/" + property.getName() + "/lookup";
+    }
+
     public static String filePropertyRestUrl(Object entity, String property) {
         DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration = domainTypeAdministrationConfiguration(getCurrentRequest(), entity);
         PersistentEntity persistentEntity = domainTypeAdministrationConfiguration.getPersistentEntity();
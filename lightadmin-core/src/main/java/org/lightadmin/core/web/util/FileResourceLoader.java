@@ -1,42 +1,250 @@
 package org.lightadmin.core.web.util;
 
+import org.apache.commons.lang3.math.NumberUtils;
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.rest.binary.FileDescriptor;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
+import org.lightadmin.core.rest.binary.GetFileRestOperation;
+import org.lightadmin.core.rest.binary.ImageRenditionCache;
 import org.lightadmin.core.rest.binary.OperationBuilder;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import static org.lightadmin.core.util.ResponseUtils.*;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.lightadmin.core.util.ImageUtils.imageResizingRequired;
+import static org.lightadmin.core.util.ImageUtils.isImage;
+import static org.lightadmin.core.util.ResponseUtils.addImageResourceHeaders;
+import static org.lightadmin.core.util.ResponseUtils.octetStreamResponseHeader;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
+import static org.springframework.http.MediaType.parseMediaType;
 
 @SuppressWarnings("unused")
 public class FileResourceLoader {
 
+    private static final Pattern BYTE_RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String IF_RANGE = "If-Range";
+    private static final String RANGE = "Range";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final String WIDTH_PARAMETER = "width";
+    private static final String HEIGHT_PARAMETER = "height";
+
     private final GlobalAdministrationConfiguration globalAdministrationConfiguration;
 
     private final OperationBuilder operationBuilder;
 
-    public FileResourceLoader(GlobalAdministrationConfiguration globalAdministrationConfiguration, LightAdminConfiguration lightAdminConfiguration) {
+    private final ImageRenditionCache imageRenditionCache;
+
+    private final FileMetadataCache fileMetadataCache;
+
+    public FileResourceLoader(GlobalAdministrationConfiguration globalAdministrationConfiguration, LightAdminConfiguration lightAdminConfiguration, ImageRenditionCache imageRenditionCache, FileMetadataCache fileMetadataCache) {
         this.globalAdministrationConfiguration = globalAdministrationConfiguration;
+        this.imageRenditionCache = imageRenditionCache;
+        this.fileMetadataCache = fileMetadataCache;
 
         this.operationBuilder = OperationBuilder.operationBuilder(globalAdministrationConfiguration, lightAdminConfiguration);
     }
 
-    public void downloadFile(Object entity, PersistentProperty<?> persistentProperty, HttpServletResponse response) throws IOException {
-        final long size = operationBuilder.getOperation(entity).performCopy(persistentProperty, response.getOutputStream());
-        final String eTag = eTag(entity.getClass(), persistentProperty.getName(), size);
+    public void downloadFile(Object entity, PersistentProperty<?> persistentProperty, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final GetFileRestOperation operation = operationBuilder.getOperation(entity);
+
+        final int width = intParameter(request, WIDTH_PARAMETER);
+        final int height = intParameter(request, HEIGHT_PARAMETER);
+
+        if (imageResizingRequired(width, height) && serveRendition(operation, persistentProperty, width, height, request, response)) {
+            return;
+        }
+
+        final File file = operation.file(persistentProperty);
+        if (file == null) {
+            final FileDescriptor fileDescriptor = fileMetadataCache.describeContent(operation, persistentProperty);
+            serve(fileDescriptor == null ? new BinaryFileResource(null) : new StoredBinaryFileResource(operation, persistentProperty, fileDescriptor), request, response);
+            return;
+        }
+
+        if (!file.isFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-        addImageResourceHeaders(response, octetStreamResponseHeader(APPLICATION_OCTET_STREAM, size, eTag));
+        serve(new DiskFileResource(file), request, response);
     }
 
-    public void downloadFile(Object entity, String field, HttpServletResponse response) throws IOException {
+    public void downloadFile(Object entity, String field, HttpServletRequest request, HttpServletResponse response) throws IOException {
         Class<?> domainType = entity.getClass();
 
-        downloadFile(entity, attributeMetadata(domainType, field), response);
+        downloadFile(entity, attributeMetadata(domainType, field), request, response);
+    }
+
+    private boolean serveRendition(GetFileRestOperation operation, PersistentProperty<?> persistentProperty, int width, int height, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final FileDescriptor fileDescriptor = fileMetadataCache.describeContent(operation, persistentProperty);
+        if (fileDescriptor == null || !isImage(fileDescriptor.getContentType())) {
+            return false;
+        }
+
+        final byte[] rendition;
+        try {
+            rendition = imageRenditionCache.rendition(operation, persistentProperty, fileDescriptor, width, height);
+        } catch (RejectedExecutionException e) {
+            response.setHeader(RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+
+        serve(new BinaryFileResource(rendition, parseMediaType(fileDescriptor.getContentType())), request, response);
+        return true;
+    }
+
+    void serve(FileResource resource, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final long length = resource.length();
+        final long lastModified = resource.lastModified();
+        final String eTag = resource.eTag();
+
+        if (notModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(ETAG, eTag);
+            if (lastModified >= 0) {
+                response.setDateHeader(LAST_MODIFIED, lastModified);
+            }
+            return;
+        }
+
+        final HttpHeaders headers = octetStreamResponseHeader(resource.mediaType(), length, eTag);
+        headers.set(ACCEPT_RANGES, "bytes");
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+
+        final ByteRange range = requestedRange(request, eTag, lastModified, length);
+
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        if (range == null) {
+            addImageResourceHeaders(response, headers);
+            resource.writeTo(response.getOutputStream(), 0, length);
+            return;
+        }
+
+        headers.setContentLength(range.length());
+        headers.set(CONTENT_RANGE, format("bytes %d-%d/%d", range.start, range.end, length));
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        addImageResourceHeaders(response, headers);
+        resource.writeTo(response.getOutputStream(), range.start, range.length());
+    }
+
+    private boolean notModified(HttpServletRequest request, String eTag, long lastModified) {
+        final String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                final String candidateTag = candidate.trim();
+                if ("*".equals(candidateTag) || eTag.equals(candidateTag) || eTag.equals(candidateTag.replaceFirst("^W/", ""))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        final long ifModifiedSince = dateHeader(request, IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private ByteRange requestedRange(HttpServletRequest request, String eTag, long lastModified, long length) {
+        final String rangeHeader = request.getHeader(RANGE);
+        if (isBlank(rangeHeader) || !ifRangeMatches(request, eTag, lastModified)) {
+            return null;
+        }
+
+        final Matcher matcher = BYTE_RANGE_PATTERN.matcher(rangeHeader.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        final String first = matcher.group(1);
+        final String last = matcher.group(2);
+
+        try {
+            if (isEmpty(first)) {
+                if (isEmpty(last)) {
+                    return null;
+                }
+                final long suffixLength = Long.parseLong(last);
+                if (suffixLength == 0 || length == 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffixLength), length - 1);
+            }
+
+            final long start = Long.parseLong(first);
+            if (start >= length) {
+                return ByteRange.UNSATISFIABLE;
+            }
+            final long end = isEmpty(last) ? length - 1 : Long.parseLong(last);
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        final String ifRange = request.getHeader(IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return eTag.equals(ifRange.trim());
+        }
+        final long ifRangeDate = dateHeader(request, IF_RANGE);
+        return ifRangeDate >= 0 && lastModified >= 0 && lastModified / 1000 == ifRangeDate / 1000;
+    }
+
+    private int intParameter(HttpServletRequest request, String parameterName) {
+        return NumberUtils.toInt(request.getParameter(parameterName));
+    }
+
+    private long dateHeader(HttpServletRequest request, String headerName) {
+        try {
+            return request.getDateHeader(headerName);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
     }
 
     private PersistentProperty attributeMetadata(Class<?> domainType, String field) {
@@ -46,4 +254,173 @@ public class FileResourceLoader {
 
         return persistentEntity.getPersistentProperty(field);
     }
-}
\ No newline at end of file
+
+    static final class ByteRange {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        private final long start;
+        private final long end;
+
+        private ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    interface FileResource {
+
+        long length();
+
+        long lastModified();
+
+        MediaType mediaType();
+
+        String eTag();
+
+        void writeTo(OutputStream outputStream, long offset, long count) throws IOException;
+    }
+
+    static class BinaryFileResource implements FileResource {
+
+        private final byte[] content;
+        private final MediaType mediaType;
+
+        BinaryFileResource(byte[] content) {
+            this(content, APPLICATION_OCTET_STREAM);
+        }
+
+        BinaryFileResource(byte[] content, MediaType mediaType) {
+            this.content = content == null ? new byte[0] : content;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public long length() {
+            return content.length;
+        }
+
+        @Override
+        public long lastModified() {
+            return -1;
+        }
+
+        @Override
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        @Override
+        public String eTag() {
+            return "\"" + FileDescriptor.hash(content) + "\"";
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream, long offset, long count) throws IOException {
+            outputStream.write(content, (int) offset, (int) count);
+        }
+    }
+
+    /**
+     * byte[] content described by its cached {@link FileDescriptor}, so that conditional requests
+     * are answered without reading the column. Content is read only when the body is written.
+     */
+    static class StoredBinaryFileResource implements FileResource {
+
+        private final GetFileRestOperation operation;
+        private final PersistentProperty<?> persistentProperty;
+        private final FileDescriptor fileDescriptor;
+
+        StoredBinaryFileResource(GetFileRestOperation operation, PersistentProperty<?> persistentProperty, FileDescriptor fileDescriptor) {
+            this.operation = operation;
+            this.persistentProperty = persistentProperty;
+            this.fileDescriptor = fileDescriptor;
+        }
+
+        @Override
+        public long length() {
+            return fileDescriptor.getSize();
+        }
+
+        @Override
+        public long lastModified() {
+            return -1;
+        }
+
+        @Override
+        public MediaType mediaType() {
+            return APPLICATION_OCTET_STREAM;
+        }
+
+        @Override
+        public String eTag() {
+            return "\"" + fileDescriptor.getHash() + "\"";
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream, long offset, long count) throws IOException {
+            final byte[] content = operation.perform(persistentProperty);
+            if (content == null || offset >= content.length) {
+                return;
+            }
+            // the descriptor may predate a change made outside of the application
+            outputStream.write(content, (int) offset, (int) Math.min(count, content.length - offset));
+        }
+    }
+
+    static class DiskFileResource implements FileResource {
+
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        DiskFileResource(File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public MediaType mediaType() {
+            return APPLICATION_OCTET_STREAM;
+        }
+
+        @Override
+        public String eTag() {
+            return "\"" + FileDescriptor.hash(file) + "\"";
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream, long offset, long count) throws IOException {
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                final FileChannel channel = inputStream.getChannel();
+                final WritableByteChannel target = Channels.newChannel(outputStream);
+
+                long position = offset;
+                long remaining = count;
+                while (remaining > 0) {
+                    final long transferred = channel.transferTo(position, remaining, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            }
+        }
+    }
+}
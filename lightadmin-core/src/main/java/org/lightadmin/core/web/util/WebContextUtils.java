@@ -2,6 +2,7 @@ package org.lightadmin.core.web.util;
 
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
 import org.lightadmin.core.util.LightAdminConfigurationUtils;
+import org.springframework.data.rest.webmvc.support.AssociationOptionsCache;
 import org.springframework.util.Assert;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.request.RequestAttributes;
@@ -33,6 +34,11 @@ public abstract class WebContextUtils {
         return webApplicationContext.getBean(FileResourceLoader.class);
     }
 
+    public static AssociationOptionsCache associationOptionsCache(ServletContext servletContext) {
+        WebApplicationContext webApplicationContext = getWebApplicationContext(servletContext);
+        return webApplicationContext.getBean(AssociationOptionsCache.class);
+    }
+
     public static HttpServletRequest getCurrentRequest() {
         RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
         Assert.state(requestAttributes != null, "Could not find current request via RequestContextHolder");
@@ -2,9 +2,11 @@ package org.springframework.data.rest.core.invoke;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DynamicRepositoryInvoker extends RepositoryInvoker {
@@ -16,4 +18,22 @@ public interface DynamicRepositoryInvoker extends RepositoryInvoker {
     List findAll(Specification spec);
 
     long count(Specification spec);
+
+    Slice findSlice(Specification spec, Pageable pageable);
+
+    Slice findSlice(Specification spec, Pageable pageable, Collection<String> attributes);
+
+    long countCapped(Specification spec, long limit);
+
+    List findAllAfter(Specification spec, Sort sort, String cursor, int limit);
+
+    String keysetCursor(Object entity, Sort sort);
+
+    long[] countByConditions(Specification spec, List<Specification> conditions);
+
+    Iterable<List<Object>> findAllInChunks(Specification spec, Sort sort, int chunkSize);
+
+    void fetchCollections(List<?> entities, Collection<String> associations);
+
+    void detach(Iterable<?> entities);
 }
\ No newline at end of file
@@ -4,12 +4,14 @@ import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.repository.core.RepositoryInformation;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +46,51 @@ public class DynamicRepositoryInvokerWrapper implements DynamicRepositoryInvoker
         return repository.count(spec);
     }
 
+    @Override
+    public Slice findSlice(Specification spec, Pageable pageable) {
+        return repository.findSlice(spec, pageable);
+    }
+
+    @Override
+    public Slice findSlice(Specification spec, Pageable pageable, Collection<String> attributes) {
+        return repository.findSlice(spec, pageable, attributes);
+    }
+
+    @Override
+    public long countCapped(Specification spec, long limit) {
+        return repository.countCapped(spec, limit);
+    }
+
+    @Override
+    public List findAllAfter(Specification spec, Sort sort, String cursor, int limit) {
+        return repository.findAllAfter(spec, sort, cursor, limit);
+    }
+
+    @Override
+    public String keysetCursor(Object entity, Sort sort) {
+        return ((DynamicJpaRepository<Object, ?>) repository).keysetCursor(entity, sort);
+    }
+
+    @Override
+    public long[] countByConditions(Specification spec, List<Specification> conditions) {
+        return ((DynamicJpaRepository<Object, ?>) repository).countByConditions(spec, (List) conditions);
+    }
+
+    @Override
+    public Iterable<List<Object>> findAllInChunks(Specification spec, Sort sort, int chunkSize) {
+        return ((DynamicJpaRepository<Object, ?>) repository).findAllInChunks(spec, sort, chunkSize);
+    }
+
+    @Override
+    public void fetchCollections(List<?> entities, Collection<String> associations) {
+        ((DynamicJpaRepository<Object, ?>) repository).fetchCollections(entities, associations);
+    }
+
+    @Override
+    public void detach(Iterable<?> entities) {
+        ((DynamicJpaRepository<Object, ?>) repository).detach((Iterable<Object>) entities);
+    }
+
     @Override
     public <T> T invokeSave(T object) {
         return repositoryInvoker.invokeSave(object);
@@ -14,6 +14,9 @@ import java.util.Collection;
 import java.util.Iterator;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.isOfFileReferenceType;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.isOfFileType;
+import static org.lightadmin.core.rest.binary.DirtyFileReferences.markDirty;
 import static org.springframework.data.rest.core.support.DomainObjectMerger.NullHandlingPolicy.APPLY_NULLS;
 
 public class DynamicDomainObjectMerger extends DomainObjectMerger {
@@ -43,7 +46,23 @@ public class DynamicDomainObjectMerger extends DomainObjectMerger {
      * @param nullPolicy how to handle {@literal null} values in the source object.
      */
     @Override
-    public void merge(final Object from, Object target, final NullHandlingPolicy nullPolicy) {
+    public void merge(final Object from, final Object target, final NullHandlingPolicy nullPolicy) {
+        merge(from, target, nullPolicy, null);
+    }
+
+    /**
+     * Merges only the given properties of the source object into the target one, {@literal null} values included.
+     * Used when the source object carries just a few explicitly supplied values (bulk updates, imported rows).
+     *
+     * @param from       can be {@literal null}.
+     * @param target     can be {@literal null}.
+     * @param properties names of the properties to merge.
+     */
+    public void merge(final Object from, final Object target, final Collection<String> properties) {
+        merge(from, target, APPLY_NULLS, properties);
+    }
+
+    private void merge(final Object from, final Object target, final NullHandlingPolicy nullPolicy, final Collection<String> properties) {
         if (from == null || target == null) {
             return;
         }
@@ -55,6 +74,10 @@ public class DynamicDomainObjectMerger extends DomainObjectMerger {
         entity.doWithProperties(new SimplePropertyHandler() {
             @Override
             public void doWithPersistentProperty(PersistentProperty<?> persistentProperty) {
+                if (properties != null && !properties.contains(persistentProperty.getName())) {
+                    return;
+                }
+
                 Object sourceValue = fromWrapper.getProperty(persistentProperty);
                 Object targetValue = targetWrapper.getProperty(persistentProperty);
 
@@ -66,7 +89,14 @@ public class DynamicDomainObjectMerger extends DomainObjectMerger {
                     return;
                 }
 
+                if (isOfFileType(persistentProperty) && isEmptyFileValue(sourceValue)) {
+                    return;
+                }
+
                 if (nullPolicy == APPLY_NULLS || sourceValue != null) {
+                    if (isOfFileReferenceType(persistentProperty)) {
+                        markDirty(target, persistentProperty, targetValue);
+                    }
                     targetWrapper.setProperty(persistentProperty, sourceValue);
                 }
             }
@@ -78,6 +108,10 @@ public class DynamicDomainObjectMerger extends DomainObjectMerger {
             public void doWithAssociation(Association<? extends PersistentProperty<?>> association) {
                 PersistentProperty<?> persistentProperty = association.getInverse();
 
+                if (properties != null && !properties.contains(persistentProperty.getName())) {
+                    return;
+                }
+
                 Object fromValue = fromWrapper.getProperty(persistentProperty);
                 Object targetValue = targetWrapper.getProperty(persistentProperty);
 
@@ -102,6 +136,13 @@ public class DynamicDomainObjectMerger extends DomainObjectMerger {
         });
     }
 
+    private boolean isEmptyFileValue(Object value) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length == 0;
+        }
+        return value == null || "".equals(value);
+    }
+
     private void addReferencedItems(Collection<Object> targetCollection, Collection<Object> candidatesForAddition) {
         for (Object candidateForAddition : candidatesForAddition) {
             targetCollection.add(candidateForAddition);
@@ -10,14 +10,16 @@ import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
 import org.lightadmin.core.config.domain.field.FieldMetadata;
 import org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType;
-import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.lightadmin.core.rest.binary.FileDescriptor;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
 import org.lightadmin.core.rest.binary.OperationBuilder;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.PersistentProperty;
-import org.springframework.data.mapping.SimplePropertyHandler;
-import org.springframework.data.mapping.model.BeanWrapper;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.ResourceProcessor;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.Collections;
@@ -35,16 +37,23 @@ import static org.lightadmin.core.config.domain.field.FieldMetadataUtils.transie
 import static org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType.*;
 import static org.lightadmin.core.rest.binary.OperationBuilder.operationBuilder;
 import static org.lightadmin.core.web.util.ApplicationUrlResolver.selfDomainLink;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
 
 @SuppressWarnings(value = {"unchecked", "unused"})
 public class DynamicPersistentEntityResourceProcessor implements ResourceProcessor<PersistentEntityResource<?>> {
 
+    private static final String UNIT_ATTRIBUTE = DynamicPersistentEntityResourceProcessor.class.getName() + ".UNIT";
+
+    private static final List<DomainConfigurationUnitType> VIEW_UNITS = Collections.unmodifiableList(newArrayList(LIST_VIEW, FORM_VIEW, SHOW_VIEW, QUICK_VIEW));
+
     private OperationBuilder operationBuilder;
     private GlobalAdministrationConfiguration adminConfiguration;
+    private FileMetadataCache fileMetadataCache;
 
-    public DynamicPersistentEntityResourceProcessor(GlobalAdministrationConfiguration adminConfiguration, LightAdminConfiguration lightAdminConfiguration) {
+    public DynamicPersistentEntityResourceProcessor(GlobalAdministrationConfiguration adminConfiguration, LightAdminConfiguration lightAdminConfiguration, FileMetadataCache fileMetadataCache) {
         this.adminConfiguration = adminConfiguration;
         this.operationBuilder = operationBuilder(adminConfiguration, lightAdminConfiguration);
+        this.fileMetadataCache = fileMetadataCache;
     }
 
     @Override
@@ -84,16 +93,16 @@ public class DynamicPersistentEntityResourceProcessor implements ResourceProcess
 
         DomainTypeAdministrationConfiguration managedDomainTypeConfiguration = adminConfiguration.forManagedDomainType(persistentEntity.getType());
 
-        List<DomainConfigurationUnitType> units = newArrayList(LIST_VIEW, FORM_VIEW, SHOW_VIEW, QUICK_VIEW);
+        PersistentEntityMetadata metadata = adminConfiguration.forPersistentEntity(persistentEntity.getType());
 
-        List<PersistentProperty> persistentProperties = findPersistentFileProperties(persistentEntity);
+        Map<String, Object> filePropertyValues = newLinkedHashMap();
+        for (PersistentProperty persistentProperty : metadata.getFileProperties()) {
+            filePropertyValues.put(persistentProperty.getName(), evaluateFilePropertyValue(persistentProperty, value, managedDomainTypeConfiguration, metadata));
+        }
 
         Map<DomainConfigurationUnitType, Map<String, Object>> dynamicPropertiesPerUnit = newHashMap();
-        for (DomainConfigurationUnitType unit : units) {
-            Map<String, Object> dynamicProperties = newLinkedHashMap();
-            for (PersistentProperty persistentProperty : persistentProperties) {
-                dynamicProperties.put(persistentProperty.getName(), evaluateFilePropertyValue(persistentProperty, value, managedDomainTypeConfiguration, binaryDataExportNeeded(unit)));
-            }
+        for (DomainConfigurationUnitType unit : requestedUnits()) {
+            Map<String, Object> dynamicProperties = newLinkedHashMap(filePropertyValues);
             for (FieldMetadata customField : customFields(managedDomainTypeConfiguration.fieldsForUnit(unit))) {
                 dynamicProperties.put(customField.getUuid(), customField.getValue(value));
             }
@@ -105,47 +114,45 @@ public class DynamicPersistentEntityResourceProcessor implements ResourceProcess
         return dynamicPropertiesPerUnit;
     }
 
-    private List<PersistentProperty> findPersistentFileProperties(PersistentEntity persistentEntity) {
-        final List<PersistentProperty> result = newArrayList();
-        persistentEntity.doWithProperties(new SimplePropertyHandler() {
-            @Override
-            public void doWithPersistentProperty(PersistentProperty<?> property) {
-                if (PersistentPropertyType.forPersistentProperty(property) == PersistentPropertyType.FILE) {
-                    result.add(property);
-                }
-            }
-        });
-        return result;
+    /**
+     * Restricts dynamic properties of entities rendered during the current request to the given view unit.
+     * Without it all view units are evaluated.
+     */
+    public static void restrictToUnit(RequestAttributes requestAttributes, DomainConfigurationUnitType unit) {
+        requestAttributes.setAttribute(UNIT_ATTRIBUTE, unit, SCOPE_REQUEST);
     }
 
-    private Object evaluateFilePropertyValue(PersistentProperty persistentProperty, Object value, DomainTypeAdministrationConfiguration configuration, boolean binaryDataExportNeeded) {
-        try {
-            boolean fileExists = operationBuilder.fileExistsOperation(value).perform(persistentProperty);
+    public static boolean isViewUnit(DomainConfigurationUnitType unit) {
+        return VIEW_UNITS.contains(unit);
+    }
 
-            if (!fileExists) {
-                return new FilePropertyValue(fileExists);
-            }
+    private List<DomainConfigurationUnitType> requestedUnits() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return VIEW_UNITS;
+        }
 
-            Link fileLink = new Link(filePropertyLink(persistentProperty, configuration, idValue(value, configuration.getPersistentEntity())));
+        Object unit = requestAttributes.getAttribute(UNIT_ATTRIBUTE, SCOPE_REQUEST);
 
-            if (!binaryDataExportNeeded) {
-                return new FilePropertyValue(fileLink);
-            }
+        return unit == null ? VIEW_UNITS : Collections.singletonList((DomainConfigurationUnitType) unit);
+    }
 
-            byte[] fileData = operationBuilder.getOperation(value).perform(persistentProperty);
+    private Object evaluateFilePropertyValue(PersistentProperty persistentProperty, Object value, DomainTypeAdministrationConfiguration configuration, PersistentEntityMetadata metadata) {
+        try {
+            FileDescriptor fileDescriptor = fileMetadataCache.describe(operationBuilder.getOperation(value), persistentProperty);
 
-            return new FilePropertyValue(fileLink, fileData);
+            if (fileDescriptor == null) {
+                return new FilePropertyValue(false);
+            }
+
+            Link fileLink = new Link(filePropertyLink(persistentProperty, configuration, metadata.getIdValue(value)));
 
+            return new FilePropertyValue(fileLink, fileDescriptor);
         } catch (Exception e) {
             return null;
         }
     }
 
-    private Object idValue(Object value, PersistentEntity persistentEntity) {
-        BeanWrapper<Object> wrapper = BeanWrapper.create(value, null);
-        return wrapper.getProperty(persistentEntity.getIdProperty());
-    }
-
     private String filePropertyLink(final PersistentProperty persistentProperty, DomainTypeAdministrationConfiguration configuration, final Object id) {
         return ServletUriComponentsBuilder.fromCurrentServletMapping()
                 .pathSegment("rest")
@@ -156,27 +163,19 @@ public class DynamicPersistentEntityResourceProcessor implements ResourceProcess
                 .toUri().toString();
     }
 
-    private boolean binaryDataExportNeeded(DomainConfigurationUnitType unit) {
-        return unit == FORM_VIEW;
-    }
-
     static class FilePropertyValue {
         private boolean fileExists;
         private Link fileLink;
-        private byte[] value;
+        private FileDescriptor fileDescriptor;
 
         FilePropertyValue(boolean fileExists) {
             this.fileExists = fileExists;
         }
 
-        public FilePropertyValue(Link fileLink) {
+        public FilePropertyValue(Link fileLink, FileDescriptor fileDescriptor) {
             this(true);
             this.fileLink = fileLink;
-        }
-
-        public FilePropertyValue(Link fileLink, byte[] value) {
-            this(fileLink);
-            this.value = value;
+            this.fileDescriptor = fileDescriptor;
         }
 
         @JsonUnwrapped
@@ -192,11 +191,22 @@ public class DynamicPersistentEntityResourceProcessor implements ResourceProcess
             return fileLink;
         }
 
-        @JsonUnwrapped
-        @JsonInclude(NON_EMPTY)
-        @JsonProperty("value")
-        public byte[] getValue() {
-            return value;
+        @JsonInclude(NON_NULL)
+        @JsonProperty("file_size")
+        public Long getFileSize() {
+            return fileDescriptor == null ? null : fileDescriptor.getSize();
+        }
+
+        @JsonInclude(NON_NULL)
+        @JsonProperty("content_type")
+        public String getContentType() {
+            return fileDescriptor == null ? null : fileDescriptor.getContentType();
+        }
+
+        @JsonInclude(NON_NULL)
+        @JsonProperty("file_hash")
+        public String getFileHash() {
+            return fileDescriptor == null ? null : fileDescriptor.getHash();
         }
     }
 
@@ -0,0 +1,150 @@
+package org.springframework.data.rest.webmvc;
+
+import org.lightadmin.api.config.utils.EntityNameExtractor;
+import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.persistence.criteria.*;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.split;
+import static org.lightadmin.core.config.domain.configuration.support.ExceptionAwareTransformer.exceptionAwareNameExtractor;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.ASSOC;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.ASSOC_MULTI;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+/**
+ * Typeahead options for association edit controls, paged on the database side by the name field of the associated type.
+ */
+@RepositoryRestController
+public class RepositoryAssociationLookupController {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String BASE_MAPPING = "/{repository}/{property}/lookup";
+
+    private final GlobalAdministrationConfiguration configuration;
+
+    @Autowired
+    public RepositoryAssociationLookupController(GlobalAdministrationConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @RequestMapping(value = BASE_MAPPING, method = GET)
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> lookupOptions(RootResourceInformation repoRequest, @PathVariable String property,
+                                           @RequestParam(value = "q", required = false) String query,
+                                           @RequestParam(value = "page", defaultValue = "0") int page,
+                                           @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        PersistentProperty<?> association = repoRequest.getPersistentEntity().getPersistentProperty(property);
+        if (association == null || !isAssociation(association)) {
+            throw new ResourceNotFoundException();
+        }
+
+        DomainTypeBasicConfiguration associationConfiguration = configuration.forDomainType(association.getActualType());
+        if (associationConfiguration == null) {
+            throw new ResourceNotFoundException();
+        }
+
+        DynamicJpaRepository<Object, ?> repository = (DynamicJpaRepository<Object, ?>) associationConfiguration.getRepository();
+        String nameField = associationConfiguration.getEntityConfiguration().getNameField();
+        PersistentProperty<?> idProperty = associationConfiguration.getPersistentEntity().getIdProperty();
+
+        PageRequest pageRequest = new PageRequest(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), lookupSort(nameField, idProperty));
+        Slice<Object> slice = repository.findSlice(lookupSpecification(query, nameField, idProperty), pageRequest);
+
+        EntityNameExtractor<Object> nameExtractor = associationConfiguration.getEntityConfiguration().getNameExtractor();
+
+        List<Map<String, Object>> options = newArrayList();
+        for (Object element : slice.getContent()) {
+            Map<String, Object> option = newLinkedHashMap();
+            option.put("id", BeanWrapper.create(element, null).getProperty(idProperty));
+            option.put("name", exceptionAwareNameExtractor(nameExtractor, associationConfiguration).apply(element));
+            options.add(option);
+        }
+
+        Map<String, Object> result = newLinkedHashMap();
+        result.put("options", options);
+        result.put("page", pageRequest.getPageNumber());
+        result.put("more", slice.hasNext());
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    static Sort lookupSort(String nameField, PersistentProperty<?> idProperty) {
+        if (nameField == null) {
+            return new Sort(idProperty.getName());
+        }
+        return new Sort(nameField).and(new Sort(idProperty.getName()));
+    }
+
+    /**
+     * Matches names starting with the query, case-insensitive. Types named by a custom extractor
+     * can only be matched by identifier.
+     */
+    static Specification<Object> lookupSpecification(final String query, final String nameField, final PersistentProperty<?> idProperty) {
+        return new Specification<Object>() {
+            @Override
+            public Predicate toPredicate(Root<Object> root, CriteriaQuery<?> criteriaQuery, CriteriaBuilder cb) {
+                if (isBlank(query)) {
+                    return null;
+                }
+
+                if (nameField == null) {
+                    return idPredicate(root, cb, query.trim(), idProperty);
+                }
+
+                Expression<String> name = cb.lower(path(root, nameField).as(String.class));
+                return cb.like(name, escapeLikePattern(query.trim().toLowerCase()) + "%", '\\');
+            }
+        };
+    }
+
+    private static Predicate idPredicate(Root<Object> root, CriteriaBuilder cb, String query, PersistentProperty<?> idProperty) {
+        try {
+            Object id = new SimpleTypeConverter().convertIfNecessary(query, idProperty.getType());
+            return cb.equal(root.get(idProperty.getName()), id);
+        } catch (TypeMismatchException e) {
+            return cb.disjunction();
+        }
+    }
+
+    private static Path<?> path(Root<Object> root, String propertyPath) {
+        Path<?> path = root;
+        for (String property : split(propertyPath, '.')) {
+            path = path.get(property);
+        }
+        return path;
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isAssociation(PersistentProperty<?> property) {
+        PersistentPropertyType propertyType = PersistentPropertyType.forPersistentProperty(property);
+        return propertyType == ASSOC || propertyType == ASSOC_MULTI;
+    }
+}
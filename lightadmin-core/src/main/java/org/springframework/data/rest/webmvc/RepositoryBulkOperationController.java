@@ -0,0 +1,141 @@
+package org.springframework.data.rest.webmvc;
+
+import org.lightadmin.api.config.utils.ScopeMetadataUtils.SpecificationScopeMetadata;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.scope.ScopeMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.rest.webmvc.support.BulkOperationProgress;
+import org.springframework.data.rest.webmvc.support.BulkOperationService;
+import org.springframework.data.rest.webmvc.support.BulkOperationService.Selection;
+import org.springframework.data.rest.webmvc.support.SpecificationCreator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.lightadmin.api.config.utils.ScopeMetadataUtils.*;
+import static org.springframework.data.jpa.domain.Specifications.where;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+/**
+ * Deletes and updates many entities at once, selected by id or by scope and filter, and imports them from CSV files.
+ * Operations run in the background, the response carries the operation id to poll the progress with.
+ */
+@SuppressWarnings("unchecked")
+@RepositoryRestController
+public class RepositoryBulkOperationController {
+
+    private static final String BASE_MAPPING = "/{repository}/bulk";
+    private static final String SCOPED_MAPPING = "/{repository}/scope/{scopeName}/bulk";
+
+    private static final String IDS_KEY = "ids";
+    private static final String VALUES_KEY = "values";
+
+    private final BulkOperationService bulkOperationService;
+    private final SpecificationCreator specificationCreator;
+
+    @Autowired
+    public RepositoryBulkOperationController(BulkOperationService bulkOperationService, SpecificationCreator specificationCreator) {
+        this.bulkOperationService = bulkOperationService;
+        this.specificationCreator = specificationCreator;
+    }
+
+    @RequestMapping(value = BASE_MAPPING + "/delete", method = POST)
+    public ResponseEntity<?> deleteItems(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, @RequestBody Map<String, Object> body) {
+        return accepted(bulkOperationService.delete(domainTypeAdministrationConfiguration, Selection.ids(ids(body))));
+    }
+
+    @RequestMapping(value = SCOPED_MAPPING + "/delete", method = POST)
+    public ResponseEntity<?> deleteScopeItems(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, WebRequest request, @PathVariable String scopeName) {
+        return accepted(bulkOperationService.delete(domainTypeAdministrationConfiguration, scopeSelection(domainTypeAdministrationConfiguration, request, scopeName)));
+    }
+
+    @RequestMapping(value = BASE_MAPPING + "/update", method = POST)
+    public ResponseEntity<?> updateItems(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, @RequestBody Map<String, Object> body) {
+        return accepted(bulkOperationService.update(domainTypeAdministrationConfiguration, Selection.ids(ids(body)), values(body)));
+    }
+
+    @RequestMapping(value = SCOPED_MAPPING + "/update", method = POST)
+    public ResponseEntity<?> updateScopeItems(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, WebRequest request, @PathVariable String scopeName, @RequestBody Map<String, Object> body) {
+        return accepted(bulkOperationService.update(domainTypeAdministrationConfiguration, scopeSelection(domainTypeAdministrationConfiguration, request, scopeName), values(body)));
+    }
+
+    @RequestMapping(value = BASE_MAPPING + "/import", method = POST)
+    public ResponseEntity<?> importItems(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, @RequestParam("file") MultipartFile file) throws IOException {
+        final File csvFile = File.createTempFile("lightadmin-import-", ".csv");
+        try {
+            file.transferTo(csvFile);
+        } catch (IOException e) {
+            csvFile.delete();
+            throw e;
+        }
+
+        return accepted(bulkOperationService.importCsv(domainTypeAdministrationConfiguration, csvFile));
+    }
+
+    @RequestMapping(value = BASE_MAPPING + "/{operationId}", method = GET)
+    public ResponseEntity<?> operationProgress(@PathVariable String operationId) {
+        final BulkOperationProgress progress = bulkOperationService.progress(operationId);
+        if (progress == null) {
+            throw new ResourceNotFoundException();
+        }
+        return new ResponseEntity<>(progress.toMap(), HttpStatus.OK);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, ConversionException.class})
+    public ResponseEntity<?> handleInvalidRequest(RuntimeException e) {
+        return new ResponseEntity<>(Collections.singletonMap("message", e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleRejectedOperation(TaskRejectedException e) {
+        return new ResponseEntity<>(Collections.singletonMap("message", "Too many bulk operations in progress"), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private Selection scopeSelection(DomainTypeAdministrationConfiguration configuration, WebRequest request, String scopeName) {
+        final ScopeMetadata scope = configuration.getScopes().getScope(scopeName);
+
+        final Specification filterSpecification = specificationCreator.toSpecification(configuration.getPersistentEntity(), request.getParameterMap());
+
+        if (isPredicateScope(scope)) {
+            return Selection.matching(filterSpecification, ((PredicateScopeMetadata) scope).predicate());
+        }
+
+        if (isSpecificationScope(scope)) {
+            return Selection.matching(where(((SpecificationScopeMetadata) scope).specification()).and(filterSpecification), null);
+        }
+
+        return Selection.matching(filterSpecification, null);
+    }
+
+    private ResponseEntity<?> accepted(BulkOperationProgress progress) {
+        return new ResponseEntity<>(progress.toMap(), HttpStatus.ACCEPTED);
+    }
+
+    private Collection<?> ids(Map<String, Object> body) {
+        final Object ids = body.get(IDS_KEY);
+        if (!(ids instanceof Collection)) {
+            throw new IllegalArgumentException("Ids of the entities are missing");
+        }
+        return (Collection<?>) ids;
+    }
+
+    private Map<String, Object> values(Map<String, Object> body) {
+        final Object values = body.get(VALUES_KEY);
+        if (!(values instanceof Map)) {
+            throw new IllegalArgumentException("Values to update are missing");
+        }
+        return (Map<String, Object>) values;
+    }
+}
@@ -3,12 +3,18 @@ package org.springframework.data.rest.webmvc;
 import com.google.common.collect.Maps;
 import org.lightadmin.core.config.LightAdminConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
+import org.lightadmin.core.rest.binary.FileUploadStorage;
+import org.lightadmin.core.rest.binary.ImageRenditionCache;
 import org.lightadmin.core.rest.binary.OperationBuilder;
 import org.lightadmin.core.web.util.FileResourceLoader;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.rest.core.invoke.DynamicRepositoryInvoker;
 import org.springframework.data.rest.core.invoke.RepositoryInvoker;
 import org.springframework.data.rest.webmvc.support.BackendId;
 import org.springframework.hateoas.Resource;
@@ -23,12 +29,21 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.isOfBinaryFileType;
 import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.isOfFileType;
 import static org.lightadmin.core.rest.binary.OperationBuilder.operationBuilder;
 
@@ -45,23 +60,23 @@ public class RepositoryFilePropertyController {
     }
 
     @RequestMapping(value = BASE_MAPPING + "/file", method = RequestMethod.GET)
-    public void filePropertyOfEntity(RootResourceInformation repoRequest, ServletResponse response, @BackendId Serializable id, @PathVariable String property) throws Exception {
+    public void filePropertyOfEntity(RootResourceInformation repoRequest, ServletRequest request, ServletResponse response, @BackendId Serializable id, @PathVariable String property) throws Exception {
         PersistentEntity<?, ?> persistentEntity = repoRequest.getPersistentEntity();
         RepositoryInvoker invoker = repoRequest.getInvoker();
 
-        Object domainObj = invoker.invokeFindOne(id);
-
-        if (null == domainObj) {
+        PersistentProperty<?> prop = persistentEntity.getPersistentProperty(property);
+        if (null == prop) {
             throw new ResourceNotFoundException();
         }
 
-        PersistentProperty<?> prop = persistentEntity.getPersistentProperty(property);
-        if (null == prop) {
+        Object domainObj = isOfBinaryFileType(prop) ? identifierOnlyEntity((DynamicRepositoryInvoker) invoker, persistentEntity, id) : invoker.invokeFindOne(id);
+
+        if (null == domainObj) {
             throw new ResourceNotFoundException();
         }
 
         if (isOfFileType(prop)) {
-            fileResourceLoader().downloadFile(domainObj, prop, (HttpServletResponse) response);
+            fileResourceLoader().downloadFile(domainObj, prop, (HttpServletRequest) request, (HttpServletResponse) response);
         }
     }
 
@@ -85,8 +100,12 @@ public class RepositoryFilePropertyController {
             return ControllerUtils.toEmptyResponse(HttpStatus.METHOD_NOT_ALLOWED);
         }
 
+        fileMetadataCache().evict(operation().getOperation(domainObj), prop);
+
         operation().deleteOperation(domainObj).perform(prop);
 
+        imageRenditionCache().evict(operation().getOperation(domainObj), prop);
+
         return ControllerUtils.toEmptyResponse(HttpStatus.OK);
     }
 
@@ -106,12 +125,31 @@ public class RepositoryFilePropertyController {
     }
 
     private Resource<?> fileResource(Map.Entry<String, MultipartFile> fileEntry) throws IOException {
+        final MultipartFile multipartFile = fileEntry.getValue();
+
         SimpleMapResource resource = new SimpleMapResource();
-        resource.put("fileName", fileEntry.getValue().getOriginalFilename());
-        resource.put("fileContent", fileEntry.getValue().getBytes());
+        resource.put("fileName", multipartFile.getOriginalFilename());
+        resource.put("fileSize", multipartFile.getSize());
+        resource.put("fileToken", fileUploadStorage().store(multipartFile));
         return resource;
     }
 
+    /**
+     * Entity with only its identifier set, byte[] contents are then read by a single column query
+     * instead of loading the entity with all of its binary columns.
+     */
+    private Object identifierOnlyEntity(DynamicRepositoryInvoker invoker, final PersistentEntity<?, ?> persistentEntity, final Serializable id) {
+        Specification<Object> idSpecification = new Specification<Object>() {
+            @Override
+            public Predicate toPredicate(Root<Object> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+                return cb.equal(root.get(persistentEntity.getIdProperty().getName()), id);
+            }
+        };
+
+        List<?> content = invoker.findSlice(idSpecification, new PageRequest(0, 1), Collections.<String>emptySet()).getContent();
+        return content.isEmpty() ? null : content.get(0);
+    }
+
     private OperationBuilder operation() {
         return operationBuilder(globalAdministrationConfiguration(), lightAdminConfiguration());
     }
@@ -124,6 +162,18 @@ public class RepositoryFilePropertyController {
         return beanFactory.getBean(GlobalAdministrationConfiguration.class);
     }
 
+    private ImageRenditionCache imageRenditionCache() {
+        return beanFactory.getBean(ImageRenditionCache.class);
+    }
+
+    private FileMetadataCache fileMetadataCache() {
+        return beanFactory.getBean(FileMetadataCache.class);
+    }
+
+    private FileUploadStorage fileUploadStorage() {
+        return beanFactory.getBean(FileUploadStorage.class);
+    }
+
     private FileResourceLoader fileResourceLoader() {
         return beanFactory.getBean(FileResourceLoader.class);
     }
@@ -1,23 +1,28 @@
 package org.springframework.data.rest.webmvc;
 
 import com.google.common.base.Predicate;
+import org.lightadmin.api.config.utils.PagingStrategy;
 import org.lightadmin.api.config.utils.ScopeMetadataUtils;
 import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
 import org.lightadmin.core.config.domain.scope.ScopeMetadata;
-import org.springframework.beans.factory.BeanFactory;
+import org.lightadmin.core.persistence.repository.InvalidKeysetCursorException;
+import org.lightadmin.core.persistence.repository.support.QueryFetchPlan;
+import org.lightadmin.core.rest.binary.BinaryFileLengths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.rest.core.invoke.DynamicRepositoryInvoker;
+import org.springframework.data.rest.webmvc.support.PredicateScopeSearcher;
 import org.springframework.data.rest.webmvc.support.SpecificationCreator;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -26,27 +31,43 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import static com.google.common.collect.Collections2.filter;
+import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.lightadmin.api.config.utils.ScopeMetadataUtils.*;
+import static org.lightadmin.core.config.domain.field.FieldMetadataUtils.fetchPaths;
+import static org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType.LIST_VIEW;
+import static org.springframework.data.rest.webmvc.DynamicPersistentEntityResourceProcessor.restrictToUnit;
+import static org.springframework.data.rest.webmvc.support.ListViewProjection.projectedAttributes;
 import static org.springframework.data.jpa.domain.Specifications.where;
 
 @SuppressWarnings("unchecked")
 @RepositoryRestController
 public class RepositoryScopedSearchController extends AbstractRepositoryRestController {
 
+    private static final Logger LOG = LoggerFactory.getLogger(RepositoryScopedSearchController.class);
+
     private static final String BASE_MAPPING = "/{repository}/scope/{scopeName}";
 
-    private final ConversionService conversionService;
-    private final BeanFactory beanFactory;
+    private static final String CURSOR_PARAMETER = "cursor";
+    private static final String PAGE_CURSOR_HEADER = "X-Page-Cursor";
+    private static final String TOTAL_EXACT_HEADER = "X-Total-Elements-Exact";
+
+    private final SpecificationCreator specificationCreator;
+    private final PredicateScopeSearcher predicateScopeSearcher;
+    private final GlobalAdministrationConfiguration adminConfiguration;
 
     @Autowired
-    public RepositoryScopedSearchController(@Qualifier("defaultConversionService") ConversionService conversionService, PagedResourcesAssembler<Object> pagedResourcesAssembler, BeanFactory beanFactory) {
+    public RepositoryScopedSearchController(PagedResourcesAssembler<Object> pagedResourcesAssembler, SpecificationCreator specificationCreator, PredicateScopeSearcher predicateScopeSearcher, GlobalAdministrationConfiguration adminConfiguration) {
         super(pagedResourcesAssembler);
 
-        this.conversionService = conversionService;
-        this.beanFactory = beanFactory;
+        this.specificationCreator = specificationCreator;
+        this.predicateScopeSearcher = predicateScopeSearcher;
+        this.adminConfiguration = adminConfiguration;
     }
 
     @RequestMapping(value = BASE_MAPPING + "/search/count", method = RequestMethod.GET)
@@ -62,7 +83,9 @@ public class RepositoryScopedSearchController extends AbstractRepositoryRestCont
         if (isPredicateScope(scope)) {
             final PredicateScopeMetadata predicateScope = (PredicateScopeMetadata) scope;
 
-            return new ResponseEntity<>(countItemsBySpecificationAndPredicate(repositoryInvoker, filterSpecification, predicateScope.predicate()), HttpStatus.OK);
+            final String countKey = predicateScopeSearcher.countKey(persistentEntity, scopeName, request.getParameterMap());
+
+            return new ResponseEntity<>(predicateScopeSearcher.count(repositoryInvoker, filterSpecification, predicateScope.predicate(), countKey), HttpStatus.OK);
         }
 
         if (isSpecificationScope(scope)) {
@@ -74,11 +97,57 @@ public class RepositoryScopedSearchController extends AbstractRepositoryRestCont
         return new ResponseEntity<>(countItemsBySpecification(repositoryInvoker, filterSpecification), HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/{repository}/scope-counts", method = RequestMethod.GET)
+    public ResponseEntity<?> countScopeItems(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, RootResourceInformation repoRequest, WebRequest request) {
+        DynamicRepositoryInvoker repositoryInvoker = (DynamicRepositoryInvoker) repoRequest.getInvoker();
+
+        PersistentEntity<?, ?> persistentEntity = repoRequest.getPersistentEntity();
+
+        final Specification filterSpecification = specificationFromRequest(request, persistentEntity);
+
+        final List<Specification> scopeSpecifications = newArrayList();
+        final List<Predicate> scopePredicates = newArrayList();
+        final List<String> countKeys = newArrayList();
+
+        for (ScopeMetadata scope : domainTypeAdministrationConfiguration.getScopes()) {
+            if (isPredicateScope(scope)) {
+                scopePredicates.add(((PredicateScopeMetadata) scope).predicate());
+                countKeys.add(predicateScopeSearcher.countKey(persistentEntity, scope.getName(), request.getParameterMap()));
+            } else if (isSpecificationScope(scope)) {
+                scopeSpecifications.add(((ScopeMetadataUtils.SpecificationScopeMetadata) scope).specification());
+            }
+        }
+
+        final long[] specificationCounts = repositoryInvoker.countByConditions(filterSpecification, scopeSpecifications);
+        final long[] predicateCounts = predicateScopeSearcher.count(repositoryInvoker, filterSpecification, scopePredicates, countKeys);
+
+        final Map<String, Long> scopeCounts = newLinkedHashMap();
+        int specificationIndex = 1;
+        int predicateIndex = 0;
+        for (ScopeMetadata scope : domainTypeAdministrationConfiguration.getScopes()) {
+            if (isPredicateScope(scope)) {
+                scopeCounts.put(scope.getName(), predicateCounts[predicateIndex++]);
+            } else if (isSpecificationScope(scope)) {
+                scopeCounts.put(scope.getName(), specificationCounts[specificationIndex++]);
+            } else {
+                scopeCounts.put(scope.getName(), specificationCounts[0]);
+            }
+        }
+
+        return new ResponseEntity<>(scopeCounts, HttpStatus.OK);
+    }
+
     @RequestMapping(value = BASE_MAPPING + "/search", method = RequestMethod.GET)
     public ResponseEntity<?> filterEntities(DomainTypeAdministrationConfiguration domainTypeAdministrationConfiguration, RootResourceInformation repoRequest, PersistentEntityResourceAssembler assembler, WebRequest request, Pageable pageable, @PathVariable String scopeName) throws Exception {
         DynamicRepositoryInvoker repositoryInvoker = (DynamicRepositoryInvoker) repoRequest.getInvoker();
         PersistentEntity<?, ?> persistentEntity = repoRequest.getPersistentEntity();
 
+        restrictToUnit(request, LIST_VIEW);
+
+        final Set<String> fetchPaths = fetchPaths(domainTypeAdministrationConfiguration.getListViewFragment());
+
+        QueryFetchPlan.fetch(persistentEntity.getType(), fetchPaths);
+
         final ScopeMetadata scope = domainTypeAdministrationConfiguration.getScopes().getScope(scopeName);
 
         final Specification filterSpecification = specificationFromRequest(request, persistentEntity);
@@ -86,77 +155,143 @@ public class RepositoryScopedSearchController extends AbstractRepositoryRestCont
         if (isPredicateScope(scope)) {
             final PredicateScopeMetadata predicateScope = (PredicateScopeMetadata) scope;
 
-            final Page page = findBySpecificationAndPredicate(repositoryInvoker, filterSpecification, predicateScope.predicate(), pageable);
+            final String countKey = predicateScopeSearcher.countKey(persistentEntity, scopeName, request.getParameterMap());
+
+            final Page page = predicateScopeSearcher.findPage(repositoryInvoker, filterSpecification, predicateScope.predicate(), pageable, countKey);
+
+            prepareForRendering(domainTypeAdministrationConfiguration, repositoryInvoker, page, fetchPaths);
 
             Object resources = resultToResources(page, assembler);
 
-            return new ResponseEntity<>(resources, HttpStatus.OK);
+            return new ResponseEntity<>(resources, pageHeaders(domainTypeAdministrationConfiguration, repositoryInvoker, page, pageable, predicateScopeSearcher.isTotalExact(page, countKey)), HttpStatus.OK);
         }
 
         if (isSpecificationScope(scope)) {
             final Specification scopeSpecification = ((ScopeMetadataUtils.SpecificationScopeMetadata) scope).specification();
 
-            Page page = findItemsBySpecification(repositoryInvoker, and(scopeSpecification, filterSpecification), pageable);
+            Page page = findItemsBySpecification(domainTypeAdministrationConfiguration, repositoryInvoker, and(scopeSpecification, filterSpecification), pageable, request);
+
+            prepareForRendering(domainTypeAdministrationConfiguration, repositoryInvoker, page, fetchPaths);
 
             Object resources = resultToResources(page, assembler);
 
-            return new ResponseEntity<>(resources, HttpStatus.OK);
+            return new ResponseEntity<>(resources, pageHeaders(domainTypeAdministrationConfiguration, repositoryInvoker, page, pageable), HttpStatus.OK);
         }
 
-        Page page = findItemsBySpecification(repositoryInvoker, filterSpecification, pageable);
+        Page page = findItemsBySpecification(domainTypeAdministrationConfiguration, repositoryInvoker, filterSpecification, pageable, request);
+
+        prepareForRendering(domainTypeAdministrationConfiguration, repositoryInvoker, page, fetchPaths);
 
         Object resources = resultToResources(page, assembler);
 
-        return new ResponseEntity<>(resources, HttpStatus.OK);
+        return new ResponseEntity<>(resources, pageHeaders(domainTypeAdministrationConfiguration, repositoryInvoker, page, pageable), HttpStatus.OK);
     }
 
-    private GlobalAdministrationConfiguration globalAdministrationConfiguration() {
-        return beanFactory.getBean(GlobalAdministrationConfiguration.class);
-    }
+    /**
+     * Loads what rendering the page needs with a query per association and binary file property, instead of per entity.
+     */
+    private void prepareForRendering(DomainTypeAdministrationConfiguration configuration, DynamicRepositoryInvoker invoker, Page<?> page, Set<String> fetchPaths) {
+        invoker.fetchCollections(page.getContent(), fetchPaths);
 
-    private SpecificationCreator specificationCreator() {
-        return new SpecificationCreator(this.conversionService, globalAdministrationConfiguration());
+        BinaryFileLengths.prefetch(configuration.getRepository(), adminConfiguration.forPersistentEntity(configuration.getDomainType()), page.getContent());
     }
 
     private Specification specificationFromRequest(WebRequest request, PersistentEntity<?, ?> persistentEntity) {
-        return specificationCreator().toSpecification(persistentEntity, request.getParameterMap());
-    }
-
-    private long countItemsBySpecificationAndPredicate(DynamicRepositoryInvoker repository, final Specification specification, Predicate predicate) {
-        final List<?> items = findItemsBySpecification(repository, specification);
-
-        return filter(items, predicate).size();
+        return specificationCreator.toSpecification(persistentEntity, request.getParameterMap());
     }
 
     private long countItemsBySpecification(final DynamicRepositoryInvoker invoker, final Specification specification) {
         return invoker.count(specification);
     }
 
-    private List<?> findItemsBySpecification(final DynamicRepositoryInvoker invoker, final Specification specification) {
-        return invoker.findAll(specification);
-    }
-
     private Specification and(Specification specification, Specification otherSpecification) {
         return where(specification).and(otherSpecification);
     }
 
-    private Page<?> findItemsBySpecification(final DynamicRepositoryInvoker invoker, final Specification specification, final Pageable pageSort) {
-        return invoker.findAll(specification, pageSort);
+    private Page<?> findItemsBySpecification(final DomainTypeAdministrationConfiguration configuration, final DynamicRepositoryInvoker invoker, final Specification specification, final Pageable pageable, final WebRequest request) {
+        final PagingStrategy pagingStrategy = pagingStrategy(configuration);
+        final String cursor = request.getParameter(CURSOR_PARAMETER);
+
+        if (isKeysetPagination(configuration) && isNotBlank(cursor)) {
+            try {
+                final List<Object> content = invoker.findAllAfter(specification, pageable.getSort(), cursor, pageable.getPageSize() + 1);
+                final boolean hasNext = content.size() > pageable.getPageSize();
+
+                return pageOf(pagingStrategy, invoker, specification, pageable, hasNext ? content.subList(0, pageable.getPageSize()) : content, hasNext);
+            } catch (InvalidKeysetCursorException e) {
+                LOG.debug("Keyset cursor rejected, falling back to offset pagination: {}", e.getMessage());
+            }
+        }
+
+        final Set<String> projectedAttributes = projectedAttributes(configuration, adminConfiguration.forPersistentEntity(configuration.getDomainType()), pageable.getSort());
+        if (projectedAttributes != null) {
+            final Slice<Object> slice = invoker.findSlice(specification, pageable, projectedAttributes);
+
+            return pageOf(pagingStrategy, invoker, specification, pageable, slice.getContent(), slice.hasNext());
+        }
+
+        if (pagingStrategy.isExactCount()) {
+            return invoker.findAll(specification, pageable);
+        }
+
+        final Slice<Object> slice = invoker.findSlice(specification, pageable);
+
+        return pageOf(pagingStrategy, invoker, specification, pageable, slice.getContent(), slice.hasNext());
+    }
+
+    private Page<?> pageOf(PagingStrategy pagingStrategy, DynamicRepositoryInvoker invoker, Specification specification, Pageable pageable, List<Object> content, boolean hasNext) {
+        final long pageEnd = pageable.getOffset() + content.size();
+
+        if (!hasNext) {
+            return new PageImpl<>(content, pageable, pageEnd);
+        }
+
+        switch (pagingStrategy.getCountMode()) {
+            case EXACT:
+                return new PageImpl<>(content, pageable, invoker.count(specification));
+            case CAPPED:
+                return new PageImpl<>(content, pageable, Math.max(invoker.countCapped(specification, pagingStrategy.getCountLimit()), pageEnd + 1));
+            default:
+                return new PageImpl<>(content, pageable, pageEnd + 1);
+        }
     }
 
-    private List<?> findItemsBySpecification(final DynamicRepositoryInvoker invoker, final Specification specification, final Sort sort) {
-        return invoker.findAll(specification, sort);
+    private HttpHeaders pageHeaders(final DomainTypeAdministrationConfiguration configuration, final DynamicRepositoryInvoker invoker, final Page<?> page, final Pageable pageable) {
+        return pageHeaders(configuration, invoker, page, pageable, isTotalExact(pagingStrategy(configuration), page));
     }
 
-    private Page<?> selectPage(List<Object> items, Pageable pageable) {
-        final List<Object> itemsOnPage = items.subList(pageable.getOffset(), Math.min(items.size(), pageable.getOffset() + pageable.getPageSize()));
+    private HttpHeaders pageHeaders(final DomainTypeAdministrationConfiguration configuration, final DynamicRepositoryInvoker invoker, final Page<?> page, final Pageable pageable, boolean totalExact) {
+        final HttpHeaders headers = new HttpHeaders();
 
-        return new PageImpl<>(itemsOnPage, pageable, items.size());
+        if (isKeysetPagination(configuration) && page.hasContent()) {
+            final String cursor = invoker.keysetCursor(getLast(page.getContent()), pageable.getSort());
+            if (cursor != null) {
+                headers.set(PAGE_CURSOR_HEADER, cursor);
+            }
+        }
+
+        if (!totalExact) {
+            headers.set(TOTAL_EXACT_HEADER, Boolean.FALSE.toString());
+        }
+
+        return headers;
+    }
+
+    private boolean isTotalExact(PagingStrategy pagingStrategy, Page<?> page) {
+        if (pagingStrategy.isExactCount() || !page.hasNext()) {
+            return true;
+        }
+        return pagingStrategy.isCappedCount() && page.getTotalElements() <= pagingStrategy.getCountLimit();
     }
 
-    private Page findBySpecificationAndPredicate(DynamicRepositoryInvoker invoker, final Specification specification, Predicate predicate, final Pageable pageable) {
-        final List<?> items = findItemsBySpecification(invoker, specification, pageable.getSort());
+    private PagingStrategy pagingStrategy(DomainTypeAdministrationConfiguration configuration) {
+        if (configuration.getScreenContext() == null || configuration.getScreenContext().getPagingStrategy() == null) {
+            return PagingStrategy.exactCount();
+        }
+        return configuration.getScreenContext().getPagingStrategy();
+    }
 
-        return selectPage(newArrayList(filter(items, predicate)), pageable);
+    private boolean isKeysetPagination(DomainTypeAdministrationConfiguration configuration) {
+        return configuration.getScreenContext() != null && configuration.getScreenContext().isKeysetPagination();
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package org.springframework.data.rest.webmvc;
+
+import org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType;
+import org.springframework.data.rest.core.invoke.RepositoryInvoker;
+import org.springframework.data.rest.webmvc.support.BackendId;
+import org.springframework.hateoas.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.Serializable;
+
+import static org.springframework.data.rest.webmvc.DynamicPersistentEntityResourceProcessor.isViewUnit;
+import static org.springframework.data.rest.webmvc.DynamicPersistentEntityResourceProcessor.restrictToUnit;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RepositoryRestController
+public class RepositoryUnitController {
+
+    private static final String BASE_MAPPING = "/{repository}/{id}/unit/{unitType}";
+
+    @RequestMapping(value = BASE_MAPPING, method = GET)
+    public ResponseEntity<Resource<?>> entityOfUnit(RootResourceInformation repoRequest, PersistentEntityResourceAssembler assembler, WebRequest request, @BackendId Serializable id, @PathVariable String unitType) {
+        DomainConfigurationUnitType unit = viewUnit(unitType);
+
+        RepositoryInvoker invoker = repoRequest.getInvoker();
+
+        Object domainObj = invoker.invokeFindOne(id);
+
+        if (null == domainObj) {
+            throw new ResourceNotFoundException();
+        }
+
+        restrictToUnit(request, unit);
+
+        return new ResponseEntity<Resource<?>>(assembler.toResource(domainObj), HttpStatus.OK);
+    }
+
+    private DomainConfigurationUnitType viewUnit(String unitType) {
+        try {
+            DomainConfigurationUnitType unit = DomainConfigurationUnitType.forName(unitType);
+            if (isViewUnit(unit)) {
+                return unit;
+            }
+        } catch (IllegalArgumentException e) {
+        }
+        throw new ResourceNotFoundException();
+    }
+}
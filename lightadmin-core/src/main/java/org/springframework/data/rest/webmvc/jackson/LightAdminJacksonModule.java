@@ -2,14 +2,17 @@ package org.springframework.data.rest.webmvc.jackson;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.rest.binary.FileUploadStorage;
 
 import static com.fasterxml.jackson.core.Version.unknownVersion;
 
 public class LightAdminJacksonModule extends SimpleModule {
 
-    public LightAdminJacksonModule(GlobalAdministrationConfiguration globalAdministrationConfiguration) {
+    public LightAdminJacksonModule(GlobalAdministrationConfiguration globalAdministrationConfiguration, FileUploadStorage fileUploadStorage) {
         super(unknownVersion());
 
         setSerializerModifier(new DynamicFilePropertyOmittingSerializerModifier(globalAdministrationConfiguration));
+
+        addDeserializer(byte[].class, new UploadedFileDeserializer(fileUploadStorage));
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package org.springframework.data.rest.webmvc.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.PrimitiveArrayDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.lightadmin.core.rest.binary.FileUploadStorage;
+
+import java.io.IOException;
+
+import static org.lightadmin.core.rest.binary.FileUploadStorage.isUploadToken;
+
+/**
+ * Resolves upload tokens posted for binary properties into the uploaded content,
+ * any other value is deserialized as a regular byte array.
+ */
+public class UploadedFileDeserializer extends StdDeserializer<byte[]> {
+
+    private final JsonDeserializer<?> byteArrayDeserializer = PrimitiveArrayDeserializers.forType(Byte.TYPE);
+
+    private final FileUploadStorage fileUploadStorage;
+
+    public UploadedFileDeserializer(FileUploadStorage fileUploadStorage) {
+        super(byte[].class);
+        this.fileUploadStorage = fileUploadStorage;
+    }
+
+    @Override
+    public byte[] deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (jp.getCurrentToken() == JsonToken.VALUE_STRING && isUploadToken(jp.getText())) {
+            return fileUploadStorage.read(jp.getText());
+        }
+        return (byte[]) byteArrayDeserializer.deserialize(jp, ctxt);
+    }
+}
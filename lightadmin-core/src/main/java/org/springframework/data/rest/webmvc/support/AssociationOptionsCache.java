@@ -0,0 +1,191 @@
+package org.springframework.data.rest.webmvc.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.lightadmin.api.config.utils.EntityNameExtractor;
+import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.model.BeanWrapper;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.lightadmin.core.config.domain.configuration.support.ExceptionAwareTransformer.exceptionAwareNameExtractor;
+
+/**
+ * Sorted (id, name) option lists of small association target types, shared by all form renders.
+ * Types with more rows than the options limit are remembered as such and served by paged lookup instead,
+ * unless an association to them is configured as eager: their complete lists are cached apart, weighed
+ * against a maximum of their own so that they never evict the lists of small types.
+ */
+@SuppressWarnings("unchecked")
+public class AssociationOptionsCache {
+
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 300;
+
+    public static final int DEFAULT_MAXIMUM_OPTIONS = 50000;
+
+    private final int optionsLimit;
+    private final Cache<Class<?>, AssociationOptions> associationOptions;
+    private final Cache<Class<?>, AssociationOptions> eagerAssociationOptions;
+
+    public AssociationOptionsCache(int optionsLimit) {
+        this(optionsLimit, DEFAULT_MAXIMUM_OPTIONS, DEFAULT_CACHE_TTL_SECONDS);
+    }
+
+    public AssociationOptionsCache(int optionsLimit, long maximumOptions, long cacheTtlSeconds) {
+        this.optionsLimit = optionsLimit;
+        this.associationOptions = optionsCache(maximumOptions, cacheTtlSeconds);
+        this.eagerAssociationOptions = optionsCache(maximumOptions, cacheTtlSeconds);
+    }
+
+    /**
+     * @return options sorted by name, or <code>null</code> when the type has more rows than the options limit
+     */
+    public AssociationOptions options(final DomainTypeBasicConfiguration configuration) {
+        final AssociationOptions options = cachedOptions(associationOptions, configuration, true);
+        return options.exceedsLimit ? null : options;
+    }
+
+    /**
+     * @return options of all rows sorted by name, for associations rendered eagerly whatever the size of their type
+     */
+    public AssociationOptions eagerOptions(final DomainTypeBasicConfiguration configuration) {
+        final AssociationOptions options = options(configuration);
+        if (options != null) {
+            return options;
+        }
+        return cachedOptions(eagerAssociationOptions, configuration, false);
+    }
+
+    public boolean isLookupRequired(DomainTypeBasicConfiguration configuration) {
+        return options(configuration) == null;
+    }
+
+    public void invalidate(Class<?> domainType) {
+        associationOptions.invalidate(domainType);
+        eagerAssociationOptions.invalidate(domainType);
+    }
+
+    private AssociationOptions cachedOptions(Cache<Class<?>, AssociationOptions> cache, final DomainTypeBasicConfiguration configuration, final boolean limited) {
+        try {
+            return cache.get(configuration.getDomainType(), new Callable<AssociationOptions>() {
+                @Override
+                public AssociationOptions call() throws Exception {
+                    return loadOptions(configuration, limited);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private AssociationOptions loadOptions(DomainTypeBasicConfiguration configuration, boolean limited) {
+        final DynamicJpaRepository<Object, ?> repository = (DynamicJpaRepository<Object, ?>) configuration.getRepository();
+        if (limited && repository.countCapped(null, optionsLimit) > optionsLimit) {
+            return AssociationOptions.EXCEEDS_LIMIT;
+        }
+
+        final String nameField = configuration.getEntityConfiguration().getNameField();
+        final PersistentProperty idProperty = configuration.getPersistentEntity().getIdProperty();
+        final Sort sort = nameField == null ? null : new Sort(nameField);
+
+        final List<Object> elements;
+        if (limited) {
+            elements = repository.findSlice(null, new PageRequest(0, Math.max(optionsLimit, 1), sort)).getContent();
+        } else {
+            elements = sort == null ? repository.findAll() : repository.findAll(sort);
+        }
+
+        final EntityNameExtractor<Object> nameExtractor = configuration.getEntityConfiguration().getNameExtractor();
+        final Object[] ids = new Object[elements.size()];
+        final String[] names = new String[elements.size()];
+        for (int i = 0; i < elements.size(); i++) {
+            ids[i] = BeanWrapper.create(elements.get(i), null).getProperty(idProperty);
+            names[i] = exceptionAwareNameExtractor(nameExtractor, configuration).apply(elements.get(i));
+        }
+
+        final AssociationOptions options = new AssociationOptions(ids, names, false);
+        if (nameField == null) {
+            options.sortByName();
+        }
+        return options;
+    }
+
+    /**
+     * A single segment, as each segment is bounded by its share of the maximum weight: with more segments
+     * a list larger than that share would be evicted as soon as it is loaded.
+     */
+    private static Cache<Class<?>, AssociationOptions> optionsCache(long maximumOptions, long cacheTtlSeconds) {
+        return CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maximumOptions)
+                .weigher(new Weigher<Class<?>, AssociationOptions>() {
+                    @Override
+                    public int weigh(Class<?> domainType, AssociationOptions options) {
+                        return Math.max(options.size(), 1);
+                    }
+                })
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public static class AssociationOptions {
+
+        private static final AssociationOptions EXCEEDS_LIMIT = new AssociationOptions(new Object[0], new String[0], true);
+
+        private final Object[] ids;
+        private final String[] names;
+        private final boolean exceedsLimit;
+
+        AssociationOptions(Object[] ids, String[] names, boolean exceedsLimit) {
+            this.ids = ids;
+            this.names = names;
+            this.exceedsLimit = exceedsLimit;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public Object id(int index) {
+            return ids[index];
+        }
+
+        public String name(int index) {
+            return names[index];
+        }
+
+        private void sortByName() {
+            final Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+
+            final String[] unsortedNames = names.clone();
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer index1, Integer index2) {
+                    return String.valueOf(unsortedNames[index1]).compareToIgnoreCase(String.valueOf(unsortedNames[index2]));
+                }
+            });
+
+            final Object[] unsortedIds = ids.clone();
+            for (int i = 0; i < order.length; i++) {
+                ids[i] = unsortedIds[order[i]];
+                names[i] = unsortedNames[order[i]];
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.springframework.data.rest.webmvc.support;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Progress of a bulk operation running in the background, polled by clients while the chunks are processed.
+ */
+public class BulkOperationProgress {
+
+    public static final int MAX_ERRORS = 100;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String operation;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> errors = newArrayList();
+
+    private volatile long total = -1;
+    private volatile Status status = Status.RUNNING;
+
+    public BulkOperationProgress(String id, String operation) {
+        this.id = id;
+        this.operation = operation;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return number of entities to process, -1 while unknown
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the first {@link #MAX_ERRORS} failure messages
+     */
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return newArrayList(errors);
+        }
+    }
+
+    public boolean isDone() {
+        return status != Status.RUNNING;
+    }
+
+    void total(long total) {
+        this.total = total;
+    }
+
+    void processed(long count) {
+        processed.addAndGet(count);
+    }
+
+    void failed(long count, String error) {
+        failed.addAndGet(count);
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    void completed() {
+        this.status = Status.COMPLETED;
+    }
+
+    void aborted(String error) {
+        synchronized (errors) {
+            errors.add(error);
+        }
+        this.status = Status.FAILED;
+    }
+
+    public Map<String, Object> toMap() {
+        final Map<String, Object> result = newLinkedHashMap();
+        result.put("id", id);
+        result.put("operation", operation);
+        result.put("status", status);
+        result.put("total", total);
+        result.put("processed", getProcessed());
+        result.put("failed", getFailed());
+        result.put("errors", getErrors());
+        return result;
+    }
+}
@@ -0,0 +1,754 @@
+package org.springframework.data.rest.webmvc.support;
+
+import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.rest.core.RepositoryConstraintViolationException;
+import org.springframework.data.rest.core.event.*;
+import org.springframework.data.rest.webmvc.DynamicDomainObjectMerger;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.ObjectError;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Iterables.getLast;
+import static com.google.common.collect.Iterables.partition;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.apache.commons.lang3.StringUtils.trim;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.*;
+
+/**
+ * Deletes, updates and imports entities of a managed domain type in the background, one transaction per chunk.
+ * Repository events are still published for every entity, the before events ahead of its write and the after
+ * events once the chunk is committed, so file cleanup, validation and cache invalidation work as for single
+ * entity requests. Writes of a chunk are flushed together at commit, which lets the JPA provider batch them
+ * when JDBC batching is enabled for the persistence unit. A chunk that cannot be committed is processed again
+ * one entity per transaction, so that a failing entity does not take the rest of its chunk with it.
+ */
+@SuppressWarnings("unchecked")
+public class BulkOperationService implements ApplicationEventPublisherAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkOperationService.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = PredicateScopeSearcher.DEFAULT_CHUNK_SIZE;
+
+    public static final long DEFAULT_PROGRESS_TTL_MINUTES = 60;
+
+    private static final Charset CSV_CHARSET = Charset.forName("UTF-8");
+
+    private final GlobalAdministrationConfiguration configuration;
+    private final Repositories repositories;
+    private final DynamicDomainObjectMerger domainObjectMerger;
+    private final ConversionService conversionService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final Cache<String, BulkOperationProgress> operations;
+
+    private ApplicationEventPublisher publisher;
+
+    public BulkOperationService(GlobalAdministrationConfiguration configuration, Repositories repositories, DynamicDomainObjectMerger domainObjectMerger,
+                                ConversionService conversionService, PlatformTransactionManager transactionManager, TaskExecutor taskExecutor, int chunkSize) {
+        this.configuration = configuration;
+        this.repositories = repositories;
+        this.domainObjectMerger = domainObjectMerger;
+        this.conversionService = conversionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.operations = CacheBuilder.newBuilder()
+                .expireAfterAccess(DEFAULT_PROGRESS_TTL_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * @return progress of the operation, or {@code null} if it is unknown or expired
+     */
+    public BulkOperationProgress progress(String operationId) {
+        return operations.getIfPresent(operationId);
+    }
+
+    public BulkOperationProgress delete(final DomainTypeAdministrationConfiguration domainConfiguration, Selection selection) {
+        final PersistentEntityMetadata metadata = metadata(domainConfiguration);
+        final SelectedEntities selectedEntities = new SelectedEntities(domainConfiguration.getRepository(), metadata, selection.withIdType(metadata, conversionService));
+
+        return start("delete", new Job() {
+            @Override
+            public void run(BulkOperationProgress progress) {
+                processEntities(domainConfiguration.getRepository(), metadata, selectedEntities, progress, new EntityOperation() {
+                    @Override
+                    public RepositoryEvent apply(DynamicJpaRepository<Object, Serializable> repository, Object entity) {
+                        publisher.publishEvent(new BeforeDeleteEvent(entity));
+                        repository.delete(entity);
+                        return new AfterDeleteEvent(entity);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @param values new values by property name, associations given by the id of the associated entity
+     * @throws IllegalArgumentException if a property is unknown or cannot be updated in bulk
+     */
+    public BulkOperationProgress update(final DomainTypeAdministrationConfiguration domainConfiguration, Selection selection, Map<String, ?> values) {
+        final PersistentEntityMetadata metadata = metadata(domainConfiguration);
+        final SelectedEntities selectedEntities = new SelectedEntities(domainConfiguration.getRepository(), metadata, selection.withIdType(metadata, conversionService));
+
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("No values to update");
+        }
+        final BoundValues boundValues = bind(metadata, values);
+        boundValues.verifyAssociations();
+        final Set<String> properties = newHashSet(values.keySet());
+
+        return start("update", new Job() {
+            @Override
+            public void run(BulkOperationProgress progress) {
+                processEntities(domainConfiguration.getRepository(), metadata, selectedEntities, progress, new EntityOperation() {
+                    @Override
+                    public RepositoryEvent apply(DynamicJpaRepository<Object, Serializable> repository, Object entity) {
+                        domainObjectMerger.merge(boundValues.source(), entity, properties);
+                        publisher.publishEvent(new BeforeSaveEvent(entity));
+                        repository.save(entity);
+                        return new AfterSaveEvent(entity);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Imports a UTF-8 CSV file whose header row names the properties of the columns. Rows with a value in the id column
+     * update the existing entity, other rows create new ones. The file is read row by row and deleted once imported.
+     *
+     * @throws IllegalArgumentException if a column is unknown or cannot be imported
+     */
+    public BulkOperationProgress importCsv(final DomainTypeAdministrationConfiguration domainConfiguration, final File file) throws IOException {
+        final PersistentEntityMetadata metadata = metadata(domainConfiguration);
+
+        final List<String> header;
+        try (CsvReader csvReader = csvReader(file)) {
+            header = header(metadata, csvReader.readRow());
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+
+        return start("import", new Job() {
+            @Override
+            public void run(BulkOperationProgress progress) throws IOException {
+                try (CsvReader csvReader = csvReader(file)) {
+                    csvReader.readRow();
+                    processChunks(new ImportedRows(domainConfiguration.getRepository(), metadata, header, csvReader, progress), progress);
+                    progress.total(progress.getProcessed() + progress.getFailed());
+                } finally {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private BulkOperationProgress start(String operation, final Job job) {
+        final BulkOperationProgress progress = new BulkOperationProgress(UUID.randomUUID().toString(), operation);
+        operations.put(progress.getId(), progress);
+
+        try {
+            taskExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        job.run(progress);
+                        progress.completed();
+                    } catch (Exception e) {
+                        LOG.error(format("Bulk %s %s aborted", progress.getOperation(), progress.getId()), e);
+                        progress.aborted(message(e));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            operations.invalidate(progress.getId());
+            throw e;
+        }
+        return progress;
+    }
+
+    private void processEntities(final DynamicJpaRepository<Object, Serializable> repository, final PersistentEntityMetadata metadata,
+                                 final SelectedEntities selectedEntities, final BulkOperationProgress progress, final EntityOperation operation) {
+        progress.total(selectedEntities.total());
+
+        processChunks(new Chunks() {
+            @Override
+            public List<?> next() {
+                return selectedEntities.next(progress);
+            }
+
+            @Override
+            public RepositoryEvent apply(Object entity) {
+                try {
+                    return operation.apply(repository, entity);
+                } catch (RuntimeException e) {
+                    repository.detach(Collections.singletonList(entity));
+                    throw e;
+                }
+            }
+
+            @Override
+            public Object reload(Object entity) {
+                return repository.findOne((Serializable) metadata.getIdValue(entity));
+            }
+
+            @Override
+            public String describe(Object entity) {
+                return String.valueOf(metadata.getIdValue(entity));
+            }
+        }, progress);
+    }
+
+    /**
+     * Runs each chunk in its own transaction and publishes the after events of the chunk once it is committed.
+     * An item failing before anything was written, e.g. on validation, is discarded and counted as failed.
+     * Once a write failed or the commit did, the chunk is rolled back and its items are processed again one
+     * per transaction. Only a chunk that cannot be read at all aborts the operation.
+     */
+    private void processChunks(final Chunks chunks, final BulkOperationProgress progress) {
+        while (true) {
+            final List<Object> pending = newArrayList();
+            final List<RepositoryEvent> afterEvents = newArrayList();
+
+            final boolean more;
+            try {
+                more = transactionTemplate.execute(new TransactionCallback<Boolean>() {
+                    @Override
+                    public Boolean doInTransaction(TransactionStatus status) {
+                        final List<?> items = chunks.next();
+                        if (items == null) {
+                            return false;
+                        }
+
+                        pending.addAll(items);
+                        for (Object item : items) {
+                            try {
+                                final RepositoryEvent afterEvent = chunks.apply(item);
+                                if (afterEvent != null) {
+                                    afterEvents.add(afterEvent);
+                                }
+                            } catch (RuntimeException e) {
+                                if (status.isRollbackOnly()) {
+                                    throw e;
+                                }
+                                pending.remove(item);
+                                progress.failed(1, format("%s: %s", chunks.describe(item), message(e)));
+                            }
+                        }
+                        return true;
+                    }
+                });
+            } catch (RuntimeException e) {
+                if (pending.isEmpty()) {
+                    throw e;
+                }
+                LOG.debug(format("Chunk of bulk %s %s rolled back, processing its items one by one", progress.getOperation(), progress.getId()), e);
+                processOneByOne(chunks, pending, progress);
+                continue;
+            }
+
+            if (!more) {
+                return;
+            }
+            publishAfterEvents(afterEvents, progress);
+        }
+    }
+
+    private void processOneByOne(final Chunks chunks, List<Object> items, BulkOperationProgress progress) {
+        for (final Object item : items) {
+            final RepositoryEvent afterEvent;
+            try {
+                afterEvent = transactionTemplate.execute(new TransactionCallback<RepositoryEvent>() {
+                    @Override
+                    public RepositoryEvent doInTransaction(TransactionStatus status) {
+                        final Object reloaded = chunks.reload(item);
+                        if (reloaded == null) {
+                            throw new IllegalArgumentException("Not found");
+                        }
+                        return chunks.apply(reloaded);
+                    }
+                });
+            } catch (RuntimeException e) {
+                progress.failed(1, format("%s: %s", chunks.describe(item), message(e)));
+                continue;
+            }
+
+            if (afterEvent != null) {
+                publishAfterEvents(Collections.singletonList(afterEvent), progress);
+            }
+        }
+    }
+
+    private void publishAfterEvents(List<RepositoryEvent> afterEvents, BulkOperationProgress progress) {
+        for (RepositoryEvent afterEvent : afterEvents) {
+            try {
+                publisher.publishEvent(afterEvent);
+            } catch (RuntimeException e) {
+                LOG.warn("Repository event listener failed after bulk " + progress.getOperation(), e);
+            }
+        }
+        progress.processed(afterEvents.size());
+    }
+
+    private BoundValues bind(PersistentEntityMetadata metadata, Map<String, ?> values) {
+        final Object source = instantiate(metadata.getPersistentEntity().getType());
+        final BeanWrapper<Object> wrapper = BeanWrapper.create(source, conversionService);
+        final Map<PersistentProperty, Serializable> associationIds = newLinkedHashMap();
+
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            final PersistentProperty persistentProperty = bindableProperty(metadata, entry.getKey());
+            final Object value = convert(metadata, persistentProperty, entry.getValue());
+
+            if (value != null && metadata.getPropertyType(persistentProperty.getName()) == ASSOC) {
+                associationIds.put(persistentProperty, (Serializable) value);
+            } else {
+                wrapper.setProperty(persistentProperty, value);
+            }
+        }
+        return new BoundValues(source, associationIds);
+    }
+
+    private PersistentProperty bindableProperty(PersistentEntityMetadata metadata, String propertyName) {
+        final PersistentEntity persistentEntity = metadata.getPersistentEntity();
+        final PersistentProperty persistentProperty = persistentEntity.getPersistentProperty(propertyName);
+        if (persistentProperty == null) {
+            throw new IllegalArgumentException(format("Unknown property '%s' of %s", propertyName, persistentEntity.getType().getSimpleName()));
+        }
+
+        final PersistentPropertyType propertyType = metadata.getPropertyType(propertyName);
+        if (persistentEntity.isIdProperty(persistentProperty) || isOfFileType(persistentProperty)
+                || propertyType == ASSOC_MULTI || propertyType == EMBEDDED || propertyType == MAP) {
+            throw new IllegalArgumentException(format("Property '%s' cannot be changed in bulk", propertyName));
+        }
+        return persistentProperty;
+    }
+
+    private Object convert(PersistentEntityMetadata metadata, PersistentProperty persistentProperty, Object value) {
+        if ("".equals(value) && !String.class.equals(persistentProperty.getType())) {
+            value = null;
+        }
+
+        if (value == null) {
+            if (persistentProperty.getType().isPrimitive()) {
+                throw new IllegalArgumentException(format("Property '%s' requires a value", persistentProperty.getName()));
+            }
+            return null;
+        }
+
+        if (metadata.getPropertyType(persistentProperty.getName()) == ASSOC) {
+            final PersistentEntity<?, ?> associatedEntity = repositories.getPersistentEntity(persistentProperty.getActualType());
+            return conversionService.convert(value, associatedEntity.getIdProperty().getType());
+        }
+        return conversionService.convert(value, persistentProperty.getType());
+    }
+
+    private CrudRepository<Object, Serializable> associationRepository(PersistentProperty persistentProperty) {
+        return (CrudRepository<Object, Serializable>) repositories.getRepositoryFor(persistentProperty.getActualType());
+    }
+
+    private static IllegalArgumentException noAssociatedEntity(PersistentProperty persistentProperty, Serializable id) {
+        return new IllegalArgumentException(format("No %s with id %s", persistentProperty.getActualType().getSimpleName(), id));
+    }
+
+    private List<String> header(PersistentEntityMetadata metadata, List<String> row) {
+        if (row == null) {
+            throw new IllegalArgumentException("Header row is missing");
+        }
+
+        final List<String> header = newArrayList();
+        for (String column : row) {
+            final String propertyName = trim(column);
+            if (!propertyName.equals(metadata.getIdProperty().getName())) {
+                bindableProperty(metadata, propertyName);
+            }
+            header.add(propertyName);
+        }
+        return header;
+    }
+
+    private CsvReader csvReader(File file) throws IOException {
+        return new CsvReader(new BufferedReader(new InputStreamReader(new FileInputStream(file), CSV_CHARSET)));
+    }
+
+    private PersistentEntityMetadata metadata(DomainTypeAdministrationConfiguration domainConfiguration) {
+        return configuration.forPersistentEntity(domainConfiguration.getDomainType());
+    }
+
+    private static Object instantiate(Class<?> type) {
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            ReflectionUtils.makeAccessible(constructor);
+            return BeanUtils.instantiateClass(constructor);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Entity " + type.getName() + " has no default constructor", e);
+        }
+    }
+
+    private static String message(Exception e) {
+        if (e instanceof RepositoryConstraintViolationException) {
+            final List<String> messages = newArrayList();
+            for (ObjectError error : ((RepositoryConstraintViolationException) e).getErrors().getAllErrors()) {
+                messages.add(error.getDefaultMessage());
+            }
+            return join(messages, ", ");
+        }
+
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    /**
+     * Entities a bulk delete or update applies to: either the given ids, or those matching a specification
+     * and optionally an in-memory predicate.
+     */
+    public static class Selection {
+
+        private final Collection<?> ids;
+        private final Specification specification;
+        private final Predicate predicate;
+
+        private Selection(Collection<?> ids, Specification specification, Predicate predicate) {
+            this.ids = ids;
+            this.specification = specification;
+            this.predicate = predicate;
+        }
+
+        public static Selection ids(Collection<?> ids) {
+            if (ids == null || ids.isEmpty()) {
+                throw new IllegalArgumentException("No ids selected");
+            }
+            return new Selection(ids, null, null);
+        }
+
+        public static Selection matching(Specification specification, Predicate predicate) {
+            return new Selection(null, specification, predicate);
+        }
+
+        private Selection withIdType(PersistentEntityMetadata metadata, ConversionService conversionService) {
+            if (ids == null) {
+                return this;
+            }
+
+            final Set<Object> convertedIds = newLinkedHashSet();
+            for (Object id : ids) {
+                convertedIds.add(conversionService.convert(id, metadata.getIdProperty().getType()));
+            }
+            return new Selection(newArrayList(convertedIds), null, null);
+        }
+    }
+
+    /**
+     * Values bound to an instance of the domain type. Associated entities are kept by id and looked up
+     * each time the values are applied, within the transaction of the entity they are assigned to,
+     * so that no entity is shared between the persistence contexts of different chunks.
+     */
+    private class BoundValues {
+
+        private final Object source;
+        private final Map<PersistentProperty, Serializable> associationIds;
+
+        BoundValues(Object source, Map<PersistentProperty, Serializable> associationIds) {
+            this.source = source;
+            this.associationIds = associationIds;
+        }
+
+        /**
+         * @throws IllegalArgumentException if an associated entity does not exist
+         */
+        void verifyAssociations() {
+            for (Map.Entry<PersistentProperty, Serializable> entry : associationIds.entrySet()) {
+                if (!associationRepository(entry.getKey()).exists(entry.getValue())) {
+                    throw noAssociatedEntity(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        /**
+         * @return the bound instance, with associated entities read within the current transaction
+         */
+        Object source() {
+            final BeanWrapper<Object> wrapper = BeanWrapper.create(source, conversionService);
+            for (Map.Entry<PersistentProperty, Serializable> entry : associationIds.entrySet()) {
+                final Object associated = associationRepository(entry.getKey()).findOne(entry.getValue());
+                if (associated == null) {
+                    throw noAssociatedEntity(entry.getKey(), entry.getValue());
+                }
+                wrapper.setProperty(entry.getKey(), associated);
+            }
+            return source;
+        }
+    }
+
+    private interface Job {
+
+        void run(BulkOperationProgress progress) throws Exception;
+    }
+
+    private interface Chunks {
+
+        /**
+         * Reads the items of the next chunk within its transaction.
+         *
+         * @return the items, or {@code null} if there is nothing left to process
+         */
+        List<?> next();
+
+        /**
+         * Applies the operation to an item, discarding its changes if it fails.
+         *
+         * @return the event to publish once the item is committed, or {@code null} if there was nothing to write
+         */
+        RepositoryEvent apply(Object item);
+
+        /**
+         * Reads an item of a rolled back chunk again for its own transaction.
+         *
+         * @return the item, or {@code null} if it no longer exists
+         */
+        Object reload(Object item);
+
+        String describe(Object item);
+    }
+
+    private interface EntityOperation {
+
+        RepositoryEvent apply(DynamicJpaRepository<Object, Serializable> repository, Object entity);
+    }
+
+    /**
+     * Loads the selected entities chunk by chunk, by id or with keyset (seek) queries ordered by id,
+     * so that deleting the entities of a chunk does not shift the following ones.
+     */
+    private class SelectedEntities {
+
+        private final DynamicJpaRepository<Object, Serializable> repository;
+        private final PersistentEntityMetadata metadata;
+        private final Selection selection;
+        private final Sort sort;
+        private final Iterator<List<Object>> idChunks;
+
+        private String cursor;
+        private boolean exhausted;
+
+        SelectedEntities(DynamicJpaRepository<Object, Serializable> repository, PersistentEntityMetadata metadata, Selection selection) {
+            this.repository = repository;
+            this.metadata = metadata;
+            this.selection = selection;
+            this.sort = new Sort(metadata.getIdProperty().getName());
+            this.idChunks = selection.ids == null ? null : partition((Collection<Object>) selection.ids, chunkSize).iterator();
+        }
+
+        long total() {
+            if (selection.ids != null) {
+                return selection.ids.size();
+            }
+            return selection.predicate == null ? repository.count(selection.specification) : -1;
+        }
+
+        /**
+         * @return entities of the next chunk, or {@code null} if there are none left
+         */
+        List<Object> next(BulkOperationProgress progress) {
+            if (idChunks != null) {
+                return idChunks.hasNext() ? findAll(idChunks.next(), progress) : null;
+            }
+
+            if (exhausted) {
+                return null;
+            }
+
+            final List<Object> chunk = cursor == null
+                    ? repository.findSlice(selection.specification, new PageRequest(0, chunkSize, sort)).getContent()
+                    : repository.findAllAfter(selection.specification, sort, cursor, chunkSize);
+
+            exhausted = chunk.size() < chunkSize;
+            if (!exhausted) {
+                cursor = repository.keysetCursor(getLast(chunk), sort);
+                if (cursor == null) {
+                    throw new IllegalStateException(format("Entities of %s cannot be selected by scope, select them by id", metadata.getPersistentEntity().getType().getSimpleName()));
+                }
+            }
+
+            return selection.predicate == null ? chunk : newArrayList(filter(chunk, selection.predicate));
+        }
+
+        private List<Object> findAll(List<Object> ids, BulkOperationProgress progress) {
+            final List<Object> entities = repository.findAll((Iterable) ids);
+
+            if (entities.size() < ids.size()) {
+                final Set<Object> missingIds = newHashSet(ids);
+                for (Object entity : entities) {
+                    missingIds.remove(metadata.getIdValue(entity));
+                }
+                progress.failed(missingIds.size(), "Not found: " + join(missingIds, ", "));
+            }
+            return entities;
+        }
+    }
+
+    /**
+     * Reads up to a chunk of CSV rows per transaction, creating or updating an entity per row.
+     */
+    private class ImportedRows implements Chunks {
+
+        private final DynamicJpaRepository<Object, Serializable> repository;
+        private final PersistentEntityMetadata metadata;
+        private final List<String> header;
+        private final CsvReader csvReader;
+        private final BulkOperationProgress progress;
+
+        private int rowNumber = 1;
+        private boolean exhausted;
+
+        ImportedRows(DynamicJpaRepository<Object, Serializable> repository, PersistentEntityMetadata metadata, List<String> header, CsvReader csvReader, BulkOperationProgress progress) {
+            this.repository = repository;
+            this.metadata = metadata;
+            this.header = header;
+            this.csvReader = csvReader;
+            this.progress = progress;
+        }
+
+        @Override
+        public List<?> next() {
+            final List<ImportedRow> rows = newArrayList();
+            while (!exhausted && rows.size() < chunkSize) {
+                final List<String> values = readRow();
+                if (values == null) {
+                    exhausted = true;
+                    break;
+                }
+                rowNumber++;
+
+                if (values.size() != 1 || !isBlank(values.get(0))) {
+                    rows.add(new ImportedRow(rowNumber, values));
+                }
+            }
+            return rows.isEmpty() ? null : rows;
+        }
+
+        @Override
+        public RepositoryEvent apply(Object item) {
+            final List<String> row = ((ImportedRow) item).values;
+            if (row.size() != header.size()) {
+                throw new IllegalArgumentException(format("%d values for %d columns", row.size(), header.size()));
+            }
+
+            final Map<String, String> values = newLinkedHashMap();
+            String id = null;
+            for (int column = 0; column < header.size(); column++) {
+                if (header.get(column).equals(metadata.getIdProperty().getName())) {
+                    id = row.get(column);
+                } else {
+                    values.put(header.get(column), row.get(column));
+                }
+            }
+
+            final Object source = bind(metadata, values).source();
+
+            Object entity = null;
+            try {
+                if (isBlank(id)) {
+                    entity = instantiate(metadata.getPersistentEntity().getType());
+                    domainObjectMerger.merge(source, entity, values.keySet());
+                    publisher.publishEvent(new BeforeCreateEvent(entity));
+                    return new AfterCreateEvent(repository.save(entity));
+                }
+
+                entity = repository.findOne((Serializable) conversionService.convert(trim(id), metadata.getIdProperty().getType()));
+                if (entity == null) {
+                    throw new IllegalArgumentException("No entity with id " + id);
+                }
+                domainObjectMerger.merge(source, entity, values.keySet());
+                publisher.publishEvent(new BeforeSaveEvent(entity));
+                return new AfterSaveEvent(repository.save(entity));
+            } catch (RuntimeException e) {
+                if (entity != null) {
+                    repository.detach(Collections.singletonList(entity));
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public Object reload(Object item) {
+            return item;
+        }
+
+        @Override
+        public String describe(Object item) {
+            return "Row " + ((ImportedRow) item).number;
+        }
+
+        /**
+         * @return the next row, or {@code null} at the end of input or where the rest of it cannot be parsed
+         */
+        private List<String> readRow() {
+            try {
+                return csvReader.readRow();
+            } catch (IOException e) {
+                progress.failed(1, format("Row %d: %s", rowNumber + 1, e.getMessage()));
+                return null;
+            }
+        }
+    }
+
+    private static class ImportedRow {
+
+        private final int number;
+        private final List<String> values;
+
+        ImportedRow(int number, List<String> values) {
+            this.number = number;
+            this.values = values;
+        }
+    }
+}
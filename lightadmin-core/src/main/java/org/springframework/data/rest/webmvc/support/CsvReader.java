@@ -0,0 +1,101 @@
+package org.springframework.data.rest.webmvc.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Reads RFC 4180 comma separated values one row at a time, so that large imports are never held in memory.
+ * Fields may be enclosed in double quotes, which then may contain commas, line breaks and doubled quotes.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+
+    private int pending = -2;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return fields of the next row, or {@code null} at the end of input
+     * @throws IOException if reading fails or a quoted field is not terminated
+     */
+    public List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        final List<String> row = newArrayList();
+        final StringBuilder field = new StringBuilder();
+        boolean fieldStart = true;
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    final int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    final int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            final int c = pending;
+            pending = -2;
+            return c;
+        }
+
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == BYTE_ORDER_MARK) {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,90 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.lightadmin.api.config.unit.EntityMetadataConfigurationUnit;
+import org.lightadmin.api.config.unit.FieldSetConfigurationUnit;
+import org.lightadmin.api.config.unit.ScreenContextConfigurationUnit;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.field.FieldMetadata;
+import org.lightadmin.core.config.domain.field.PersistentFieldMetadata;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentProperty;
+
+import java.util.Set;
+
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static org.apache.commons.lang3.StringUtils.contains;
+import static org.lightadmin.core.config.domain.configuration.support.EntityNameExtractorFactory.isIdentifierNameExtractor;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.*;
+
+/**
+ * Decides whether list view rows of a domain type can be read with a query selecting only the rendered columns.
+ * Rows are rendered from the entity class alone, so anything evaluated against the whole entity
+ * (custom and transient fields, renderers, custom names) keeps loading entities.
+ * byte[] file properties are never selected, their sizes are looked up separately.
+ */
+public abstract class ListViewProjection {
+
+    /**
+     * @return root attributes the list view is rendered from, or <code>null</code> when rows have to be loaded as entities
+     */
+    public static Set<String> projectedAttributes(DomainTypeAdministrationConfiguration configuration, PersistentEntityMetadata metadata, Sort sort) {
+        return projectedAttributes(configuration.getScreenContext(), configuration.getListViewFragment(), configuration.getEntityConfiguration(), metadata, sort);
+    }
+
+    static Set<String> projectedAttributes(ScreenContextConfigurationUnit screenContext, FieldSetConfigurationUnit listView, EntityMetadataConfigurationUnit entityConfiguration,
+                                           PersistentEntityMetadata metadata, Sort sort) {
+        if (screenContext == null || !screenContext.isListViewProjection()) {
+            return null;
+        }
+
+        final Set<String> attributes = newLinkedHashSet();
+
+        for (FieldMetadata field : listView) {
+            if (!(field instanceof PersistentFieldMetadata)) {
+                return null;
+            }
+
+            final PersistentFieldMetadata persistentField = (PersistentFieldMetadata) field;
+            final PersistentProperty persistentProperty = persistentField.getPersistentProperty();
+            if (persistentProperty == null || persistentField.getRenderer() != null || !persistentField.getFetchPaths().isEmpty()) {
+                return null;
+            }
+
+            if (!isProjectable(metadata.getPropertyType(persistentProperty.getName()))) {
+                return null;
+            }
+            if (!isOfBinaryFileType(persistentProperty)) {
+                attributes.add(persistentProperty.getName());
+            }
+        }
+
+        for (PersistentProperty fileReferenceProperty : metadata.getFileReferenceProperties()) {
+            attributes.add(fileReferenceProperty.getName());
+        }
+
+        if (entityConfiguration.getNameField() != null) {
+            if (contains(entityConfiguration.getNameField(), '.')) {
+                return null;
+            }
+            attributes.add(entityConfiguration.getNameField());
+        } else if (!isIdentifierNameExtractor(entityConfiguration.getNameExtractor())) {
+            return null;
+        }
+
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                if (!contains(order.getProperty(), '.')) {
+                    attributes.add(order.getProperty());
+                }
+            }
+        }
+
+        return attributes;
+    }
+
+    private static boolean isProjectable(PersistentPropertyType propertyType) {
+        return propertyType != ASSOC_MULTI && propertyType != EMBEDDED && propertyType != MAP;
+    }
+}
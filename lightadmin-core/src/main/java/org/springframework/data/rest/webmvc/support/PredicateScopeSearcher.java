@@ -0,0 +1,180 @@
+package org.springframework.data.rest.webmvc.support;
+
+import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.rest.core.invoke.DynamicRepositoryInvoker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newTreeMap;
+
+@SuppressWarnings("unchecked")
+public class PredicateScopeSearcher {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final long DEFAULT_COUNT_CACHE_SIZE = 1000;
+    public static final long DEFAULT_COUNT_CACHE_TTL_SECONDS = 60;
+
+    private final int chunkSize;
+    private final Cache<String, Long> countCache;
+
+    public PredicateScopeSearcher() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_COUNT_CACHE_SIZE, DEFAULT_COUNT_CACHE_TTL_SECONDS);
+    }
+
+    public PredicateScopeSearcher(int chunkSize, long countCacheSize, long countCacheTtlSeconds) {
+        this.chunkSize = chunkSize;
+        this.countCache = CacheBuilder.newBuilder()
+                .maximumSize(countCacheSize)
+                .expireAfterWrite(countCacheTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public Page<?> findPage(DynamicRepositoryInvoker invoker, Specification specification, Predicate predicate, Pageable pageable, String countKey) {
+        final List<Object> content = newArrayList();
+        final int offset = pageable.getOffset();
+
+        int matched = 0;
+        boolean hasNext = false;
+
+        for (List<Object> chunk : invoker.findAllInChunks(specification, pageable.getSort(), chunkSize)) {
+            final List<Object> rejected = newArrayList();
+
+            for (Object item : chunk) {
+                if (!hasNext && predicate.apply(item) && matched++ >= offset) {
+                    if (content.size() < pageable.getPageSize()) {
+                        content.add(item);
+                        continue;
+                    }
+                    hasNext = true;
+                }
+                rejected.add(item);
+            }
+
+            invoker.detach(rejected);
+
+            if (hasNext) {
+                break;
+            }
+        }
+
+        return new PageImpl<>(content, pageable, total(countKey, matched, hasNext, offset + content.size()));
+    }
+
+    /**
+     * @return whether the total of a page found for {@code countKey} is exact, otherwise it is a lower bound
+     */
+    public boolean isTotalExact(Page<?> page, String countKey) {
+        return !page.hasNext() || countCache.getIfPresent(countKey) != null;
+    }
+
+    public long count(final DynamicRepositoryInvoker invoker, final Specification specification, final Predicate predicate, String countKey) {
+        try {
+            return countCache.get(countKey, new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    return countItems(invoker, specification, predicate);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    public long[] count(DynamicRepositoryInvoker invoker, Specification specification, List<Predicate> predicates, List<String> countKeys) {
+        final long[] counts = new long[predicates.size()];
+
+        final List<Integer> uncounted = newArrayList();
+        for (int i = 0; i < predicates.size(); i++) {
+            final Long cachedCount = countCache.getIfPresent(countKeys.get(i));
+            if (cachedCount == null) {
+                uncounted.add(i);
+            } else {
+                counts[i] = cachedCount;
+            }
+        }
+
+        if (uncounted.isEmpty()) {
+            return counts;
+        }
+
+        for (List<Object> chunk : invoker.findAllInChunks(specification, null, chunkSize)) {
+            for (Object item : chunk) {
+                for (Integer index : uncounted) {
+                    if (predicates.get(index).apply(item)) {
+                        counts[index]++;
+                    }
+                }
+            }
+            invoker.detach(chunk);
+        }
+
+        for (Integer index : uncounted) {
+            countCache.put(countKeys.get(index), counts[index]);
+        }
+
+        return counts;
+    }
+
+    public void evictCounts(Class<?> domainType) {
+        final String keyPrefix = domainType.getName() + '#';
+        for (String countKey : countCache.asMap().keySet()) {
+            if (countKey.startsWith(keyPrefix)) {
+                countCache.invalidate(countKey);
+            }
+        }
+    }
+
+    public String countKey(PersistentEntity<?, ?> persistentEntity, String scopeName, Map<String, String[]> parameters) {
+        final SortedMap<String, String> filterParameters = newTreeMap();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            if (persistentEntity.getPersistentProperty(SpecificationCreator.filterPropertyName(parameter.getKey())) != null) {
+                filterParameters.put(parameter.getKey(), Arrays.toString(parameter.getValue()));
+            }
+        }
+        return persistentEntity.getType().getName() + '#' + scopeName + '#' + filterParameters;
+    }
+
+    private long countItems(DynamicRepositoryInvoker invoker, Specification specification, Predicate predicate) {
+        long count = 0;
+        for (List<Object> chunk : invoker.findAllInChunks(specification, null, chunkSize)) {
+            for (Object item : chunk) {
+                if (predicate.apply(item)) {
+                    count++;
+                }
+            }
+            invoker.detach(chunk);
+        }
+        return count;
+    }
+
+    private long total(String countKey, long matched, boolean hasNext, long pageEnd) {
+        final Long cachedCount = countCache.getIfPresent(countKey);
+        if (cachedCount != null) {
+            return cachedCount;
+        }
+
+        if (!hasNext) {
+            countCache.put(countKey, matched);
+            return matched;
+        }
+
+        return pageEnd + 1;
+    }
+}
@@ -0,0 +1,120 @@
+package org.springframework.data.rest.webmvc.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.lightadmin.api.config.utils.ScopeMetadataUtils;
+import org.lightadmin.api.config.utils.ScopeMetadataUtils.PredicateScopeMetadata;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.scope.ScopeMetadata;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static org.lightadmin.api.config.utils.ScopeMetadataUtils.isPredicateScope;
+import static org.lightadmin.api.config.utils.ScopeMetadataUtils.isSpecificationScope;
+
+/**
+ * Counts of all scopes of a domain type for the list view, cached per domain type until they expire or an entity
+ * of the type is saved or deleted. Specification scopes are counted by a single conditional aggregation query, predicate scopes
+ * in one pass over the table, chunk by chunk. That pass is skipped for tables larger than {@code maxScannedItems},
+ * predicate scopes are left without count then.
+ */
+@SuppressWarnings("unchecked")
+public class ScopeCountService {
+
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 60;
+    public static final long DEFAULT_MAX_SCANNED_ITEMS = 50000;
+
+    private final int chunkSize;
+    private final long maxScannedItems;
+    private final Cache<Class<?>, Map<String, Long>> scopeCounts;
+
+    public ScopeCountService() {
+        this(PredicateScopeSearcher.DEFAULT_CHUNK_SIZE, DEFAULT_CACHE_TTL_SECONDS, DEFAULT_MAX_SCANNED_ITEMS);
+    }
+
+    public ScopeCountService(int chunkSize, long cacheTtlSeconds, long maxScannedItems) {
+        this.chunkSize = chunkSize;
+        this.maxScannedItems = maxScannedItems;
+        this.scopeCounts = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * @return count per scope name, null for predicate scopes of tables larger than {@code maxScannedItems}
+     */
+    public Map<String, Long> scopeCounts(final DomainTypeAdministrationConfiguration configuration) {
+        try {
+            return scopeCounts.get(configuration.getDomainType(), new Callable<Map<String, Long>>() {
+                @Override
+                public Map<String, Long> call() throws Exception {
+                    return countScopes(configuration);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    public void invalidate(Class<?> domainType) {
+        scopeCounts.invalidate(domainType);
+    }
+
+    private Map<String, Long> countScopes(DomainTypeAdministrationConfiguration configuration) {
+        final DynamicJpaRepository<Object, ?> repository = (DynamicJpaRepository<Object, ?>) configuration.getRepository();
+
+        final List<ScopeMetadata> scopes = newArrayList(configuration.getScopes());
+        final List<PredicateScopeMetadata> predicateScopes = newArrayList();
+        final List<Specification<Object>> scopeSpecifications = newArrayList();
+        for (ScopeMetadata scope : scopes) {
+            if (isPredicateScope(scope)) {
+                predicateScopes.add((PredicateScopeMetadata) scope);
+            } else if (isSpecificationScope(scope)) {
+                scopeSpecifications.add(((ScopeMetadataUtils.SpecificationScopeMetadata) scope).specification());
+            }
+        }
+
+        final long[] specificationCounts = repository.countByConditions(null, scopeSpecifications);
+
+        final boolean predicateScopesCounted = specificationCounts[0] <= maxScannedItems;
+
+        final long[] predicateScopeCounts = new long[predicateScopes.size()];
+        if (!predicateScopes.isEmpty() && predicateScopesCounted) {
+            for (List<Object> chunk : repository.findAllInChunks(null, null, chunkSize)) {
+                for (Object item : chunk) {
+                    for (int i = 0; i < predicateScopes.size(); i++) {
+                        if (predicateScopes.get(i).predicate().apply(item)) {
+                            predicateScopeCounts[i]++;
+                        }
+                    }
+                }
+                repository.detach(chunk);
+            }
+        }
+
+        final Map<String, Long> result = newLinkedHashMap();
+        int specificationIndex = 1;
+        int predicateScopeIndex = 0;
+        for (ScopeMetadata scope : scopes) {
+            if (isPredicateScope(scope)) {
+                result.put(scope.getName(), predicateScopesCounted ? predicateScopeCounts[predicateScopeIndex++] : null);
+            } else if (isSpecificationScope(scope)) {
+                result.put(scope.getName(), specificationCounts[specificationIndex++]);
+            } else {
+                result.put(scope.getName(), specificationCounts[0]);
+            }
+        }
+        return result;
+    }
+}
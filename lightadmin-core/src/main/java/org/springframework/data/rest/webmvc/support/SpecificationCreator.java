@@ -1,14 +1,25 @@
 package org.springframework.data.rest.webmvc.support;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.commons.lang3.BooleanUtils;
+import org.lightadmin.api.config.utils.FilterOperator;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
 import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
 import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.filter.FilterMetadata;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
 import org.lightadmin.core.persistence.metamodel.PersistentPropertyType;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.util.ClassUtils;
 
 import javax.persistence.criteria.*;
@@ -17,182 +28,513 @@ import java.sql.Date;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-
-import static com.google.common.collect.Lists.newLinkedList;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.apache.commons.lang3.StringUtils.trim;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newTreeMap;
+import static java.util.Arrays.asList;
+import static org.apache.commons.lang3.StringUtils.*;
+import static org.lightadmin.api.config.utils.FilterOperator.*;
 import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.*;
 import static org.lightadmin.core.util.NumberUtils.isNumber;
 import static org.lightadmin.core.util.NumberUtils.parseNumber;
 
+/**
+ * Compiles filter request parameters into reusable, immutable filter plans. Plans are cached per domain type and
+ * canonical parameter set, so paging through a filtered list converts the parameters only once. The key includes
+ * the configuration version, so plans compiled before domain types are registered again are no longer served.
+ */
 @SuppressWarnings("unchecked")
+@ManagedResource(objectName = SpecificationCreator.MBEAN_NAME, description = "LightAdmin Filter Specification Cache")
 public class SpecificationCreator {
 
+    public static final String MBEAN_NAME = "org.lightadmin.mbeans:type=cache,name=FilterSpecificationCache";
+
+    public static final long DEFAULT_CACHE_SIZE = 1000;
+
+    private static final char OPERATOR_SEPARATOR = '.';
+    private static final String VALUES_SEPARATOR = ",";
+    private static final char LIKE_ESCAPE_CHARACTER = '\\';
+
     private final ConversionService conversionService;
     private final GlobalAdministrationConfiguration configuration;
+    private final Cache<List<Object>, FilterSpecification> specifications;
 
     public SpecificationCreator(final ConversionService conversionService, final GlobalAdministrationConfiguration configuration) {
+        this(conversionService, configuration, DEFAULT_CACHE_SIZE);
+    }
+
+    public SpecificationCreator(final ConversionService conversionService, final GlobalAdministrationConfiguration configuration, final long cacheSize) {
         this.conversionService = conversionService;
         this.configuration = configuration;
+        this.specifications = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
     }
 
-    public Specification toSpecification(final PersistentEntity persistentEntity, final Map<String, String[]> parameters) {
-        return new Specification<Object>() {
-            @Override
-            public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
-                return new PredicatesBuilder(root, builder, persistentEntity).build(parameters);
-            }
-        };
+    public static String filterPropertyName(final String parameterName) {
+        final int separatorIndex = parameterName.lastIndexOf(OPERATOR_SEPARATOR);
+        if (separatorIndex > 0 && FilterOperator.forSuffix(parameterName.substring(separatorIndex + 1)) != null) {
+            return parameterName.substring(0, separatorIndex);
+        }
+        return parameterName;
     }
 
-    private class PredicatesBuilder {
+    public static FilterOperator filterOperator(final String parameterName) {
+        final int separatorIndex = parameterName.lastIndexOf(OPERATOR_SEPARATOR);
+        return separatorIndex > 0 ? FilterOperator.forSuffix(parameterName.substring(separatorIndex + 1)) : null;
+    }
 
-        private final Root<Object> root;
-        private final CriteriaBuilder builder;
-        private final PersistentEntity persistentEntity;
+    public Specification toSpecification(final PersistentEntity persistentEntity, final Map<String, String[]> parameters) {
+        final SortedMap<String, String[]> filterParameters = filterParameters(persistentEntity, parameters);
 
-        private PredicatesBuilder(final Root<Object> root, final CriteriaBuilder builder, final PersistentEntity persistentEntity) {
-            this.root = root;
-            this.builder = builder;
-            this.persistentEntity = persistentEntity;
+        try {
+            return specifications.get(cacheKey(persistentEntity, filterParameters), new Callable<FilterSpecification>() {
+                @Override
+                public FilterSpecification call() throws Exception {
+                    return new FilterPlanCompiler(configuration.forPersistentEntity(persistentEntity.getType())).compile(filterParameters);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
         }
+    }
 
-        public javax.persistence.criteria.Predicate build(final Map<String, String[]> parameters) {
-            final List<Predicate> attributesPredicates = newLinkedList();
+    @ManagedAttribute(description = "Number of filter plans served from the cache")
+    public long getCacheHitCount() {
+        return specifications.stats().hitCount();
+    }
 
-            for (String parameterName : parameters.keySet()) {
-                if (persistentEntity.getPersistentProperty(parameterName) != null) {
-                    PersistentProperty persistentProperty = persistentEntity.getPersistentProperty(parameterName);
+    @ManagedAttribute(description = "Number of filter plans compiled because of a cache miss")
+    public long getCacheMissCount() {
+        return specifications.stats().missCount();
+    }
 
-                    final String attributeName = persistentProperty.getName();
+    @ManagedAttribute(description = "Number of cached filter plans")
+    public long getCacheSize() {
+        return specifications.size();
+    }
 
-                    final String[] parameterValues = parameters.get(attributeName);
+    @ManagedOperation(description = "Drop all cached filter plans")
+    public void invalidateCache() {
+        specifications.invalidateAll();
+    }
 
-                    attributesPredicates.add(attributePredicate(persistentProperty, attributeName, parameterValues));
-                }
+    private SortedMap<String, String[]> filterParameters(final PersistentEntity persistentEntity, final Map<String, String[]> parameters) {
+        final SortedMap<String, String[]> filterParameters = newTreeMap();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            if (persistentEntity.getPersistentProperty(filterPropertyName(parameter.getKey())) != null) {
+                filterParameters.put(parameter.getKey(), parameter.getValue());
             }
+        }
+        return filterParameters;
+    }
 
-            return builder.and(attributesPredicates.toArray(new Predicate[attributesPredicates.size()]));
+    private List<Object> cacheKey(final PersistentEntity persistentEntity, final SortedMap<String, String[]> filterParameters) {
+        final List<Object> key = newArrayList();
+        key.add(configuration.getVersion());
+        key.add(persistentEntity.getType());
+        for (Map.Entry<String, String[]> parameter : filterParameters.entrySet()) {
+            key.add(parameter.getKey());
+            key.add(asList(parameter.getValue()));
         }
+        return key;
+    }
+
+    private static class FilterSpecification implements Specification<Object> {
 
-        private Predicate attributePredicate(PersistentProperty persistentProperty, final String attributeName, final String... parameterValues) {
-            final String parameterValue = trim(parameterValues[0]);
+        private final List<FilterCondition> conditions;
+
+        private FilterSpecification(final List<FilterCondition> conditions) {
+            this.conditions = ImmutableList.copyOf(conditions);
+        }
 
-            if (isNumericType(persistentProperty)) {
-                return numericAttributePredicate(persistentProperty, attributeName, parameterValue);
+        @Override
+        public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+            final List<Predicate> predicates = newArrayList();
+            for (FilterCondition condition : conditions) {
+                predicates.add(condition.toPredicate(root, query, builder));
             }
+            return builder.and(predicates.toArray(new Predicate[predicates.size()]));
+        }
+    }
+
+    private interface FilterCondition {
+
+        Predicate toPredicate(Root<Object> root, CriteriaQuery<?> query, CriteriaBuilder builder);
+    }
+
+    private static class NullCondition implements FilterCondition {
 
-            if (isBooleanType(persistentProperty)) {
-                return booleanAttributePredicate(attributeName, parameterValues);
+        private final String attributeName;
+        private final boolean collection;
+        private final boolean isNull;
+
+        private NullCondition(final String attributeName, final boolean collection, final boolean isNull) {
+            this.attributeName = attributeName;
+            this.collection = collection;
+            this.isNull = isNull;
+        }
+
+        @Override
+        public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+            if (collection) {
+                final Expression<Collection<Object>> path = root.get(attributeName);
+                return isNull ? builder.isEmpty(path) : builder.isNotEmpty(path);
             }
+            return isNull ? root.get(attributeName).isNull() : root.get(attributeName).isNotNull();
+        }
+    }
 
-            if (isAssociation(persistentProperty)) {
-                return associationAttributesPredicate(persistentProperty, attributeName, parameterValues);
+    private static class LikeCondition implements FilterCondition {
+
+        private final String attributeName;
+        private final List<String> patterns;
+        private final boolean escaped;
+
+        private LikeCondition(final String attributeName, final List<String> patterns, final boolean escaped) {
+            this.attributeName = attributeName;
+            this.patterns = ImmutableList.copyOf(patterns);
+            this.escaped = escaped;
+        }
+
+        @Override
+        public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+            final List<Predicate> predicates = newArrayList();
+            for (String pattern : patterns) {
+                if (escaped) {
+                    predicates.add(builder.like(root.<String>get(attributeName), pattern, LIKE_ESCAPE_CHARACTER));
+                } else {
+                    predicates.add(builder.like(root.<String>get(attributeName), pattern));
+                }
             }
+            return builder.or(predicates.toArray(new Predicate[predicates.size()]));
+        }
+    }
+
+    private static class ComparisonCondition implements FilterCondition {
 
-            if (isDateType(persistentProperty)) {
-                return dateAttributePredicate(attributeName, parameterValue);
+        private final String attributeName;
+        private final FilterOperator operator;
+        private final List<Comparable> values;
+
+        private ComparisonCondition(final String attributeName, final FilterOperator operator, final List<Comparable> values) {
+            this.attributeName = attributeName;
+            this.operator = operator;
+            this.values = ImmutableList.copyOf(values);
+        }
+
+        @Override
+        public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+            final Path<Comparable> path = root.get(attributeName);
+            final Comparable value = values.get(0);
+
+            switch (operator) {
+                case GT:
+                    return builder.greaterThan(path, value);
+                case GTE:
+                    return builder.greaterThanOrEqualTo(path, value);
+                case LT:
+                    return builder.lessThan(path, value);
+                case LTE:
+                    return builder.lessThanOrEqualTo(path, value);
+                default:
+                    return values.size() == 1 ? builder.equal(path, value) : path.in(values);
             }
+        }
+    }
+
+    private static class RangeCondition implements FilterCondition {
 
-            return stringAttributePredicate(attributeName, parameterValue);
+        private final String attributeName;
+        private final Comparable lowerBound;
+        private final Comparable upperBound;
+
+        private RangeCondition(final String attributeName, final Comparable lowerBound, final Comparable upperBound) {
+            this.attributeName = attributeName;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
         }
 
-        private Predicate dateAttributePredicate(final String attributeName, final String parameterValue) {
-            try {
-                final Date date = Date.valueOf(parameterValue);
+        @Override
+        public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+            final Path<Comparable> path = root.get(attributeName);
 
-                return builder.equal(root.<String>get(attributeName), date);
-            } catch (IllegalArgumentException e) {
-                return builder.and();
+            if (lowerBound != null && upperBound != null) {
+                return builder.between(path, lowerBound, upperBound);
+            }
+            if (lowerBound != null) {
+                return builder.greaterThanOrEqualTo(path, lowerBound);
             }
+            return builder.lessThanOrEqualTo(path, upperBound);
+        }
+    }
+
+    private static class AssociationCondition implements FilterCondition {
+
+        private final String attributeName;
+        private final String idAttributeName;
+        private final boolean collection;
+        private final boolean matchAllValues;
+        private final Set<Serializable> ids;
+
+        private AssociationCondition(final String attributeName, final String idAttributeName, final boolean collection, final boolean matchAllValues, final Set<Serializable> ids) {
+            this.attributeName = attributeName;
+            this.idAttributeName = idAttributeName;
+            this.collection = collection;
+            this.matchAllValues = matchAllValues;
+            this.ids = ImmutableSet.copyOf(ids);
         }
 
-        private Predicate stringAttributePredicate(final String attributeName, final String parameterValue) {
-            if (isNotBlank(parameterValue)) {
-                return builder.like(root.<String>get(attributeName), "%" + parameterValue + "%");
+        @Override
+        public Predicate toPredicate(final Root<Object> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+            if (!collection) {
+                if (matchAllValues && ids.size() > 1) {
+                    return builder.disjunction();
+                }
+                return root.get(attributeName).get(idAttributeName).in(ids);
+            }
+
+            if (matchAllValues) {
+                final Subquery<Long> subquery = query.subquery(Long.class);
+                final Join<Object, Object> member = subquery.correlate(root).join(attributeName);
+
+                subquery.select(builder.count(member)).where(member.get(idAttributeName).in(ids));
+
+                return builder.equal(subquery, (long) ids.size());
             }
 
-            return builder.and();
+            final Subquery<Integer> subquery = query.subquery(Integer.class);
+            final Join<Object, Object> member = subquery.correlate(root).join(attributeName);
+
+            subquery.select(builder.literal(1)).where(member.get(idAttributeName).in(ids));
+
+            return builder.exists(subquery);
         }
+    }
 
-        private Predicate associationAttributesPredicate(final PersistentProperty attribute, final String attributeName, final String... parameterValues) {
-            final List<Predicate> attributesPredicates = newLinkedList();
+    private class FilterPlanCompiler {
 
-            for (String parameterValue : parameterValues) {
-                if (isNotBlank(parameterValue)) {
-                    attributesPredicates.add(associationAttributePredicate(attribute, attributeName, parameterValue));
+        private final PersistentEntity persistentEntity;
+        private final PersistentEntityMetadata metadata;
+
+        private FilterPlanCompiler(final PersistentEntityMetadata metadata) {
+            this.persistentEntity = metadata.getPersistentEntity();
+            this.metadata = metadata;
+        }
+
+        public FilterSpecification compile(final Map<String, String[]> parameters) {
+            final List<FilterCondition> conditions = newArrayList();
+
+            for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+                final PersistentProperty persistentProperty = persistentEntity.getPersistentProperty(filterPropertyName(parameter.getKey()));
+
+                final FilterOperator operator = operatorFor(persistentProperty, filterOperator(parameter.getKey()));
+
+                final FilterCondition condition = attributeCondition(persistentProperty, persistentProperty.getName(), operator, parameter.getValue());
+                if (condition != null) {
+                    conditions.add(condition);
                 }
             }
 
-            return builder.and(attributesPredicates.toArray(new Predicate[attributesPredicates.size()]));
+            return new FilterSpecification(conditions);
         }
 
-        private Predicate associationAttributePredicate(final PersistentProperty attribute, final String attributeName, final String parameterValue) {
-            final Class<?> domainType = attribute.getActualType();
+        private FilterCondition attributeCondition(PersistentProperty persistentProperty, final String attributeName, final FilterOperator operator, final String... parameterValues) {
+            if (operator == IS_NULL) {
+                final boolean isNull = parameterValues.length == 0 || isBlank(parameterValues[0]) || BooleanUtils.toBoolean(trim(parameterValues[0]));
+                return new NullCondition(attributeName, persistentProperty.isCollectionLike(), isNull);
+            }
+
+            if (isAssociation(persistentProperty)) {
+                if (operator == IN) {
+                    return associationCondition(persistentProperty, attributeName, splitValues(parameterValues));
+                }
+                if (operator == EQ) {
+                    return associationCondition(persistentProperty, attributeName, parameterValues);
+                }
+                return null;
+            }
+
+            if (operator == BETWEEN) {
+                return rangeCondition(persistentProperty, attributeName, parameterValues);
+            }
+
+            final List<Comparable> values = attributeValues(persistentProperty, operator, parameterValues);
+            if (values.isEmpty()) {
+                return null;
+            }
+
+            if (isStringType(persistentProperty) && (operator == CONTAINS || operator == PREFIX)) {
+                return likeCondition(attributeName, operator, values);
+            }
 
-            final DomainTypeBasicConfiguration domainTypeBasicConfiguration = domainTypeConfigurationFor(domainType);
+            return new ComparisonCondition(attributeName, operator, values);
+        }
 
-            final JpaRepository repository = domainTypeBasicConfiguration.getRepository();
+        private FilterCondition likeCondition(final String attributeName, final FilterOperator operator, final List<Comparable> values) {
+            final List<String> patterns = newArrayList();
+            for (Comparable value : values) {
+                patterns.add(operator == PREFIX ? escapeLikePattern((String) value) + "%" : "%" + value + "%");
+            }
+            return new LikeCondition(attributeName, patterns, operator == PREFIX);
+        }
 
-            final Serializable id = stringToSerializable(parameterValue, (Class<? extends Serializable>) domainTypeBasicConfiguration.getPersistentEntity().getIdProperty().getType());
+        private FilterCondition rangeCondition(final PersistentProperty attribute, final String attributeName, final String... parameterValues) {
+            final String[] bounds = parameterValues.length == 1 ? splitPreserveAllTokens(parameterValues[0], VALUES_SEPARATOR, 2) : parameterValues;
 
-            final Object entity = repository.findOne(id);
+            final Comparable lowerBound = bounds.length > 0 ? attributeValue(attribute, bounds[0]) : null;
+            final Comparable upperBound = bounds.length > 1 ? attributeValue(attribute, bounds[1]) : null;
 
-            if (attribute.isCollectionLike()) {
-                final Expression<Collection> objectPath = root.get(attributeName);
-                return builder.isMember(entity, objectPath);
-            } else {
-                return builder.equal(root.get(attributeName), entity);
+            if (lowerBound == null && upperBound == null) {
+                return null;
             }
+            return new RangeCondition(attributeName, lowerBound, upperBound);
         }
 
-        private Predicate booleanAttributePredicate(final String attributeName, final String... parameterValues) {
-            final List<Predicate> attributesPredicates = newLinkedList();
+        private FilterCondition associationCondition(final PersistentProperty attribute, final String attributeName, final String... parameterValues) {
+            final DomainTypeBasicConfiguration domainTypeBasicConfiguration = metadata.getAssociationConfiguration(attributeName);
+
+            final PersistentProperty idProperty = domainTypeBasicConfiguration.getPersistentEntity().getIdProperty();
+
+            final Set<Serializable> ids = ImmutableSet.copyOf(associationIds(idProperty, parameterValues));
+            if (ids.isEmpty()) {
+                return null;
+            }
+
+            return new AssociationCondition(attributeName, idProperty.getName(), attribute.isCollectionLike(), isMatchAllValues(attributeName), ids);
+        }
 
+        private List<Serializable> associationIds(final PersistentProperty idProperty, final String... parameterValues) {
+            final List<Serializable> ids = newArrayList();
             for (String parameterValue : parameterValues) {
                 if (isNotBlank(parameterValue)) {
-                    final boolean boolValue = BooleanUtils.toBoolean(parameterValue);
+                    ids.add(stringToSerializable(trim(parameterValue), (Class<? extends Serializable>) idProperty.getType()));
+                }
+            }
+            return ids;
+        }
+
+        private List<Comparable> attributeValues(final PersistentProperty attribute, final FilterOperator operator, final String... parameterValues) {
+            final List<Comparable> values = newArrayList();
 
-                    attributesPredicates.add(builder.equal(root.<String>get(attributeName), boolValue));
+            for (String parameterValue : operator == IN ? splitValues(parameterValues) : parameterValues) {
+                final Comparable value = attributeValue(attribute, parameterValue);
+                if (value != null) {
+                    values.add(value);
                 }
             }
 
-            return builder.or(attributesPredicates.toArray(new Predicate[attributesPredicates.size()]));
+            return values;
+        }
+
+        private String[] splitValues(final String... parameterValues) {
+            final List<String> values = newArrayList();
+            for (String parameterValue : parameterValues) {
+                values.addAll(asList(split(parameterValue, VALUES_SEPARATOR)));
+            }
+            return values.toArray(new String[values.size()]);
         }
 
-        private Predicate numericAttributePredicate(final PersistentProperty attribute, final String attributeName, final String parameterValue) {
-            if (isNumber(parameterValue)) {
-                final Number attributeValue = parseNumber(parameterValue, (Class<? extends Number>) attribute.getType());
+        private Comparable attributeValue(final PersistentProperty attribute, final String parameterValue) {
+            final String value = trim(parameterValue);
+
+            if (isBlank(value)) {
+                return null;
+            }
+
+            if (isNumericType(attribute)) {
+                return isNumber(value) ? (Comparable) parseNumber(value, (Class<? extends Number>) ClassUtils.resolvePrimitiveIfNecessary(attribute.getType())) : null;
+            }
+
+            if (isBooleanType(attribute)) {
+                return BooleanUtils.toBoolean(value);
+            }
 
-                return builder.equal(root.<String>get(attributeName), attributeValue);
+            if (isDateType(attribute)) {
+                try {
+                    return Date.valueOf(value);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
             }
 
-            return builder.and();
+            return value;
         }
 
         private boolean isDateType(final PersistentProperty attribute) {
-            return PersistentPropertyType.forPersistentProperty(attribute) == DATE;
+            return metadata.getPropertyType(attribute.getName()) == DATE;
         }
 
         private boolean isAssociation(final PersistentProperty attribute) {
-            return PersistentPropertyType.forPersistentProperty(attribute) == ASSOC || PersistentPropertyType.forPersistentProperty(attribute) == ASSOC_MULTI;
+            return metadata.isAssociation(attribute.getName());
         }
 
         private boolean isBooleanType(final PersistentProperty attribute) {
-            return PersistentPropertyType.forPersistentProperty(attribute) == BOOL;
+            return metadata.getPropertyType(attribute.getName()) == BOOL;
         }
 
         private boolean isNumericType(final PersistentProperty attribute) {
-            return PersistentPropertyType.forPersistentProperty(attribute) == NUMBER_INTEGER || PersistentPropertyType.forPersistentProperty(attribute) == NUMBER_FLOAT;
+            final PersistentPropertyType propertyType = metadata.getPropertyType(attribute.getName());
+            return propertyType == NUMBER_INTEGER || propertyType == NUMBER_FLOAT;
+        }
+
+        private boolean isStringType(final PersistentProperty attribute) {
+            return metadata.getPropertyType(attribute.getName()) == STRING;
+        }
+
+        private FilterOperator operatorFor(final PersistentProperty attribute, final FilterOperator requestedOperator) {
+            final FilterMetadata filter = filterFor(attribute.getName());
+            final FilterOperator declaredOperator = filter == null ? null : filter.getDefaultOperator();
+
+            if (requestedOperator == null) {
+                return declaredOperator != null ? declaredOperator : defaultOperatorFor(attribute);
+            }
+
+            if (requestedOperator == CONTAINS && declaredOperator != null) {
+                return declaredOperator;
+            }
+
+            return requestedOperator;
+        }
+
+        private FilterOperator defaultOperatorFor(final PersistentProperty attribute) {
+            if (isAssociation(attribute)) {
+                return IN;
+            }
+            if (isStringType(attribute)) {
+                return CONTAINS;
+            }
+            return EQ;
+        }
+
+        private boolean isMatchAllValues(final String attributeName) {
+            final FilterMetadata filter = filterFor(attributeName);
+            return filter != null && filter.isMatchAllValues();
         }
 
-        private DomainTypeBasicConfiguration domainTypeConfigurationFor(final Class<?> domainType) {
-            final DomainTypeBasicConfiguration domainTypeBasicConfiguration = configuration.forDomainType(domainType);
-            if (domainTypeBasicConfiguration != null) {
-                return domainTypeBasicConfiguration;
+        private FilterMetadata filterFor(final String attributeName) {
+            final DomainTypeAdministrationConfiguration domainTypeConfiguration = configuration.forManagedDomainType(persistentEntity.getType());
+            if (domainTypeConfiguration == null) {
+                return null;
             }
 
-            return configuration.forManagedDomainType(domainType);
+            for (FilterMetadata filter : domainTypeConfiguration.getFilters()) {
+                if (attributeName.equals(filter.getFieldName())) {
+                    return filter;
+                }
+            }
+            return null;
+        }
+
+        private String escapeLikePattern(final String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
         }
 
         private <V extends Serializable> V stringToSerializable(String s, Class<V> targetType) {
@@ -202,4 +544,4 @@ public class SpecificationCreator {
             return conversionService.convert(s, targetType);
         }
     }
-}
\ No newline at end of file
+}
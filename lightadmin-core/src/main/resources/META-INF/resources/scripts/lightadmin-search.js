@@ -1,7 +1,9 @@
-function ScopesComponent( scopesContainerId, searcher, domainRestScopeBaseUrl ) {
+function ScopesComponent( scopesContainerId, searcher, domainRestScopeBaseUrl, domainRestScopeCountsUrl ) {
 
 	this.domainRestScopeBaseUrl = domainRestScopeBaseUrl;
 
+	this.domainRestScopeCountsUrl = domainRestScopeCountsUrl;
+
 	this.searcher = searcher;
 	this.searcher.addScopesComponent( this );
 
@@ -9,8 +11,8 @@ function ScopesComponent( scopesContainerId, searcher, domainRestScopeBaseUrl )
 
 	var instance = this;
 
-	this.domainRestScopeSearchCountBaseUrl = function ( scopeName, searchCriteria ) {
-		return this.domainRestScopeBaseUrl + '/' + scopeName + '/search/count' + (searchCriteria != null ? '?' + searchCriteria : '');
+	this.domainRestScopeCountsSearchUrl = function ( searchCriteria ) {
+		return this.domainRestScopeCountsUrl + (searchCriteria != null ? '?' + searchCriteria : '');
 	};
 
 	this.onScopeActivated = function ( event ) {
@@ -32,19 +34,21 @@ function ScopesComponent( scopesContainerId, searcher, domainRestScopeBaseUrl )
 	};
 
 	this.refreshScopesTotalRecords = function ( searchCriteria ) {
-		$( "a.scope", this.scopesContainer ).each( function () {
-			var scope = $( this );
-			var scopeName = scope.attr( 'scope-name' );
-
-			$.ajax( {
-						type: 'GET',
-						url: instance.domainRestScopeSearchCountBaseUrl( scopeName, searchCriteria ),
-						dataType: 'json',
-						success: function ( totalRecords ) {
-							scope.html( scopeName + ' (' + totalRecords + ')' );
-						}
-					} );
-		} );
+		$.ajax( {
+					type: 'GET',
+					url: instance.domainRestScopeCountsSearchUrl( searchCriteria ),
+					dataType: 'json',
+					success: function ( scopesTotalRecords ) {
+						$( "a.scope", instance.scopesContainer ).each( function () {
+							var scope = $( this );
+							var scopeName = scope.attr( 'scope-name' );
+
+							if ( scopesTotalRecords[scopeName] != null ) {
+								scope.html( scopeName + ' (' + scopesTotalRecords[scopeName] + ')' );
+							}
+						} );
+					}
+				} );
 	};
 
 	$( "a.scope", this.scopesContainer ).click( this.onScopeActivated );
@@ -55,7 +55,7 @@
     };
 })(jQuery);
 
-function dataTableRESTAdapter(sSource, aoData, fnCallback) {
+function dataTableRESTAdapter(sSource, aoData, fnCallback, oSettings) {
     if (sSource == null || typeof sSource === 'undefined') {
         return;
     }
@@ -83,15 +83,35 @@ function dataTableRESTAdapter(sSource, aoData, fnCallback) {
     restParams.push({"name": "page", "value": pageNum });
     restParams.push({ "name": "sort", "value": sortName + ',' + sortDir });
 
+    // keyset cursor is only valid for the page right after the one it was issued for
+    var pageCursor = dataTableRESTAdapter.pageCursor;
+    if (pageCursor != null && pageCursor.source == sSource && pageCursor.sort == sortName + ',' + sortDir && pageCursor.size == pageSize && pageCursor.page == pageNum) {
+        restParams.push({ "name": "cursor", "value": pageCursor.value });
+    }
+
     jQuery.ajax({
         "dataType": 'json',
         "type": "GET",
         "url": sSource,
         "data": restParams,
-        "success": function (data) {
+        "success": function (data, textStatus, jqXHR) {
+            var nextPageCursor = jqXHR.getResponseHeader('X-Page-Cursor');
+            dataTableRESTAdapter.pageCursor = nextPageCursor == null ? null : {
+                "source": sSource,
+                "sort": sortName + ',' + sortDir,
+                "size": pageSize,
+                "page": pageNum + 1,
+                "value": nextPageCursor
+            };
+
             data.iTotalRecords = data.page.totalElements;
             data.iTotalDisplayRecords = data.page.totalElements;
 
+            // total is only a lower bound when the domain type skips or caps counting
+            if (oSettings != null) {
+                oSettings.bTotalExact = jqXHR.getResponseHeader('X-Total-Elements-Exact') != 'false';
+            }
+
             getSearcher().onSearchCompleted();
 
             fnCallback(data);
@@ -214,6 +234,12 @@ function loadDomainObjectForFormView(form) {
         if (objectId == null) {
             objectId = '';
         }
+        if (objectId !== '' && editor.find('option').filter(function () { return this.value == objectId; }).length <= 0) {
+            editor.append($('<option>', {
+                value: objectId,
+                text: data['stringRepresentation'] || objectId
+            }));
+        }
         editor.find('option').each(function (index, option) {
             if (option.value == objectId) {
                 option.selected = true;
@@ -236,12 +262,19 @@ function loadDomainObjectForFormView(form) {
                 if (editor.length > 0) {
                     var attrVal = content[attr].value;
 
-                    if (attrVal == null) {
+                    var attrMetadata = persistentEntity[attr];
+                    var attrType = attrMetadata ? attrMetadata.type : 'UNKNOWN';
+
+                    if (attrType == 'FILE') {
+                        if (content[attr].fileExists) {
+                            selectFileFieldValue(form, attr, content[attr], restRepoUrl);
+                        }
                         continue;
                     }
 
-                    var attrMetadata = persistentEntity[attr];
-                    var attrType = attrMetadata ? attrMetadata.type : 'UNKNOWN';
+                    if (attrVal == null) {
+                        continue;
+                    }
 
                     switch (attrType) {
                         case 'ASSOC':
@@ -253,13 +286,6 @@ function loadDomainObjectForFormView(form) {
                         case 'BOOL':
                             editor.prop('checked', attrVal);
                             break;
-                        case 'FILE':
-                            var fileSelected = attrVal.length > 0;
-                            if (fileSelected) {
-                                selectFileFieldValue(form, attr, content[attr], restRepoUrl);
-                            }
-                            editor.val(attrVal.toString());
-                            break;
                         case 'STRING':
                             if (editor.hasClass('wysiwyg')) {
                                 editor.wysiwyg("insertHtml", attrVal);
@@ -468,6 +494,10 @@ function showMessageNote(message, messageTypeClass, beforeElement) {
 function formViewVisualDecoration(container) {
     $(".chzn-select", $(container)).chosen({allow_single_deselect: true});
 
+    $(".chzn-select[data-lookup-url]", $(container)).each(function () {
+        associationLookup($(this));
+    });
+
     $("select, input:checkbox, input:radio, input:file", $(container)).uniform();
 
     $(".input-date", $(container)).datepicker({
@@ -686,7 +716,7 @@ function decorateFileUploader(container, file_input_id, attribute_name, browse_b
 
                 var result = $.parseJSON(response.response);
 
-                $(file_input_id).val(result['content']['fileContent']);
+                $(file_input_id).val(result['content']['fileToken']);
             }
         }
     });
@@ -695,3 +725,60 @@ function decorateFileUploader(container, file_input_id, attribute_name, browse_b
 
     $(container_selector).data('plupload', uploader);
 }
+
+function associationLookup(select) {
+    var lookupUrl = select.data('lookup-url');
+    var chosenContainer = select.next('.chzn-container');
+    var lastQuery = null;
+    var lookupTimer = null;
+
+    function loadOptions(query) {
+        if (query == lastQuery) {
+            return;
+        }
+        lastQuery = query;
+
+        $.ajax({
+            type: 'GET',
+            url: lookupUrl,
+            data: { q: query },
+            dataType: 'json',
+            success: function (data) {
+                if (query != lastQuery) {
+                    return;
+                }
+
+                select.find('option').filter(function () {
+                    return this.value != '' && !this.selected;
+                }).remove();
+
+                $.each(data['options'], function () {
+                    var id = this['id'];
+                    if (select.find('option').filter(function () { return this.value == id; }).length <= 0) {
+                        select.append($('<option>', { value: id, text: this['name'] }));
+                    }
+                });
+
+                var searchInput = $('.chzn-search input, .search-field input', chosenContainer);
+                var searchText = searchInput.val();
+
+                select.trigger('liszt:updated');
+
+                searchInput.val(searchText);
+                if (searchText) {
+                    searchInput.trigger('keyup');
+                }
+            }
+        });
+    }
+
+    chosenContainer.on('keyup', '.chzn-search input, .search-field input', function () {
+        var query = $.trim($(this).val());
+        clearTimeout(lookupTimer);
+        lookupTimer = setTimeout(function () {
+            loadOptions(query);
+        }, 300);
+    });
+
+    loadOptions('');
+}
@@ -0,0 +1,69 @@
+package org.lightadmin.core.config.domain;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.model.Order;
+import org.springframework.data.mapping.PersistentEntity;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import static org.lightadmin.core.test.util.JpaAnnotationMappingContext.persistentEntity;
+
+public class GlobalAdministrationConfigurationTest {
+
+    private GlobalAdministrationConfiguration testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new GlobalAdministrationConfiguration();
+    }
+
+    @Test
+    public void persistentEntityMetadataBuiltOnce() throws Exception {
+        testee.registerNonDomainTypeConfiguration(configuration(Order.class));
+
+        final PersistentEntityMetadata metadata = testee.forPersistentEntity(Order.class);
+
+        assertNotNull(metadata);
+        assertSame(metadata, testee.forPersistentEntity(Order.class));
+        assertNull(testee.forPersistentEntity(Customer.class));
+    }
+
+    @Test
+    public void persistentEntityMetadataRebuiltOnRegistration() throws Exception {
+        testee.registerNonDomainTypeConfiguration(configuration(Order.class));
+        final PersistentEntityMetadata metadata = testee.forPersistentEntity(Order.class);
+        assertNull(metadata.getAssociationConfiguration("customer"));
+
+        final DomainTypeBasicConfiguration customerConfiguration = configuration(Customer.class);
+        testee.registerNonDomainTypeConfiguration(customerConfiguration);
+
+        final PersistentEntityMetadata rebuiltMetadata = testee.forPersistentEntity(Order.class);
+        assertNotSame(metadata, rebuiltMetadata);
+        assertSame(customerConfiguration, rebuiltMetadata.getAssociationConfiguration("customer"));
+    }
+
+    @Test
+    public void versionChangedOnRegistrationAndRemoval() throws Exception {
+        final long initialVersion = testee.getVersion();
+
+        testee.registerNonDomainTypeConfiguration(configuration(Order.class));
+        final long registeredVersion = testee.getVersion();
+        testee.removeDomainTypeConfiguration(Order.class);
+
+        assertTrue(registeredVersion > initialVersion);
+        assertTrue(testee.getVersion() > registeredVersion);
+    }
+
+    private DomainTypeBasicConfiguration configuration(Class<?> domainType) {
+        final PersistentEntity persistentEntity = persistentEntity(domainType);
+
+        final DomainTypeBasicConfiguration configuration = createNiceMock(DomainTypeBasicConfiguration.class);
+        expect(configuration.getDomainType()).andReturn((Class) domainType).anyTimes();
+        expect(configuration.getPersistentEntity()).andReturn(persistentEntity).anyTimes();
+        replay(configuration);
+        return configuration;
+    }
+}
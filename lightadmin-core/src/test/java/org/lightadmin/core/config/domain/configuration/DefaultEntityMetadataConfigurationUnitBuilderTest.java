@@ -6,8 +6,10 @@ import org.lightadmin.api.config.unit.EntityMetadataConfigurationUnit;
 import org.lightadmin.api.config.utils.EntityNameExtractor;
 import org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType;
 
+import static com.google.common.collect.Sets.newHashSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 @SuppressWarnings("unchecked")
 public class DefaultEntityMetadataConfigurationUnitBuilderTest {
@@ -28,6 +30,7 @@ public class DefaultEntityMetadataConfigurationUnitBuilderTest {
 
         assertNotNull(configurationUnit.getNameExtractor());
         assertEquals("Domain Type Object Name", configurationUnit.getNameExtractor().apply(new DomainType()));
+        assertEquals("name", configurationUnit.getNameField());
     }
 
     @Test
@@ -40,6 +43,16 @@ public class DefaultEntityMetadataConfigurationUnitBuilderTest {
 
         assertNotNull(configurationUnit.getNameExtractor());
         assertEquals(expectedEntityNameExtractor, configurationUnit.getNameExtractor());
+        assertNull(configurationUnit.getNameField());
+    }
+
+    @Test
+    public void configurationWithEagerAssociationsCreated() throws Exception {
+        final EntityMetadataConfigurationUnit configurationUnit = configurationBuilder()
+                .eagerAssociations("category", "tags")
+                .build();
+
+        assertEquals(newHashSet("category", "tags"), configurationUnit.getEagerAssociations());
     }
 
     private DefaultEntityMetadataConfigurationUnitBuilder configurationBuilder() {
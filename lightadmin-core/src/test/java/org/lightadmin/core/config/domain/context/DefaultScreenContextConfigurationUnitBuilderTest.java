@@ -2,9 +2,12 @@ package org.lightadmin.core.config.domain.context;
 
 import org.junit.Test;
 import org.lightadmin.api.config.unit.ScreenContextConfigurationUnit;
+import org.lightadmin.api.config.utils.PagingStrategy;
 import org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class DefaultScreenContextConfigurationUnitBuilderTest {
 
@@ -34,11 +37,41 @@ public class DefaultScreenContextConfigurationUnitBuilderTest {
         assertEquals("Test Screen Name", configurationUnit.getScreenName());
     }
 
+    @Test
+    public void offsetPaginationUsedByDefault() throws Exception {
+        ScreenContextConfigurationUnit configurationUnit = screenContextBuilder().build();
+
+        assertFalse(configurationUnit.isKeysetPagination());
+    }
+
+    @Test
+    public void exactCountPagingUsedByDefault() throws Exception {
+        ScreenContextConfigurationUnit configurationUnit = screenContextBuilder().build();
+
+        assertEquals(PagingStrategy.CountMode.EXACT, configurationUnit.getPagingStrategy().getCountMode());
+    }
+
+    @Test
+    public void entityListViewUsedByDefault() throws Exception {
+        ScreenContextConfigurationUnit configurationUnit = screenContextBuilder().build();
+
+        assertFalse(configurationUnit.isListViewProjection());
+    }
+
     @Test
     public void configurationFullPacked() throws Exception {
-        ScreenContextConfigurationUnit configurationUnit = screenContextBuilder().screenName("Test Screen Name").build();
+        ScreenContextConfigurationUnit configurationUnit = screenContextBuilder()
+                .screenName("Test Screen Name")
+                .keysetPagination(true)
+                .pagingStrategy(PagingStrategy.cappedCount(1000))
+                .listViewProjection(true)
+                .build();
 
         assertEquals("Test Screen Name", configurationUnit.getScreenName());
+        assertTrue(configurationUnit.isKeysetPagination());
+        assertEquals(PagingStrategy.CountMode.CAPPED, configurationUnit.getPagingStrategy().getCountMode());
+        assertEquals(1000, configurationUnit.getPagingStrategy().getCountLimit());
+        assertTrue(configurationUnit.isListViewProjection());
     }
 
     private static class DomainType {
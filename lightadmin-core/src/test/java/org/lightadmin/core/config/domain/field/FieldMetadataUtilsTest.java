@@ -0,0 +1,45 @@
+package org.lightadmin.core.config.domain.field;
+
+import org.junit.Test;
+import org.lightadmin.api.config.unit.FieldSetConfigurationUnit;
+import org.lightadmin.api.config.utils.FieldValueRenderer;
+import org.lightadmin.core.config.domain.common.GenericFieldSetConfigurationUnitBuilder;
+import org.springframework.data.mapping.PersistentProperty;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.lightadmin.core.config.domain.field.FieldMetadataUtils.fetchPaths;
+import static org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType.LIST_VIEW;
+
+@SuppressWarnings("unchecked")
+public class FieldMetadataUtilsTest {
+
+    @Test
+    public void associationFieldsAndDeclaredPathsFetched() throws Exception {
+        final FieldSetConfigurationUnit fieldSet = new GenericFieldSetConfigurationUnitBuilder(Object.class, LIST_VIEW)
+                .field("customer")
+                .field("lineItems")
+                .field("name")
+                .renderable(createNiceMock(FieldValueRenderer.class)).fetch("shipment.carrier")
+                .build();
+
+        for (FieldMetadata field : fieldSet) {
+            if (field instanceof PersistentFieldMetadata) {
+                final String fieldName = ((PersistentFieldMetadata) field).getField();
+                ((PersistentFieldMetadata) field).setPersistentProperty(persistentProperty(fieldName.equals("customer") || fieldName.equals("lineItems"), fieldName.equals("lineItems")));
+            }
+        }
+
+        assertEquals(newHashSet("customer", "lineItems", "shipment.carrier"), fetchPaths(fieldSet));
+    }
+
+    private PersistentProperty persistentProperty(boolean association, boolean collection) {
+        final PersistentProperty persistentProperty = createNiceMock(PersistentProperty.class);
+        expect(persistentProperty.getType()).andReturn(association ? Object.class : String.class).anyTimes();
+        expect(persistentProperty.isAssociation()).andReturn(association).anyTimes();
+        expect(persistentProperty.isCollectionLike()).andReturn(collection).anyTimes();
+        replay(persistentProperty);
+        return persistentProperty;
+    }
+}
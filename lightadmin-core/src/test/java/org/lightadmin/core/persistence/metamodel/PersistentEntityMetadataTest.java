@@ -0,0 +1,115 @@
+package org.lightadmin.core.persistence.metamodel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.api.config.annotation.FileReference;
+import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.model.Order;
+import org.lightadmin.core.test.model.Product;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.Id;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import static org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata.persistentEntityMetadata;
+import static org.lightadmin.core.persistence.metamodel.PersistentPropertyType.*;
+import static org.lightadmin.core.test.util.JpaAnnotationMappingContext.persistentEntity;
+
+public class PersistentEntityMetadataTest {
+
+    private GlobalAdministrationConfiguration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new GlobalAdministrationConfiguration();
+    }
+
+    @Test
+    public void propertyTypesClassified() throws Exception {
+        final PersistentEntityMetadata metadata = persistentEntityMetadata(persistentEntity(Order.class), configuration);
+
+        assertEquals(NUMBER_INTEGER, metadata.getPropertyType("id"));
+        assertEquals(ASSOC, metadata.getPropertyType("customer"));
+        assertEquals(ASSOC_MULTI, metadata.getPropertyType("lineItems"));
+        assertEquals(UNKNOWN, metadata.getPropertyType("missing"));
+
+        assertTrue(metadata.isAssociation("customer"));
+        assertTrue(metadata.isAssociation("lineItems"));
+        assertFalse(metadata.isAssociation("id"));
+    }
+
+    @Test
+    public void simplePropertyTypesClassified() throws Exception {
+        final PersistentEntityMetadata metadata = persistentEntityMetadata(persistentEntity(Product.class), configuration);
+
+        assertEquals(STRING, metadata.getPropertyType("name"));
+        assertEquals(MAP, metadata.getPropertyType("attributes"));
+    }
+
+    @Test
+    public void fileAndBinaryPropertiesListed() throws Exception {
+        final PersistentEntityMetadata metadata = persistentEntityMetadata(persistentEntity(Document.class), configuration);
+
+        assertEquals(FILE, metadata.getPropertyType("content"));
+        assertEquals(FILE, metadata.getPropertyType("attachment"));
+        assertEquals(STRING, metadata.getPropertyType("title"));
+
+        assertEquals(2, metadata.getFileProperties().size());
+        assertEquals(Collections.singletonList("attachment"), propertyNames(metadata.getFileReferenceProperties()));
+        assertEquals(Collections.singletonList("content"), propertyNames(metadata.getBinaryFileProperties()));
+    }
+
+    @Test
+    public void associationConfigurationsOfManagedTargetsKept() throws Exception {
+        final DomainTypeBasicConfiguration customerConfiguration = createNiceMock(DomainTypeBasicConfiguration.class);
+        expect(customerConfiguration.getDomainType()).andReturn((Class) Customer.class).anyTimes();
+        replay(customerConfiguration);
+        configuration.registerNonDomainTypeConfiguration(customerConfiguration);
+
+        final PersistentEntityMetadata metadata = persistentEntityMetadata(persistentEntity(Order.class), configuration);
+
+        assertSame(customerConfiguration, metadata.getAssociationConfiguration("customer"));
+        assertNull(metadata.getAssociationConfiguration("lineItems"));
+        assertNull(metadata.getAssociationConfiguration("id"));
+    }
+
+    @Test
+    public void idValueReadFromEntity() throws Exception {
+        final PersistentEntityMetadata metadata = persistentEntityMetadata(persistentEntity(Customer.class), configuration);
+
+        final Customer customer = new Customer("John", "Doe");
+        ReflectionTestUtils.setField(customer, "id", 42L);
+
+        assertEquals("id", metadata.getIdProperty().getName());
+        assertEquals(42L, metadata.getIdValue(customer));
+        assertNull(metadata.getIdValue(new Customer()));
+    }
+
+    private static List<String> propertyNames(List<PersistentProperty> properties) {
+        final List<String> names = newArrayList();
+        for (PersistentProperty property : properties) {
+            names.add(property.getName());
+        }
+        return names;
+    }
+
+    private static class Document {
+
+        @Id
+        private Long id;
+
+        private String title;
+
+        private byte[] content;
+
+        @FileReference
+        private String attachment;
+    }
+}
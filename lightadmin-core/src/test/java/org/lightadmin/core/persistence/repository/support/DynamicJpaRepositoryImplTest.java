@@ -0,0 +1,121 @@
+package org.lightadmin.core.persistence.repository.support;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.test.model.Address;
+import org.lightadmin.core.test.model.Customer;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.PluralAttribute;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+@SuppressWarnings("unchecked")
+public class DynamicJpaRepositoryImplTest {
+
+    private JpaEntityInformation<Customer, ?> entityInformation;
+    private EntityManager entityManager;
+    private TypedQuery<Customer> fetchQuery;
+
+    @Before
+    public void setUp() throws Exception {
+        entityInformation = createNiceMock(JpaEntityInformation.class);
+        entityManager = createNiceMock(EntityManager.class);
+        fetchQuery = createNiceMock(TypedQuery.class);
+
+        final SingularAttribute idAttribute = createNiceMock(SingularAttribute.class);
+        expect(idAttribute.getName()).andReturn("id").anyTimes();
+
+        final PluralAttribute addressesAttribute = createNiceMock(PluralAttribute.class);
+        expect(addressesAttribute.getName()).andReturn("addresses").anyTimes();
+        expect(addressesAttribute.isCollection()).andReturn(true).anyTimes();
+        expect(addressesAttribute.getJavaMember()).andReturn(ReflectionUtils.findField(Customer.class, "addresses")).anyTimes();
+
+        final EntityType entityType = createNiceMock(EntityType.class);
+        expect(entityType.getAttributes()).andReturn(Collections.singleton(addressesAttribute)).anyTimes();
+
+        final Metamodel metamodel = createNiceMock(Metamodel.class);
+        expect(metamodel.entity(Customer.class)).andReturn(entityType).anyTimes();
+
+        final Predicate idPredicate = createNiceMock(Predicate.class);
+        final Path idPath = createNiceMock(Path.class);
+        expect(idPath.in(anyObject(Collection.class))).andReturn(idPredicate).anyTimes();
+
+        final Root root = createNiceMock(Root.class);
+        expect(root.get("id")).andReturn(idPath).anyTimes();
+
+        final CriteriaQuery criteriaQuery = createNiceMock(CriteriaQuery.class);
+        expect(criteriaQuery.from(Customer.class)).andReturn(root).anyTimes();
+        expect(criteriaQuery.select(root)).andReturn(criteriaQuery).anyTimes();
+        expect(criteriaQuery.distinct(true)).andReturn(criteriaQuery).anyTimes();
+        expect(criteriaQuery.where(idPredicate)).andReturn(criteriaQuery).anyTimes();
+
+        final CriteriaBuilder criteriaBuilder = createNiceMock(CriteriaBuilder.class);
+        expect(criteriaBuilder.createQuery(Customer.class)).andReturn(criteriaQuery).anyTimes();
+
+        expect(entityInformation.getJavaType()).andReturn(Customer.class).anyTimes();
+        expect(entityInformation.getIdAttribute()).andReturn(idAttribute).anyTimes();
+
+        expect(entityManager.getDelegate()).andReturn(new Object()).anyTimes();
+        expect(entityManager.getMetamodel()).andReturn(metamodel).anyTimes();
+        expect(entityManager.getCriteriaBuilder()).andReturn(criteriaBuilder).anyTimes();
+        expect(entityManager.createQuery(criteriaQuery)).andReturn(fetchQuery).anyTimes();
+
+        replay(idAttribute, addressesAttribute, entityType, metamodel, idPredicate, idPath, root, criteriaQuery, criteriaBuilder);
+    }
+
+    @Test
+    public void fetchedCollectionsSetOntoDetachedEntities() throws Exception {
+        final Customer first = customer(1L);
+        final Customer second = customer(2L);
+
+        final Customer fetchedFirst = customer(1L, new Address("Main St", "Kyiv", "Ukraine"));
+        final Customer fetchedSecond = customer(2L, new Address("High St", "London", "UK"), new Address("Elm St", "Paris", "France"));
+
+        expect(fetchQuery.getResultList()).andReturn(Arrays.asList(fetchedSecond, fetchedFirst)).once();
+        replay(entityInformation, entityManager, fetchQuery);
+
+        repository().fetchCollections(Arrays.asList(first, second), Arrays.asList("addresses", "firstname"));
+
+        assertEquals(fetchedFirst.getAddresses(), first.getAddresses());
+        assertEquals(fetchedSecond.getAddresses(), second.getAddresses());
+        assertEquals(2, second.getAddresses().size());
+        verify(fetchQuery);
+    }
+
+    @Test
+    public void nonCollectionAssociationsNotFetched() throws Exception {
+        final Customer customer = customer(1L, new Address("Main St", "Kyiv", "Ukraine"));
+
+        replay(entityInformation, entityManager, fetchQuery);
+
+        repository().fetchCollections(Collections.singletonList(customer), Collections.singletonList("emailAddress"));
+
+        assertEquals(1, customer.getAddresses().size());
+        verify(fetchQuery);
+    }
+
+    private DynamicJpaRepositoryImpl<Customer, Long> repository() {
+        return new DynamicJpaRepositoryImpl<>((JpaEntityInformation<Customer, Long>) entityInformation, entityManager);
+    }
+
+    private Customer customer(Long id, Address... addresses) {
+        final Customer customer = new Customer();
+        for (Address address : addresses) {
+            customer.add(address);
+        }
+        expect(((JpaEntityInformation) entityInformation).getId(customer)).andReturn(id).anyTimes();
+        return customer;
+    }
+}
@@ -0,0 +1,50 @@
+package org.lightadmin.core.persistence.repository.support;
+
+import org.junit.Test;
+import org.lightadmin.core.persistence.repository.InvalidKeysetCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class KeysetCursorCodecTest {
+
+    private static final Sort SORT = new Sort(Sort.Direction.DESC, "createdAt").and(new Sort("name")).and(new Sort("id"));
+
+    private static final List<Class<?>> TYPES = Arrays.<Class<?>>asList(Date.class, String.class, Long.class);
+
+    private final KeysetCursorCodec codec = new KeysetCursorCodec();
+
+    @Test
+    public void cursorValuesRestoredWithAttributeTypes() throws Exception {
+        final Timestamp createdAt = new Timestamp(1400000000000L);
+        createdAt.setNanos(123456789);
+
+        final String cursor = codec.encode(SORT, Arrays.asList(createdAt, "John.Doe", 42L));
+
+        assertEquals(Arrays.<Object>asList(createdAt, "John.Doe", 42L), codec.decode(cursor, SORT, TYPES));
+    }
+
+    @Test(expected = InvalidKeysetCursorException.class)
+    public void cursorRejectedForAnotherOrdering() throws Exception {
+        final String cursor = codec.encode(SORT, Arrays.asList(new Date(), "John", 42L));
+
+        codec.decode(cursor, new Sort("name").and(new Sort("createdAt")).and(new Sort("id")), TYPES);
+    }
+
+    @Test(expected = InvalidKeysetCursorException.class)
+    public void malformedCursorRejected() throws Exception {
+        codec.decode("not-a-cursor", SORT, TYPES);
+    }
+
+    @Test(expected = InvalidKeysetCursorException.class)
+    public void tamperedCursorValuesRejected() throws Exception {
+        final String cursor = codec.encode(SORT, Arrays.asList(new Date(), "John", 42L));
+
+        codec.decode(cursor.substring(0, cursor.lastIndexOf('.')) + ".!!", SORT, TYPES);
+    }
+}
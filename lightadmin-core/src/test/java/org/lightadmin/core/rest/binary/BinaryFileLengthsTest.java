@@ -0,0 +1,120 @@
+package org.lightadmin.core.rest.binary;
+
+import org.easymock.IAnswer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.mapping.SimplePropertyHandler;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata.persistentEntityMetadata;
+
+@SuppressWarnings("unchecked")
+public class BinaryFileLengthsTest {
+
+    private PersistentProperty pictureProperty;
+    private PersistentEntityMetadata metadata;
+
+    @Before
+    public void setUp() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        pictureProperty = createNiceMock(PersistentProperty.class);
+        expect(pictureProperty.getName()).andReturn("picture").anyTimes();
+        expect(pictureProperty.getType()).andReturn(byte[].class).anyTimes();
+        replay(pictureProperty);
+
+        metadata = metadata(pictureProperty);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void prefetchedPageAnsweredWithoutFurtherQueries() throws Exception {
+        final DomainType first = new DomainType(1L);
+        final DomainType second = new DomainType(2L);
+
+        final DynamicJpaRepository<Object, ?> repository = createMock(DynamicJpaRepository.class);
+        expect(repository.binaryLengths(Arrays.<Object>asList(1L, 2L), "picture")).andReturn(lengths(1L, 10L)).once();
+        replay(repository);
+
+        BinaryFileLengths.prefetch(repository, metadata, Arrays.asList(first, second));
+
+        assertEquals(10L, BinaryFileLengths.length(repository, first, 1L, pictureProperty));
+        assertEquals(0L, BinaryFileLengths.length(repository, second, 2L, pictureProperty));
+        verify(repository);
+    }
+
+    @Test
+    public void lengthQueriedAgainAfterClear() throws Exception {
+        final DomainType entity = new DomainType(1L);
+
+        final DynamicJpaRepository<Object, ?> repository = createMock(DynamicJpaRepository.class);
+        expect(repository.binaryLengths(Collections.<Object>singletonList(1L), "picture")).andReturn(lengths(1L, 10L)).once();
+        expect(repository.binaryLengths(Collections.<Object>singletonList(1L), "picture")).andReturn(lengths(1L, 20L)).once();
+        replay(repository);
+
+        assertEquals(10L, BinaryFileLengths.length(repository, entity, 1L, pictureProperty));
+        assertEquals(10L, BinaryFileLengths.length(repository, entity, 1L, pictureProperty));
+
+        BinaryFileLengths.clear(DomainType.class);
+
+        assertEquals(20L, BinaryFileLengths.length(repository, entity, 1L, pictureProperty));
+        verify(repository);
+    }
+
+    private Map<Object, Long> lengths(Object id, long length) {
+        final Map<Object, Long> lengths = newHashMap();
+        lengths.put(id, length);
+        return lengths;
+    }
+
+    private PersistentEntityMetadata metadata(final PersistentProperty fileProperty) throws Exception {
+        final PersistentProperty idProperty = createNiceMock(PersistentProperty.class);
+        expect(idProperty.getName()).andReturn("id").anyTimes();
+        expect(idProperty.getType()).andReturn(Long.class).anyTimes();
+        expect(idProperty.getField()).andReturn(DomainType.class.getDeclaredField("id")).anyTimes();
+        replay(idProperty);
+
+        final PersistentEntity persistentEntity = createNiceMock(PersistentEntity.class);
+        expect(persistentEntity.getType()).andReturn(DomainType.class).anyTimes();
+        expect(persistentEntity.getIdProperty()).andReturn(idProperty).anyTimes();
+        persistentEntity.doWithProperties(anyObject(SimplePropertyHandler.class));
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                ((SimplePropertyHandler) getCurrentArguments()[0]).doWithPersistentProperty(fileProperty);
+                return null;
+            }
+        }).anyTimes();
+        replay(persistentEntity);
+
+        return persistentEntityMetadata(persistentEntity, new GlobalAdministrationConfiguration());
+    }
+
+    public static class DomainType {
+
+        private final Long id;
+
+        DomainType(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.lightadmin.core.rest.binary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.apache.commons.io.FileUtils.readFileToByteArray;
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.junit.Assert.*;
+
+public class ContentAddressedFileStorageTest {
+
+    private static final byte[] LOGO = "logo".getBytes();
+
+    private static final byte[] AVATAR = "avatar".getBytes();
+
+    @Rule
+    public TemporaryFolder rootDirectory = new TemporaryFolder();
+
+    private ContentAddressedFileStorage testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new ContentAddressedFileStorage(rootDirectory.getRoot());
+    }
+
+    @Test
+    public void identicalContentStoredOnce() throws Exception {
+        final String first = testee.store(null, "/domain/Company/1/logo/file.bin", content(LOGO));
+        final String second = testee.store(null, "/domain/Company/2/logo/file.bin", content(LOGO));
+
+        assertEquals(first, second);
+        assertTrue(first.matches("/content/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}"));
+        assertEquals(2, testee.referenceCount(first));
+        assertArrayEquals(LOGO, readFileToByteArray(testee.file(first)));
+    }
+
+    @Test
+    public void unchangedContentSaveIsNoOp() throws Exception {
+        final String reference = testee.store(null, "/domain/Company/1/logo/file.bin", content(LOGO));
+        final long lastModified = testee.file(reference).lastModified();
+
+        assertEquals(reference, testee.store(reference, "/domain/Company/1/logo/file.bin", content(LOGO)));
+        assertEquals(1, testee.referenceCount(reference));
+        assertEquals(lastModified, testee.file(reference).lastModified());
+    }
+
+    @Test
+    public void contentRemovedWithLastReference() throws Exception {
+        final String reference = testee.store(null, "/domain/Company/1/logo/file.bin", content(LOGO));
+        testee.store(null, "/domain/Company/2/logo/file.bin", content(LOGO));
+
+        testee.release(reference);
+        assertTrue(testee.file(reference).exists());
+
+        testee.release(reference);
+        assertFalse(testee.file(reference).exists());
+    }
+
+    @Test
+    public void replacedContentReleased() throws Exception {
+        final String logo = testee.store(null, "/domain/Company/1/logo/file.bin", content(LOGO));
+
+        final String avatar = testee.store(logo, "/domain/Company/1/logo/file.bin", content(AVATAR));
+
+        assertNotEquals(logo, avatar);
+        assertFalse(testee.file(logo).exists());
+        assertArrayEquals(AVATAR, readFileToByteArray(testee.file(avatar)));
+    }
+
+    @Test
+    public void entityLayoutFileDeletedOnRelease() throws Exception {
+        final File legacyFile = new File(rootDirectory.getRoot(), "domain/Company/1/logo/file.bin");
+        writeByteArrayToFile(legacyFile, LOGO);
+
+        testee.release("/domain/Company/1/logo/file.bin");
+
+        assertFalse(legacyFile.exists());
+    }
+
+    @Test
+    public void referenceOutsideRootNotReleased() throws Exception {
+        final File outside = rootDirectory.newFile("outside.bin");
+        testee = new ContentAddressedFileStorage(rootDirectory.newFolder("storage"));
+
+        try {
+            testee.release("/domain/../../outside.bin");
+            fail("Reference outside of the root directory released");
+        } catch (IllegalArgumentException e) {
+            assertTrue(outside.isFile());
+        }
+    }
+
+    private File content(byte[] content) throws IOException {
+        final File file = rootDirectory.newFile();
+        writeByteArrayToFile(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,63 @@
+package org.lightadmin.core.rest.binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+public class DirtyFileReferencesTest {
+
+    private static final String UPLOAD_TOKEN = "upload:0b8e2a5c-3f4d-4a1e-9c7b-5d6e7f8a9b0c";
+
+    private PersistentProperty persistentProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        persistentProperty = createMock(PersistentProperty.class);
+        expect(persistentProperty.getName()).andReturn("picture").anyTimes();
+        replay(persistentProperty);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void firstPreviousReferenceKept() throws Exception {
+        final Object entity = new Object();
+
+        DirtyFileReferences.markDirty(entity, persistentProperty, "/content/ab/cd/abcd");
+        DirtyFileReferences.markDirty(entity, persistentProperty, UPLOAD_TOKEN);
+
+        assertTrue(DirtyFileReferences.isDirty(entity, persistentProperty));
+        assertEquals("/content/ab/cd/abcd", DirtyFileReferences.previousReference(entity, persistentProperty));
+    }
+
+    @Test
+    public void uploadTokenIsNoPreviousReference() throws Exception {
+        final Object entity = new Object();
+
+        DirtyFileReferences.markDirty(entity, persistentProperty, UPLOAD_TOKEN);
+
+        assertNull(DirtyFileReferences.previousReference(entity, persistentProperty));
+    }
+
+    @Test
+    public void untouchedEntityNotDirty() throws Exception {
+        final Object entity = new Object();
+        DirtyFileReferences.markDirty(entity, persistentProperty, null);
+        DirtyFileReferences.clear(entity);
+
+        assertFalse(DirtyFileReferences.isDirty(entity, persistentProperty));
+        assertFalse(DirtyFileReferences.isDirty(new Object(), persistentProperty));
+    }
+}
@@ -0,0 +1,61 @@
+package org.lightadmin.core.rest.binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.junit.Assert.*;
+
+public class FileMetadataCacheTest {
+
+    @Rule
+    public TemporaryFolder storageDirectory = new TemporaryFolder();
+
+    private FileMetadataCache testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new FileMetadataCache(FileMetadataCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testee.destroy();
+    }
+
+    @Test
+    public void missingFileDescribedAsNull() throws Exception {
+        assertNull(testee.describe(new File(storageDirectory.getRoot(), "missing.bin")));
+    }
+
+    @Test
+    public void fileDescribedFromMemoryOnceCached() throws Exception {
+        final File file = storageDirectory.newFile("file.bin");
+        writeByteArrayToFile(file, "content".getBytes());
+
+        final FileDescriptor fileDescriptor = testee.describe(file);
+
+        assertEquals(7, fileDescriptor.getSize());
+        assertSame(fileDescriptor, testee.describe(file));
+    }
+
+    @Test
+    public void changedFileDescribedAgainAfterWatchEvent() throws Exception {
+        final File file = storageDirectory.newFile("file.bin");
+        writeByteArrayToFile(file, "content".getBytes());
+        testee.describe(file);
+
+        writeByteArrayToFile(file, "changed content".getBytes());
+
+        final long deadline = System.currentTimeMillis() + 30000;
+        while (testee.describe(file).getSize() != 15 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(15, testee.describe(file).getSize());
+    }
+}
@@ -0,0 +1,70 @@
+package org.lightadmin.core.rest.binary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.lightadmin.core.config.LightAdminConfiguration;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.apache.commons.io.FileUtils.getFile;
+import static org.apache.commons.io.FileUtils.readFileToByteArray;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+public class FileUploadStorageTest {
+
+    private static final byte[] CONTENT = "uploaded content".getBytes();
+
+    @Rule
+    public TemporaryFolder storageDirectory = new TemporaryFolder();
+
+    private FileUploadStorage testee;
+
+    @Before
+    public void setUp() throws Exception {
+        LightAdminConfiguration lightAdminConfiguration = createMock(LightAdminConfiguration.class);
+        expect(lightAdminConfiguration.getFileStorageDirectory()).andReturn(storageDirectory.getRoot()).anyTimes();
+        replay(lightAdminConfiguration);
+
+        testee = new FileUploadStorage(lightAdminConfiguration);
+    }
+
+    @Test
+    public void uploadStoredUnderToken() throws Exception {
+        final String uploadToken = testee.store(new MockMultipartFile("file", "picture.png", "image/png", CONTENT));
+
+        assertTrue(FileUploadStorage.isUploadToken(uploadToken));
+        assertArrayEquals(CONTENT, readFileToByteArray(testee.uploadedFile(uploadToken)));
+    }
+
+    @Test
+    public void uploadMovedToTarget() throws Exception {
+        final String uploadToken = testee.store(new MockMultipartFile("file", CONTENT));
+        final File target = getFile(storageDirectory.getRoot(), "Domain", "1", "picture", "picture.png");
+
+        testee.moveTo(uploadToken, target);
+
+        assertArrayEquals(CONTENT, readFileToByteArray(target));
+        assertFalse(getFile(storageDirectory.getRoot(), ".uploads", uploadToken.substring(FileUploadStorage.UPLOAD_TOKEN_PREFIX.length())).exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void uploadConsumedOnRead() throws Exception {
+        final String uploadToken = testee.store(new MockMultipartFile("file", CONTENT));
+
+        assertArrayEquals(CONTENT, testee.read(uploadToken));
+
+        testee.read(uploadToken);
+    }
+
+    @Test
+    public void pathsAndContentAreNotUploadTokens() throws Exception {
+        assertFalse(FileUploadStorage.isUploadToken("upload:../../etc/passwd"));
+        assertFalse(FileUploadStorage.isUploadToken("Domain/1/picture/picture.png"));
+        assertFalse(FileUploadStorage.isUploadToken(CONTENT));
+    }
+}
@@ -0,0 +1,142 @@
+package org.lightadmin.core.rest.binary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.lightadmin.core.config.LightAdminConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import static org.springframework.http.MediaType.IMAGE_PNG;
+
+public class ImageRenditionCacheTest {
+
+    @Rule
+    public TemporaryFolder storageDirectory = new TemporaryFolder();
+
+    private LightAdminConfiguration lightAdminConfiguration;
+
+    @Before
+    public void setUp() throws Exception {
+        lightAdminConfiguration = createMock(LightAdminConfiguration.class);
+        expect(lightAdminConfiguration.getFileStorageDirectory()).andReturn(storageDirectory.getRoot()).anyTimes();
+        expect(lightAdminConfiguration.getFileRenditionSizes()).andReturn(Collections.<Dimension>emptyList()).anyTimes();
+        replay(lightAdminConfiguration);
+    }
+
+    @Test
+    public void renditionScaledOnceAndServedFromMemory() throws Exception {
+        final ImageRenditionCache testee = imageRenditionCache();
+        final CountingImageSource imageSource = new CountingImageSource(png(100, 50));
+
+        final byte[] rendition = testee.rendition(renditionKey(0, 20), imageSource);
+
+        assertSame(rendition, testee.rendition(renditionKey(0, 20), imageSource));
+        assertEquals(1, imageSource.reads);
+
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(rendition));
+        assertEquals(20, image.getHeight());
+        assertEquals(40, image.getWidth());
+    }
+
+    @Test
+    public void renditionSpilledToDiskSurvivesMemoryCache() throws Exception {
+        final CountingImageSource imageSource = new CountingImageSource(png(100, 50));
+
+        final byte[] rendition = imageRenditionCache().rendition(renditionKey(0, 20), imageSource);
+
+        assertArrayEquals(rendition, imageRenditionCache().rendition(renditionKey(0, 20), imageSource));
+        assertEquals(1, imageSource.reads);
+    }
+
+    @Test
+    public void changedContentHashScaledAgain() throws Exception {
+        final ImageRenditionCache testee = imageRenditionCache();
+        final CountingImageSource imageSource = new CountingImageSource(png(100, 50));
+
+        testee.rendition(renditionKey(0, 20), imageSource);
+        testee.rendition(new ImageRenditionCache.RenditionKey("Domain/1/picture", "changed", IMAGE_PNG, 0, 20), imageSource);
+
+        assertEquals(2, imageSource.reads);
+    }
+
+    @Test
+    public void requestedSizeSnappedToNearestConfiguredRendition() throws Exception {
+        final LightAdminConfiguration configuration = createMock(LightAdminConfiguration.class);
+        expect(configuration.getFileStorageDirectory()).andReturn(storageDirectory.getRoot()).anyTimes();
+        expect(configuration.getFileRenditionSizes()).andReturn(Arrays.asList(new Dimension(0, 21), new Dimension(0, 150), new Dimension(0, 200))).anyTimes();
+        replay(configuration);
+
+        final ImageRenditionCache testee = new ImageRenditionCache(configuration, new ConcurrentTaskExecutor(sameThreadExecutor()), ImageRenditionCache.DEFAULT_MEMORY_LIMIT);
+
+        assertEquals(new Dimension(0, 21), testee.renditionSize(0, 21));
+        assertEquals(new Dimension(0, 150), testee.renditionSize(0, 140));
+        assertEquals(new Dimension(0, 200), testee.renditionSize(30000, 30000));
+    }
+
+    @Test
+    public void requestedSizeCappedWithoutConfiguredRenditions() throws Exception {
+        assertEquals(new Dimension(ImageRenditionCache.MAX_RENDITION_SIZE, 20), imageRenditionCache().renditionSize(30000, 20));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void saturatedImageProcessingRejectsRendition() throws Exception {
+        final AsyncTaskExecutor executor = createMock(AsyncTaskExecutor.class);
+        expect(executor.submit(anyObject(Callable.class))).andThrow(new TaskRejectedException("saturated"));
+        replay(executor);
+
+        imageRenditionCache(executor).rendition(renditionKey(0, 20), new CountingImageSource(png(100, 50)));
+    }
+
+    private ImageRenditionCache imageRenditionCache() {
+        return imageRenditionCache(new ConcurrentTaskExecutor(sameThreadExecutor()));
+    }
+
+    private ImageRenditionCache imageRenditionCache(AsyncTaskExecutor executor) {
+        return new ImageRenditionCache(lightAdminConfiguration, executor, ImageRenditionCache.DEFAULT_MEMORY_LIMIT);
+    }
+
+    private ImageRenditionCache.RenditionKey renditionKey(int width, int height) {
+        return new ImageRenditionCache.RenditionKey("Domain/1/picture", "hash", IMAGE_PNG, width, height);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static class CountingImageSource extends ImageRenditionCache.ImageSource {
+
+        private final byte[] content;
+
+        private int reads;
+
+        CountingImageSource(byte[] content) {
+            super(null, null);
+            this.content = content;
+        }
+
+        @Override
+        byte[] content() throws IOException {
+            reads++;
+            return content;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.lightadmin.core.rest.binary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.lightadmin.api.config.annotation.FileReference;
+import org.lightadmin.core.config.LightAdminConfiguration;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnits;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import static org.apache.commons.io.FileUtils.readFileToByteArray;
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+public class SaveFileRestOperationTest {
+
+    private static final byte[] LOGO = "logo".getBytes();
+
+    @Rule
+    public TemporaryFolder rootDirectory = new TemporaryFolder();
+
+    private ContentAddressedFileStorage fileStorage;
+
+    private GlobalAdministrationConfiguration configuration;
+
+    private LightAdminConfiguration lightAdminConfiguration;
+
+    private PersistentProperty logoProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        fileStorage = new ContentAddressedFileStorage(rootDirectory.getRoot());
+
+        final PersistentProperty idProperty = property("id");
+        logoProperty = property("logo");
+
+        final PersistentEntity persistentEntity = createMock(PersistentEntity.class);
+        expect(persistentEntity.getType()).andReturn(Company.class).anyTimes();
+        expect(persistentEntity.getIdProperty()).andReturn(idProperty).anyTimes();
+        replay(persistentEntity);
+
+        configuration = new GlobalAdministrationConfiguration();
+        configuration.registerDomainTypeConfiguration(new CompanyConfiguration(persistentEntity));
+
+        lightAdminConfiguration = createMock(LightAdminConfiguration.class);
+        expect(lightAdminConfiguration.getFileStorageDirectory()).andReturn(rootDirectory.getRoot()).anyTimes();
+        expect(lightAdminConfiguration.getFileStorageType()).andReturn(FileStorageType.CONTENT_ADDRESSED).anyTimes();
+        replay(lightAdminConfiguration);
+    }
+
+    @Test
+    public void unchangedReferenceKept() throws Exception {
+        final String reference = fileStorage.store(null, "/domain/company/1/logo/file.bin", content(LOGO));
+        final Company company = new Company(1L, reference);
+
+        assertTrue(saveOperation(company).performRelocation(logoProperty, reference));
+
+        assertEquals(reference, company.logo);
+        assertEquals(1, fileStorage.referenceCount(reference));
+    }
+
+    @Test
+    public void referenceToSharedContentCountedAndPreviousReleased() throws Exception {
+        final String shared = fileStorage.store(null, "/domain/company/1/logo/file.bin", content(LOGO));
+        final String previous = fileStorage.store(null, "/domain/company/2/logo/file.bin", content("previous".getBytes()));
+        final Company company = new Company(2L, shared);
+
+        assertTrue(saveOperation(company).performRelocation(logoProperty, previous));
+
+        assertEquals(shared, company.logo);
+        assertEquals(2, fileStorage.referenceCount(shared));
+        assertFalse(fileStorage.file(previous).exists());
+
+        fileStorage.release(shared);
+        assertArrayEquals(LOGO, readFileToByteArray(fileStorage.file(shared)));
+    }
+
+    @Test
+    public void referenceOutsideStorageRefused() throws Exception {
+        final File outside = rootDirectory.newFile("outside.bin");
+        writeByteArrayToFile(outside, LOGO);
+        final File storageDirectory = rootDirectory.newFolder("storage");
+        final LightAdminConfiguration nestedStorageConfiguration = createMock(LightAdminConfiguration.class);
+        expect(nestedStorageConfiguration.getFileStorageDirectory()).andReturn(storageDirectory).anyTimes();
+        expect(nestedStorageConfiguration.getFileStorageType()).andReturn(FileStorageType.CONTENT_ADDRESSED).anyTimes();
+        replay(nestedStorageConfiguration);
+
+        final Company company = new Company(1L, "/../outside.bin");
+        try {
+            new SaveFileRestOperation(configuration, nestedStorageConfiguration, null, company).performRelocation(logoProperty, null);
+            fail("Reference outside of the storage accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(outside.isFile());
+        }
+    }
+
+    private SaveFileRestOperation saveOperation(Company company) {
+        return new SaveFileRestOperation(configuration, lightAdminConfiguration, null, company);
+    }
+
+    private PersistentProperty property(String name) {
+        final Field field = ReflectionUtils.findField(Company.class, name);
+
+        final PersistentProperty property = createNiceMock(PersistentProperty.class);
+        expect(property.getName()).andReturn(name).anyTimes();
+        expect(property.getField()).andReturn(field).anyTimes();
+        expect(property.getType()).andReturn(field.getType()).anyTimes();
+        expect(property.getRawType()).andReturn(field.getType()).anyTimes();
+        expect(property.findAnnotation(FileReference.class)).andReturn(field.getAnnotation(FileReference.class)).anyTimes();
+        replay(property);
+        return property;
+    }
+
+    private File content(byte[] bytes) throws Exception {
+        final File content = rootDirectory.newFile();
+        writeByteArrayToFile(content, bytes);
+        return content;
+    }
+
+    private static class CompanyConfiguration extends DomainTypeAdministrationConfiguration {
+
+        private final PersistentEntity persistentEntity;
+
+        CompanyConfiguration(PersistentEntity persistentEntity) {
+            super(new Repositories(new StaticListableBeanFactory()), new ConfigurationUnits("CompanyConfiguration", Company.class, Collections.<ConfigurationUnit>emptySet()));
+            this.persistentEntity = persistentEntity;
+        }
+
+        @Override
+        public PersistentEntity getPersistentEntity() {
+            return persistentEntity;
+        }
+
+        @Override
+        public Class<?> getDomainType() {
+            return Company.class;
+        }
+    }
+
+    private static class Company {
+
+        private Long id;
+
+        @FileReference
+        private String logo;
+
+        Company(Long id, String logo) {
+            this.id = id;
+            this.logo = logo;
+        }
+    }
+}
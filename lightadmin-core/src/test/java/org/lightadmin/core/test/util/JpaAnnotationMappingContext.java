@@ -0,0 +1,67 @@
+package org.lightadmin.core.test.util;
+
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.context.AbstractMappingContext;
+import org.springframework.data.mapping.model.AnnotationBasedPersistentProperty;
+import org.springframework.data.mapping.model.BasicPersistentEntity;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.util.TypeInformation;
+
+import javax.persistence.*;
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+/**
+ * Maps JPA annotated test model classes without an entity manager factory, ids and associations
+ * recognized by their JPA annotations.
+ */
+public class JpaAnnotationMappingContext extends AbstractMappingContext<BasicPersistentEntity<Object, JpaAnnotationMappingContext.JpaAnnotationProperty>, JpaAnnotationMappingContext.JpaAnnotationProperty> {
+
+    public static PersistentEntity persistentEntity(Class<?> type) {
+        return new JpaAnnotationMappingContext().getPersistentEntity(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> BasicPersistentEntity<Object, JpaAnnotationProperty> createPersistentEntity(TypeInformation<T> typeInformation) {
+        return new BasicPersistentEntity<>((TypeInformation<Object>) typeInformation);
+    }
+
+    @Override
+    protected JpaAnnotationProperty createPersistentProperty(Field field, PropertyDescriptor descriptor, BasicPersistentEntity<Object, JpaAnnotationProperty> owner, SimpleTypeHolder simpleTypeHolder) {
+        return new JpaAnnotationProperty(field, descriptor, owner, simpleTypeHolder);
+    }
+
+    public static class JpaAnnotationProperty extends AnnotationBasedPersistentProperty<JpaAnnotationProperty> {
+
+        JpaAnnotationProperty(Field field, PropertyDescriptor propertyDescriptor, PersistentEntity<?, JpaAnnotationProperty> owner, SimpleTypeHolder simpleTypeHolder) {
+            super(field, propertyDescriptor, owner, simpleTypeHolder);
+        }
+
+        @Override
+        public boolean isIdProperty() {
+            return annotated(Id.class) || annotated(EmbeddedId.class);
+        }
+
+        @Override
+        public boolean isAssociation() {
+            return annotated(OneToOne.class) || annotated(OneToMany.class) || annotated(ManyToOne.class) || annotated(ManyToMany.class);
+        }
+
+        @Override
+        public boolean isTransient() {
+            return annotated(Transient.class) || super.isTransient();
+        }
+
+        @Override
+        protected Association<JpaAnnotationProperty> createAssociation() {
+            return new Association<>(this, null);
+        }
+
+        private boolean annotated(Class<? extends Annotation> annotationType) {
+            return field != null && field.isAnnotationPresent(annotationType);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.lightadmin.core.util;
+
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.lightadmin.core.util.ImageUtils.MAX_DECODED_PIXELS;
+import static org.lightadmin.core.util.ImageUtils.MAX_SCALED_SIZE;
+import static org.lightadmin.core.util.ImageUtils.readImage;
+import static org.lightadmin.core.util.ImageUtils.resizeImage;
+import static org.lightadmin.core.util.ImageUtils.sourceSubsampling;
+import static org.springframework.http.MediaType.IMAGE_PNG;
+
+public class ImageUtilsTest {
+
+    @Test
+    public void sourceDecodedFullyForComparableTarget() throws Exception {
+        assertEquals(1, sourceSubsampling(400, 300, 0, 200, MAX_DECODED_PIXELS));
+    }
+
+    @Test
+    public void sourceSubsampledKeepingTwiceTheTargetResolution() throws Exception {
+        assertEquals(25, sourceSubsampling(6000, 4000, 0, 80, MAX_DECODED_PIXELS));
+    }
+
+    @Test
+    public void subsamplingRaisedUntilDecodedPixelsFitTheCap() throws Exception {
+        assertEquals(2, sourceSubsampling(6000, 4000, 6000, 4000, MAX_DECODED_PIXELS));
+    }
+
+    @Test
+    public void imageDecodedWithSubsampling() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+
+        final BufferedImage image = readImage(outputStream.toByteArray(), IMAGE_PNG, 0, 20, MAX_DECODED_PIXELS);
+
+        assertEquals(80, image.getWidth());
+        assertEquals(40, image.getHeight());
+    }
+
+    @Test
+    public void scaledImageBoundedWhateverSizeIsRequested() throws Exception {
+        final BufferedImage image = resizeImage(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), 30000, 30000);
+
+        assertEquals(MAX_SCALED_SIZE, image.getWidth());
+        assertEquals(MAX_SCALED_SIZE / 2, image.getHeight());
+    }
+}
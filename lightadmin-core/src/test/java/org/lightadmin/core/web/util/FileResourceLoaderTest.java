@@ -0,0 +1,179 @@
+package org.lightadmin.core.web.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.rest.binary.FileDescriptor;
+import org.lightadmin.core.rest.binary.FileMetadataCache;
+import org.lightadmin.core.rest.binary.GetFileRestOperation;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FileResourceLoaderTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    private FileResourceLoader testee;
+
+    private FileResourceLoader.FileResource resource;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new FileResourceLoader(null, null, null, null);
+        resource = new FileResourceLoader.BinaryFileResource(CONTENT);
+    }
+
+    @Test
+    public void headersSetAlongWithFullContent() throws Exception {
+        final MockHttpServletResponse response = serve(new MockHttpServletRequest());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("10", response.getHeader("Content-Length"));
+        assertEquals(resource.eTag(), response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void matchingETagAnsweredWithNotModified() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", resource.eTag());
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void rangeAnsweredWithPartialContent() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=2-4");
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader("Content-Range"));
+        assertEquals("3", response.getHeader("Content-Length"));
+        assertArrayEquals("234".getBytes(), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void suffixRangeServesFileTail() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=-3");
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertArrayEquals("789".getBytes(), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void rangeBeyondContentNotSatisfiable() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=20-");
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    public void staleIfRangeServesFullContent() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=2-4");
+        request.addHeader("If-Range", "\"outdated\"");
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void storedContentNotReadForMatchingETag() throws Exception {
+        final CountingGetFileRestOperation operation = new CountingGetFileRestOperation();
+        final PersistentProperty property = binaryProperty();
+        final FileDescriptor fileDescriptor = new FileMetadataCache(FileMetadataCache.DEFAULT_MAXIMUM_SIZE).describeContent(operation, property);
+        resource = new FileResourceLoader.StoredBinaryFileResource(operation, property, fileDescriptor);
+        final int readsToDescribe = operation.reads.get();
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", "\"" + FileDescriptor.hash(CONTENT) + "\"");
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(readsToDescribe, operation.reads.get());
+    }
+
+    @Test
+    public void storedContentReadOnlyToWriteBody() throws Exception {
+        final CountingGetFileRestOperation operation = new CountingGetFileRestOperation();
+        final PersistentProperty property = binaryProperty();
+        resource = new FileResourceLoader.StoredBinaryFileResource(operation, property, FileDescriptor.fileDescriptor(CONTENT));
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=2-4");
+
+        final MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("3", response.getHeader("Content-Length"));
+        assertArrayEquals("234".getBytes(), response.getContentAsByteArray());
+        assertEquals(1, operation.reads.get());
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        testee.serve(resource, request, response);
+        return response;
+    }
+
+    private static PersistentProperty binaryProperty() {
+        final PersistentProperty property = createNiceMock(PersistentProperty.class);
+        expect(property.getName()).andReturn("content").anyTimes();
+        expect(property.getType()).andReturn(byte[].class).anyTimes();
+        replay(property);
+        return property;
+    }
+
+    private static class CountingGetFileRestOperation extends GetFileRestOperation {
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingGetFileRestOperation() {
+            super(new GlobalAdministrationConfiguration(), null, new Object());
+        }
+
+        @Override
+        public byte[] perform(PersistentProperty persistentProperty) {
+            reads.incrementAndGet();
+            return CONTENT;
+        }
+
+        @Override
+        public FileDescriptor describe(PersistentProperty persistentProperty) {
+            return FileDescriptor.fileDescriptor(perform(persistentProperty));
+        }
+
+        @Override
+        protected String domainTypeName() {
+            return "document";
+        }
+
+        @Override
+        protected Object idAttributeValue() {
+            return 1L;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.data.rest.webmvc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.test.model.Address;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.model.Order;
+import org.lightadmin.core.test.util.JpaAnnotationMappingContext;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class DynamicDomainObjectMergerTest {
+
+    private DynamicDomainObjectMerger testee;
+
+    @Before
+    public void setUp() throws Exception {
+        final JpaAnnotationMappingContext mappingContext = new JpaAnnotationMappingContext();
+
+        final Repositories repositories = new Repositories(new StaticListableBeanFactory()) {
+            @Override
+            public PersistentEntity<?, ?> getPersistentEntity(Class<?> domainClass) {
+                return mappingContext.getPersistentEntity(domainClass);
+            }
+        };
+
+        testee = new DynamicDomainObjectMerger(repositories, new DefaultConversionService());
+    }
+
+    @Test
+    public void onlyGivenPropertiesMergedNullsIncluded() throws Exception {
+        final Customer source = new Customer("Jane", "Roe");
+        source.setLastname(null);
+        final Customer target = customer(1L, "John", "Doe");
+
+        testee.merge(source, target, Collections.singleton("lastname"));
+
+        assertEquals("John", target.getFirstname());
+        assertNull(target.getLastname());
+    }
+
+    @Test
+    public void idNotMergedEvenIfGiven() throws Exception {
+        final Customer source = customer(2L, "Jane", "Roe");
+        final Customer target = customer(1L, "John", "Doe");
+
+        testee.merge(source, target, asList("id", "firstname"));
+
+        assertEquals(Long.valueOf(1L), target.getId());
+        assertEquals("Jane", target.getFirstname());
+    }
+
+    @Test
+    public void associationMergedOnlyIfGiven() throws Exception {
+        final Customer customer = customer(7L, "Jane", "Roe");
+        final Order source = new Order(customer, new Address("Main St", "Kyiv", "Ukraine"));
+        final Order target = new Order(customer(1L, "John", "Doe"), new Address("High St", "London", "UK"));
+
+        testee.merge(source, target, Collections.singleton("billingAddress"));
+        assertEquals(Long.valueOf(1L), target.getCustomer().getId());
+
+        testee.merge(source, target, Collections.singleton("customer"));
+        assertSame(customer, target.getCustomer());
+    }
+
+    private static Customer customer(Long id, String firstname, String lastname) {
+        final Customer customer = new Customer(firstname, lastname);
+        ReflectionTestUtils.setField(customer, "id", id);
+        return customer;
+    }
+}
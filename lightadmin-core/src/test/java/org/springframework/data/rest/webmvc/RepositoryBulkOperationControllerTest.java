@@ -0,0 +1,154 @@
+package org.springframework.data.rest.webmvc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnits;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.util.JpaAnnotationMappingContext;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.rest.webmvc.support.BulkOperationProgress;
+import org.springframework.data.rest.webmvc.support.BulkOperationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static java.util.Arrays.asList;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.junit.Assert.*;
+
+@SuppressWarnings("unchecked")
+public class RepositoryBulkOperationControllerTest {
+
+    private final List<Runnable> submittedOperations = newArrayList();
+
+    private boolean rejectOperations;
+
+    private DomainTypeAdministrationConfiguration customerConfiguration;
+
+    private RepositoryBulkOperationController testee;
+
+    @Before
+    public void setUp() throws Exception {
+        final JpaAnnotationMappingContext mappingContext = new JpaAnnotationMappingContext();
+        final DynamicJpaRepository customerRepository = createNiceMock(DynamicJpaRepository.class);
+
+        final Repositories repositories = new Repositories(new StaticListableBeanFactory()) {
+            @Override
+            public Object getRepositoryFor(Class<?> domainClass) {
+                return customerRepository;
+            }
+
+            @Override
+            public PersistentEntity<?, ?> getPersistentEntity(Class<?> domainClass) {
+                return mappingContext.getPersistentEntity(domainClass);
+            }
+        };
+
+        final GlobalAdministrationConfiguration configuration = new GlobalAdministrationConfiguration();
+        customerConfiguration = new DomainTypeAdministrationConfiguration(repositories, new ConfigurationUnits("CustomerConfiguration", Customer.class, Collections.<ConfigurationUnit>emptySet()));
+        configuration.registerDomainTypeConfiguration(customerConfiguration);
+
+        final TaskExecutor taskExecutor = new TaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                if (rejectOperations) {
+                    throw new TaskRejectedException("Queue is full");
+                }
+                submittedOperations.add(task);
+            }
+        };
+
+        final DefaultConversionService conversionService = new DefaultConversionService();
+        final BulkOperationService bulkOperationService = new BulkOperationService(configuration, repositories, new DynamicDomainObjectMerger(repositories, conversionService),
+                conversionService, createNiceMock(PlatformTransactionManager.class), taskExecutor, BulkOperationService.DEFAULT_CHUNK_SIZE);
+
+        testee = new RepositoryBulkOperationController(bulkOperationService, null);
+    }
+
+    @Test
+    public void deleteAcceptedAndRunInBackground() throws Exception {
+        final ResponseEntity<?> response = testee.deleteItems(customerConfiguration, body("ids", asList(1, 2)));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        final Map<String, Object> progress = (Map<String, Object>) response.getBody();
+        assertEquals("delete", progress.get("operation"));
+        assertEquals(BulkOperationProgress.Status.RUNNING, progress.get("status"));
+        assertNotNull(progress.get("id"));
+        assertEquals(1, submittedOperations.size());
+    }
+
+    @Test
+    public void progressOfAcceptedOperationServed() throws Exception {
+        final Map<String, Object> accepted = (Map<String, Object>) testee.deleteItems(customerConfiguration, body("ids", asList(1))).getBody();
+
+        final ResponseEntity<?> response = testee.operationProgress((String) accepted.get("id"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(accepted.get("id"), ((Map<String, Object>) response.getBody()).get("id"));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void progressOfUnknownOperationNotFound() throws Exception {
+        testee.operationProgress("unknown");
+    }
+
+    @Test
+    public void missingIdsRejected() throws Exception {
+        try {
+            testee.deleteItems(customerConfiguration, body("values", Collections.emptyMap()));
+            fail("Request without ids accepted");
+        } catch (IllegalArgumentException e) {
+            final ResponseEntity<?> response = testee.handleInvalidRequest(e);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertEquals(Collections.singletonMap("message", "Ids of the entities are missing"), response.getBody());
+        }
+        assertTrue(submittedOperations.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateWithoutValuesRejected() throws Exception {
+        testee.updateItems(customerConfiguration, body("ids", asList(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateOfUnknownPropertyRejected() throws Exception {
+        final Map<String, Object> body = body("ids", asList(1));
+        body.put("values", Collections.singletonMap("unknown", "value"));
+
+        testee.updateItems(customerConfiguration, body);
+    }
+
+    @Test
+    public void rejectedOperationAnsweredAsUnavailable() throws Exception {
+        rejectOperations = true;
+
+        try {
+            testee.deleteItems(customerConfiguration, body("ids", asList(1)));
+            fail("Rejected operation accepted");
+        } catch (TaskRejectedException e) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, testee.handleRejectedOperation(e).getStatusCode());
+        }
+    }
+
+    private static Map<String, Object> body(String key, Object value) {
+        final Map<String, Object> body = newHashMap();
+        body.put(key, value);
+        return body;
+    }
+}
@@ -0,0 +1,163 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.junit.Test;
+import org.lightadmin.api.config.unit.EntityMetadataConfigurationUnit;
+import org.lightadmin.api.config.utils.EntityNameExtractor;
+import org.lightadmin.core.config.domain.DomainTypeBasicConfiguration;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.rest.webmvc.support.AssociationOptionsCache.AssociationOptions;
+
+import java.util.Arrays;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.springframework.data.rest.webmvc.support.AssociationOptionsCache.DEFAULT_CACHE_TTL_SECONDS;
+
+@SuppressWarnings("unchecked")
+public class AssociationOptionsCacheTest {
+
+    @Test
+    public void optionsLoadedOnceAndSortedByName() throws Exception {
+        final DynamicJpaRepository<Object, ?> repository = repository(2, 1, new DomainType(1L, "beta"), new DomainType(2L, "Alpha"));
+
+        final AssociationOptionsCache testee = new AssociationOptionsCache(10);
+        final DomainTypeBasicConfiguration configuration = configuration(repository);
+
+        final AssociationOptions options = testee.options(configuration);
+
+        assertEquals(2, options.size());
+        assertEquals(2L, options.id(0));
+        assertEquals("Alpha", options.name(0));
+        assertEquals("beta", options.name(1));
+        assertEquals(options, testee.options(configuration));
+        verify(repository);
+    }
+
+    @Test
+    public void optionsReloadedAfterInvalidation() throws Exception {
+        final DynamicJpaRepository<Object, ?> repository = repository(1, 2, new DomainType(1L, "alpha"));
+
+        final AssociationOptionsCache testee = new AssociationOptionsCache(10);
+        final DomainTypeBasicConfiguration configuration = configuration(repository);
+
+        testee.options(configuration);
+        testee.invalidate(DomainType.class);
+        testee.options(configuration);
+
+        verify(repository);
+    }
+
+    @Test
+    public void typeAboveLimitRequiresLookup() throws Exception {
+        final DynamicJpaRepository<Object, ?> repository = createMock(DynamicJpaRepository.class);
+        expect(repository.countCapped(null, 10)).andReturn(11L).once();
+        replay(repository);
+
+        final AssociationOptionsCache testee = new AssociationOptionsCache(10);
+        final DomainTypeBasicConfiguration configuration = configuration(repository);
+
+        assertNull(testee.options(configuration));
+        assertEquals(true, testee.isLookupRequired(configuration));
+        verify(repository);
+    }
+
+    @Test
+    public void eagerOptionsOfTypeAboveLimitCachedApart() throws Exception {
+        final DynamicJpaRepository<Object, ?> repository = createMock(DynamicJpaRepository.class);
+        expect(repository.countCapped(null, 1)).andReturn(2L).once();
+        expect(repository.findAll()).andReturn(Arrays.<Object>asList(new DomainType(1L, "beta"), new DomainType(2L, "Alpha"))).once();
+        replay(repository);
+
+        final AssociationOptionsCache testee = new AssociationOptionsCache(1);
+        final DomainTypeBasicConfiguration configuration = configuration(repository);
+
+        final AssociationOptions options = testee.eagerOptions(configuration);
+
+        assertEquals(2, options.size());
+        assertEquals("Alpha", options.name(0));
+        assertEquals(options, testee.eagerOptions(configuration));
+        assertEquals(true, testee.isLookupRequired(configuration));
+        verify(repository);
+    }
+
+    @Test
+    public void eagerOptionsAboveSegmentShareOfMaximumKept() throws Exception {
+        final Object[] elements = new Object[60];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = new DomainType((long) i, "name" + i);
+        }
+
+        final DynamicJpaRepository<Object, ?> repository = createMock(DynamicJpaRepository.class);
+        expect(repository.countCapped(null, 1)).andReturn(2L).once();
+        expect(repository.findAll()).andReturn(Arrays.asList(elements)).once();
+        replay(repository);
+
+        final AssociationOptionsCache testee = new AssociationOptionsCache(1, 100, DEFAULT_CACHE_TTL_SECONDS);
+        final DomainTypeBasicConfiguration configuration = configuration(repository);
+
+        final AssociationOptions options = testee.eagerOptions(configuration);
+
+        assertEquals(60, options.size());
+        assertSame(options, testee.eagerOptions(configuration));
+        verify(repository);
+    }
+
+    private DynamicJpaRepository<Object, ?> repository(long count, int loads, Object... elements) {
+        final DynamicJpaRepository<Object, ?> repository = createMock(DynamicJpaRepository.class);
+        expect(repository.countCapped(null, 10)).andReturn(count).times(loads);
+        expect(repository.findSlice(anyObject(Specification.class), anyObject(Pageable.class))).andReturn(new SliceImpl<Object>(Arrays.asList(elements))).times(loads);
+        replay(repository);
+        return repository;
+    }
+
+    private DomainTypeBasicConfiguration configuration(DynamicJpaRepository repository) throws Exception {
+        final PersistentProperty idProperty = createNiceMock(PersistentProperty.class);
+        expect(idProperty.getName()).andReturn("id").anyTimes();
+        expect(idProperty.getType()).andReturn(Long.class).anyTimes();
+        expect(idProperty.getField()).andReturn(DomainType.class.getDeclaredField("id")).anyTimes();
+        replay(idProperty);
+
+        final PersistentEntity persistentEntity = createNiceMock(PersistentEntity.class);
+        expect(persistentEntity.getIdProperty()).andReturn(idProperty).anyTimes();
+        replay(persistentEntity);
+
+        final EntityMetadataConfigurationUnit entityConfiguration = createNiceMock(EntityMetadataConfigurationUnit.class);
+        expect(entityConfiguration.getNameExtractor()).andReturn(new EntityNameExtractor<Object>() {
+            @Override
+            public String apply(Object input) {
+                return ((DomainType) input).name;
+            }
+        }).anyTimes();
+        replay(entityConfiguration);
+
+        final DomainTypeBasicConfiguration configuration = createNiceMock(DomainTypeBasicConfiguration.class);
+        expect(configuration.getDomainType()).andReturn((Class) DomainType.class).anyTimes();
+        expect(configuration.getRepository()).andReturn(repository).anyTimes();
+        expect(configuration.getPersistentEntity()).andReturn(persistentEntity).anyTimes();
+        expect(configuration.getEntityConfiguration()).andReturn(entityConfiguration).anyTimes();
+        replay(configuration);
+        return configuration;
+    }
+
+    public static class DomainType {
+
+        private final Long id;
+        private final String name;
+
+        DomainType(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.lightadmin.api.config.annotation.Administration;
+import org.lightadmin.api.config.management.rmi.GlobalConfigurationManagementService;
+import org.lightadmin.core.config.context.LightAdminRepositoryRestMvcConfiguration;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.lightadmin.core.test.IntegrationTest;
+import org.lightadmin.core.test.LightAdminConfigurationContextLoader;
+import org.lightadmin.core.test.LightAdminTestConfiguration;
+import org.lightadmin.core.test.model.Address;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.rest.webmvc.support.BulkOperationService.Selection;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.*;
+import static org.lightadmin.core.config.domain.unit.ConfigurationUnitsConverter.unitsFromConfiguration;
+import static org.springframework.data.rest.webmvc.support.BulkOperationProgress.Status.COMPLETED;
+
+@Category(IntegrationTest.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(loader = LightAdminConfigurationContextLoader.class,
+        classes = {LightAdminTestConfiguration.class, LightAdminRepositoryRestMvcConfiguration.class})
+@SuppressWarnings("unchecked")
+public class BulkOperationServiceIntegrationTest {
+
+    @Autowired
+    private GlobalConfigurationManagementService globalConfigurationManagementService;
+
+    @Autowired
+    private BulkOperationService bulkOperationService;
+
+    private DomainTypeAdministrationConfiguration customerConfiguration;
+
+    private DynamicJpaRepository<Object, Serializable> customerRepository;
+
+    private DynamicJpaRepository<Object, Serializable> orderRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        globalConfigurationManagementService.removeAllDomainTypeAdministrationConfigurations();
+        globalConfigurationManagementService.registerDomainTypeConfiguration(unitsFromConfiguration(CustomerConfiguration.class), unitsFromConfiguration(OrderConfiguration.class));
+
+        customerConfiguration = globalConfigurationManagementService.getRegisteredDomainTypeConfiguration(Customer.class);
+        customerRepository = customerConfiguration.getRepository();
+        orderRepository = globalConfigurationManagementService.getRegisteredDomainTypeConfiguration(Order.class).getRepository();
+    }
+
+    @Test
+    public void entitiesDeletedById() throws Exception {
+        final String lastname = uniqueLastname();
+        final List<Long> ids = customerIds(createCustomers(lastname, 3));
+
+        final BulkOperationProgress progress = completed(bulkOperationService.delete(customerConfiguration, Selection.ids(ids)));
+
+        assertEquals(3, progress.getProcessed());
+        assertEquals(0, progress.getFailed());
+        assertTrue(customerRepository.findAll(lastnameIs(lastname)).isEmpty());
+    }
+
+    @Test
+    public void entitiesDeletedByScope() throws Exception {
+        final String lastname = uniqueLastname();
+        createCustomers(lastname, 5);
+        final long otherCustomers = customerRepository.count() - 5;
+
+        final BulkOperationProgress progress = completed(bulkOperationService.delete(customerConfiguration, Selection.matching(lastnameIs(lastname), null)));
+
+        assertEquals(5, progress.getTotal());
+        assertEquals(5, progress.getProcessed());
+        assertEquals(otherCustomers, customerRepository.count());
+    }
+
+    @Test
+    public void entitiesUpdatedById() throws Exception {
+        final String lastname = uniqueLastname();
+        final List<Long> ids = customerIds(createCustomers(lastname, 2));
+        final String newLastname = uniqueLastname();
+
+        final BulkOperationProgress progress = completed(bulkOperationService.update(customerConfiguration, Selection.ids(ids), Collections.singletonMap("lastname", newLastname)));
+
+        assertEquals(2, progress.getProcessed());
+        assertEquals(2, customerRepository.findAll(lastnameIs(newLastname)).size());
+    }
+
+    @Test
+    public void entitiesUpdatedByScope() throws Exception {
+        final String lastname = uniqueLastname();
+        createCustomers(lastname, 3);
+        final String newLastname = uniqueLastname();
+
+        final BulkOperationProgress progress = completed(bulkOperationService.update(customerConfiguration, Selection.matching(lastnameIs(lastname), null), Collections.singletonMap("lastname", newLastname)));
+
+        assertEquals(3, progress.getProcessed());
+        assertTrue(customerRepository.findAll(lastnameIs(lastname)).isEmpty());
+        assertEquals(3, customerRepository.findAll(lastnameIs(newLastname)).size());
+    }
+
+    @Test
+    public void failingEntityDoesNotTakeRestOfChunkWithIt() throws Exception {
+        final String lastname = uniqueLastname();
+        final List<Customer> customers = createCustomers(lastname, 3);
+        final Customer orderingCustomer = customers.get(1);
+        orderRepository.save(new Order(orderingCustomer, new Address("27 Broadway", "New York", "United States")));
+
+        final BulkOperationProgress progress = completed(bulkOperationService.delete(customerConfiguration, Selection.ids(customerIds(customers))));
+
+        assertEquals(2, progress.getProcessed());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getErrors().size());
+        assertTrue(progress.getErrors().get(0).startsWith(orderingCustomer.getId() + ": "));
+        assertEquals(Collections.singletonList(orderingCustomer.getId()), customerIds((List) customerRepository.findAll(lastnameIs(lastname))));
+    }
+
+    private List<Customer> createCustomers(String lastname, int count) {
+        final List<Customer> customers = newArrayList();
+        for (int index = 0; index < count; index++) {
+            customers.add((Customer) customerRepository.save(new Customer("Bulk" + index, lastname)));
+        }
+        return customers;
+    }
+
+    private static List<Long> customerIds(List<Customer> customers) {
+        final List<Long> ids = newArrayList();
+        for (Customer customer : customers) {
+            ids.add(customer.getId());
+        }
+        return ids;
+    }
+
+    private static Specification lastnameIs(final String lastname) {
+        return new Specification<Customer>() {
+            @Override
+            public Predicate toPredicate(Root<Customer> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+                return builder.equal(root.get("lastname"), lastname);
+            }
+        };
+    }
+
+    private static String uniqueLastname() {
+        return "Bulk-" + UUID.randomUUID();
+    }
+
+    private static BulkOperationProgress completed(BulkOperationProgress progress) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 30000;
+        while (!progress.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(COMPLETED, progress.getStatus());
+        return progress;
+    }
+
+    @Administration(Customer.class)
+    private static class CustomerConfiguration {
+
+    }
+
+    @Administration(Order.class)
+    private static class OrderConfiguration {
+
+    }
+}
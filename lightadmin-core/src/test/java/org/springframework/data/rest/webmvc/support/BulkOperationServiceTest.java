@@ -0,0 +1,407 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.easymock.IAnswer;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnits;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.lightadmin.core.test.model.Address;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.model.Order;
+import org.lightadmin.core.test.util.JpaAnnotationMappingContext;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.rest.core.event.AfterDeleteEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.BeforeDeleteEvent;
+import org.springframework.data.rest.webmvc.DynamicDomainObjectMerger;
+import org.springframework.data.rest.webmvc.support.BulkOperationService.Selection;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.Serializable;
+import java.util.*;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static java.util.Arrays.asList;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import static org.springframework.data.rest.webmvc.support.BulkOperationProgress.Status.COMPLETED;
+
+@SuppressWarnings("unchecked")
+public class BulkOperationServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private final JpaAnnotationMappingContext mappingContext = new JpaAnnotationMappingContext();
+
+    private final Map<Class<?>, Object> repositoriesByType = newHashMap();
+
+    private DynamicJpaRepository<Object, Serializable> customerRepository;
+
+    private Repositories repositories;
+
+    private RecordingTransactionManager transactionManager;
+
+    private RecordingEventPublisher publisher;
+
+    private GlobalAdministrationConfiguration configuration;
+
+    private BulkOperationService testee;
+
+    @Before
+    public void setUp() throws Exception {
+        customerRepository = createMock(DynamicJpaRepository.class);
+        repositoriesByType.put(Customer.class, customerRepository);
+
+        transactionManager = new RecordingTransactionManager();
+        publisher = new RecordingEventPublisher(transactionManager);
+
+        repositories = new Repositories(new StaticListableBeanFactory()) {
+            @Override
+            public Object getRepositoryFor(Class<?> domainClass) {
+                return repositoriesByType.get(domainClass);
+            }
+
+            @Override
+            public PersistentEntity<?, ?> getPersistentEntity(Class<?> domainClass) {
+                return mappingContext.getPersistentEntity(domainClass);
+            }
+        };
+
+        configuration = new GlobalAdministrationConfiguration();
+        configuration.registerDomainTypeConfiguration(domainConfiguration(Customer.class));
+
+        final DefaultConversionService conversionService = new DefaultConversionService();
+        testee = new BulkOperationService(configuration, repositories, new DynamicDomainObjectMerger(repositories, conversionService),
+                conversionService, transactionManager, new SyncTaskExecutor(), CHUNK_SIZE);
+        testee.setApplicationEventPublisher(publisher);
+    }
+
+    @Test
+    public void failingEntityDiscardedAndRestOfChunkCommitted() throws Exception {
+        final Customer first = customer(1L);
+        final Customer second = customer(2L);
+        final Customer third = customer(3L);
+        publisher.failOn(new BeforeDeleteEvent(second), new IllegalArgumentException("Not deletable"));
+
+        expect(customerRepository.findAll((Iterable) asList(1L, 2L))).andReturn(asList((Object) first, second));
+        expect(customerRepository.findAll((Iterable) asList(3L))).andReturn(asList((Object) third));
+        customerRepository.delete((Object) first);
+        customerRepository.delete((Object) third);
+        customerRepository.detach(anyObject(Iterable.class));
+        replay(customerRepository);
+
+        final BulkOperationProgress progress = testee.delete(customerConfiguration(), Selection.ids(asList(1L, 2L, 3L)));
+
+        verify(customerRepository);
+        assertEquals(COMPLETED, progress.getStatus());
+        assertEquals(3, progress.getTotal());
+        assertEquals(2, progress.getProcessed());
+        assertEquals(1, progress.getFailed());
+        assertEquals(Collections.singletonList("2: Not deletable"), progress.getErrors());
+        assertEquals(0, transactionManager.rollbacks);
+        assertEquals(asList((Object) first, third), publisher.afterEventSources(AfterDeleteEvent.class));
+    }
+
+    @Test
+    public void rolledBackChunkProcessedAgainOneByOne() throws Exception {
+        final Customer first = customer(1L);
+        final Customer second = customer(2L);
+        final Customer third = customer(3L);
+
+        expect(customerRepository.findAll((Iterable) asList(1L, 2L))).andReturn(asList((Object) first, second));
+        expect(customerRepository.findAll((Iterable) asList(3L))).andReturn(asList((Object) third));
+        expect(customerRepository.findOne(1L)).andReturn(first);
+        expect(customerRepository.findOne(2L)).andReturn(second);
+        customerRepository.delete((Object) first);
+        expectLastCall().times(2);
+        customerRepository.delete((Object) second);
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                transactionManager.markRollbackOnly();
+                throw new IllegalStateException("Referenced by an order");
+            }
+        }).times(2);
+        customerRepository.delete((Object) third);
+        customerRepository.detach(anyObject(Iterable.class));
+        expectLastCall().anyTimes();
+        replay(customerRepository);
+
+        final BulkOperationProgress progress = testee.delete(customerConfiguration(), Selection.ids(asList(1L, 2L, 3L)));
+
+        verify(customerRepository);
+        assertEquals(COMPLETED, progress.getStatus());
+        assertEquals(2, progress.getProcessed());
+        assertEquals(1, progress.getFailed());
+        assertEquals(Collections.singletonList("2: Referenced by an order"), progress.getErrors());
+        assertEquals(2, transactionManager.rollbacks);
+        assertEquals(asList((Object) first, third), publisher.afterEventSources(AfterDeleteEvent.class));
+    }
+
+    @Test
+    public void afterEventsPublishedOnlyOnceCommitted() throws Exception {
+        final Customer first = customer(1L);
+        final Customer second = customer(2L);
+
+        expect(customerRepository.findAll((Iterable) asList(1L, 2L))).andReturn(asList((Object) first, second));
+        customerRepository.delete((Object) first);
+        customerRepository.delete((Object) second);
+        replay(customerRepository);
+
+        testee.delete(customerConfiguration(), Selection.ids(asList(1L, 2L)));
+
+        assertEquals(4, publisher.events.size());
+        for (int index = 0; index < publisher.events.size(); index++) {
+            final boolean afterEvent = publisher.events.get(index) instanceof AfterDeleteEvent;
+            assertEquals(!afterEvent, publisher.inTransaction.get(index));
+            assertEquals(afterEvent ? 1 : 0, (int) publisher.commitsBefore.get(index));
+        }
+    }
+
+    @Test
+    public void duplicateIdsSelectedOnce() throws Exception {
+        final Customer first = customer(1L);
+
+        expect(customerRepository.findAll((Iterable) asList(1L))).andReturn(asList((Object) first));
+        customerRepository.delete((Object) first);
+        replay(customerRepository);
+
+        final BulkOperationProgress progress = testee.delete(customerConfiguration(), Selection.ids(asList(1L, "1", 1)));
+
+        verify(customerRepository);
+        assertEquals(1, progress.getTotal());
+        assertEquals(1, progress.getProcessed());
+        assertEquals(0, progress.getFailed());
+    }
+
+    @Test
+    public void keysetWalkDoesNotSkipEntitiesWhileDeleting() throws Exception {
+        final List<Object> table = newArrayList();
+        for (long id = 1; id <= 5; id++) {
+            table.add(customer(id));
+        }
+
+        expect(customerRepository.count((Specification) isNull())).andReturn(5L);
+        expect(customerRepository.findSlice((Specification) isNull(), anyObject(Pageable.class))).andAnswer(new IAnswer<Slice<Object>>() {
+            @Override
+            public Slice<Object> answer() throws Throwable {
+                final Pageable pageable = (Pageable) getCurrentArguments()[1];
+                final List<Object> content = newArrayList(table.subList(pageable.getOffset(), Math.min(table.size(), pageable.getOffset() + pageable.getPageSize())));
+                return new SliceImpl<>(content, pageable, table.size() > pageable.getOffset() + pageable.getPageSize());
+            }
+        }).once();
+        expect(customerRepository.keysetCursor(anyObject(), anyObject(Sort.class))).andAnswer(new IAnswer<String>() {
+            @Override
+            public String answer() throws Throwable {
+                return String.valueOf(((Customer) getCurrentArguments()[0]).getId());
+            }
+        }).anyTimes();
+        expect(customerRepository.findAllAfter((Specification) isNull(), anyObject(Sort.class), anyString(), eq(CHUNK_SIZE))).andAnswer(new IAnswer<List<Object>>() {
+            @Override
+            public List<Object> answer() throws Throwable {
+                final long cursor = Long.parseLong((String) getCurrentArguments()[2]);
+                final List<Object> following = newArrayList();
+                for (Object entity : table) {
+                    if (((Customer) entity).getId() > cursor && following.size() < CHUNK_SIZE) {
+                        following.add(entity);
+                    }
+                }
+                return following;
+            }
+        }).anyTimes();
+        customerRepository.delete((Object) anyObject());
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                table.remove(getCurrentArguments()[0]);
+                return null;
+            }
+        }).times(5);
+        replay(customerRepository);
+
+        final BulkOperationProgress progress = testee.delete(customerConfiguration(), Selection.matching(null, null));
+
+        verify(customerRepository);
+        assertTrue(table.isEmpty());
+        assertEquals(5, progress.getProcessed());
+        assertEquals(0, progress.getFailed());
+    }
+
+    @Test
+    public void associationReadWithinTransactionOfEachChunk() throws Exception {
+        final DynamicJpaRepository<Object, Serializable> orderRepository = createMock(DynamicJpaRepository.class);
+        registerOrders(orderRepository);
+
+        final Order first = order(1L);
+        final Order second = order(2L);
+        final Order third = order(3L);
+
+        expect(customerRepository.exists(7L)).andReturn(true);
+        expect(customerRepository.findOne(7L)).andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                assertTrue(transactionManager.isActive());
+                return customer(7L);
+            }
+        }).times(3);
+        replay(customerRepository);
+
+        expect(orderRepository.findAll((Iterable) asList(1L, 2L))).andReturn(asList((Object) first, second));
+        expect(orderRepository.findAll((Iterable) asList(3L))).andReturn(asList((Object) third));
+        expect(orderRepository.save((Object) anyObject())).andReturn(null).times(3);
+        replay(orderRepository);
+
+        final Map<String, Object> values = newHashMap();
+        values.put("customer", "7");
+        final BulkOperationProgress progress = testee.update(configuration.forManagedDomainType(Order.class), Selection.ids(asList(1L, 2L, 3L)), values);
+
+        verify(customerRepository, orderRepository);
+        assertEquals(3, progress.getProcessed());
+        assertEquals(7L, (long) customerOf(first).getId());
+        assertNotSame(customerOf(first), customerOf(third));
+        assertEquals(3, publisher.afterEventSources(AfterSaveEvent.class).size());
+    }
+
+    @Test
+    public void missingAssociatedEntityRejectedUpFront() throws Exception {
+        registerOrders(createNiceMock(DynamicJpaRepository.class));
+        expect(customerRepository.exists(7L)).andReturn(false);
+        replay(customerRepository);
+
+        final Map<String, Object> values = newHashMap();
+        values.put("customer", 7L);
+
+        try {
+            testee.update(configuration.forManagedDomainType(Order.class), Selection.ids(asList(1L)), values);
+            fail("Missing associated entity accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals("No Customer with id 7", e.getMessage());
+        }
+    }
+
+    private DomainTypeAdministrationConfiguration customerConfiguration() {
+        return configuration.forManagedDomainType(Customer.class);
+    }
+
+    private void registerOrders(DynamicJpaRepository<Object, Serializable> orderRepository) {
+        repositoriesByType.put(Order.class, orderRepository);
+        configuration.registerDomainTypeConfiguration(domainConfiguration(Order.class));
+    }
+
+    private DomainTypeAdministrationConfiguration domainConfiguration(Class<?> domainType) {
+        return new DomainTypeAdministrationConfiguration(repositories, new ConfigurationUnits(domainType.getSimpleName() + "Configuration", domainType, Collections.<ConfigurationUnit>emptySet()));
+    }
+
+    private static Customer customer(Long id) {
+        final Customer customer = new Customer("John", "Doe");
+        ReflectionTestUtils.setField(customer, "id", id);
+        return customer;
+    }
+
+    private static Order order(Long id) {
+        final Order order = new Order(customer(100L + id), new Address("Main St", "Kyiv", "Ukraine"));
+        ReflectionTestUtils.setField(order, "id", id);
+        return order;
+    }
+
+    private static Customer customerOf(Order order) {
+        return (Customer) ReflectionTestUtils.getField(order, "customer");
+    }
+
+    private static class RecordingTransactionManager implements PlatformTransactionManager {
+
+        private SimpleTransactionStatus current;
+
+        private int commits;
+
+        private int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            current = new SimpleTransactionStatus();
+            return current;
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            if (status.isRollbackOnly()) {
+                rollback(status);
+                throw new UnexpectedRollbackException("Transaction marked as rollback-only");
+            }
+            commits++;
+            current = null;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks++;
+            current = null;
+        }
+
+        void markRollbackOnly() {
+            current.setRollbackOnly();
+        }
+
+        boolean isActive() {
+            return current != null;
+        }
+    }
+
+    private static class RecordingEventPublisher implements ApplicationEventPublisher {
+
+        private final RecordingTransactionManager transactionManager;
+
+        private final List<ApplicationEvent> events = newArrayList();
+        private final List<Boolean> inTransaction = newArrayList();
+        private final List<Integer> commitsBefore = newArrayList();
+        private final Map<Object, RuntimeException> failures = new IdentityHashMap<>();
+
+        RecordingEventPublisher(RecordingTransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        void failOn(BeforeDeleteEvent event, RuntimeException failure) {
+            failures.put(event.getSource(), failure);
+        }
+
+        @Override
+        public void publishEvent(ApplicationEvent event) {
+            if (event instanceof BeforeDeleteEvent && failures.containsKey(event.getSource())) {
+                throw failures.get(event.getSource());
+            }
+            events.add(event);
+            inTransaction.add(transactionManager.isActive());
+            commitsBefore.add(transactionManager.commits);
+        }
+
+        List<Object> afterEventSources(Class<? extends ApplicationEvent> eventType) {
+            final List<Object> sources = newArrayList();
+            for (ApplicationEvent event : events) {
+                if (eventType.isInstance(event)) {
+                    sources.add(event.getSource());
+                }
+            }
+            return sources;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CsvReaderTest {
+
+    @Test
+    public void rowsReadOneAtATime() throws Exception {
+        final CsvReader csvReader = csvReader("name,age\r\nJohn,42\nJane,");
+
+        assertEquals(Arrays.asList("name", "age"), csvReader.readRow());
+        assertEquals(Arrays.asList("John", "42"), csvReader.readRow());
+        assertEquals(Arrays.asList("Jane", ""), csvReader.readRow());
+        assertNull(csvReader.readRow());
+    }
+
+    @Test
+    public void quotedFieldsMayContainSeparatorsQuotesAndLineBreaks() throws Exception {
+        final CsvReader csvReader = csvReader("\"Doe, John\",\"say \"\"hi\"\"\",\"two\r\nlines\"\n");
+
+        assertEquals(Arrays.asList("Doe, John", "say \"hi\"", "two\r\nlines"), csvReader.readRow());
+        assertNull(csvReader.readRow());
+    }
+
+    @Test
+    public void byteOrderMarkSkipped() throws Exception {
+        assertEquals(Arrays.asList("name"), csvReader("\uFEFFname\n").readRow());
+    }
+
+    @Test(expected = IOException.class)
+    public void unterminatedQuotedFieldRejected() throws Exception {
+        csvReader("\"John,42\n").readRow();
+    }
+
+    private CsvReader csvReader(String content) {
+        return new CsvReader(new StringReader(content));
+    }
+}
@@ -0,0 +1,97 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.junit.Test;
+import org.lightadmin.api.config.unit.EntityMetadataConfigurationUnit;
+import org.lightadmin.api.config.unit.FieldSetConfigurationUnit;
+import org.lightadmin.api.config.unit.ScreenContextConfigurationUnit;
+import org.lightadmin.api.config.utils.EntityNameExtractor;
+import org.lightadmin.api.config.utils.FieldValueRenderer;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.common.GenericFieldSetConfigurationUnitBuilder;
+import org.lightadmin.core.config.domain.context.DefaultScreenContextConfigurationUnitBuilder;
+import org.lightadmin.core.config.domain.field.FieldMetadata;
+import org.lightadmin.core.config.domain.field.PersistentFieldMetadata;
+import org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.lightadmin.core.config.domain.unit.DomainConfigurationUnitType.LIST_VIEW;
+import static org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata.persistentEntityMetadata;
+import static org.springframework.data.rest.webmvc.support.ListViewProjection.projectedAttributes;
+
+@SuppressWarnings("unchecked")
+public class ListViewProjectionTest {
+
+    @Test
+    public void entitiesLoadedUnlessProjectionEnabled() throws Exception {
+        final FieldSetConfigurationUnit listView = listView(new GenericFieldSetConfigurationUnitBuilder(Object.class, LIST_VIEW).field("name").build());
+
+        assertNull(projectedAttributes(screenContext(false), listView, entityConfiguration("title", null), metadata(), null));
+    }
+
+    @Test
+    public void listColumnsNameFieldAndSortKeysProjected() throws Exception {
+        final FieldSetConfigurationUnit listView = listView(new GenericFieldSetConfigurationUnitBuilder(Object.class, LIST_VIEW).field("name").field("status").build());
+
+        final Sort sort = new Sort("created").and(new Sort("customer.name"));
+
+        assertEquals(newHashSet("name", "status", "title", "created"), projectedAttributes(screenContext(true), listView, entityConfiguration("title", null), metadata(), sort));
+    }
+
+    @Test
+    public void renderedFieldRequiresEntities() throws Exception {
+        final FieldSetConfigurationUnit listView = listView(new GenericFieldSetConfigurationUnitBuilder(Object.class, LIST_VIEW)
+                .field("name").renderable(createNiceMock(FieldValueRenderer.class))
+                .build());
+
+        assertNull(projectedAttributes(screenContext(true), listView, entityConfiguration("title", null), metadata(), null));
+    }
+
+    @Test
+    public void customNameExtractorRequiresEntities() throws Exception {
+        final FieldSetConfigurationUnit listView = listView(new GenericFieldSetConfigurationUnitBuilder(Object.class, LIST_VIEW).field("name").build());
+
+        assertNull(projectedAttributes(screenContext(true), listView, entityConfiguration(null, createNiceMock(EntityNameExtractor.class)), metadata(), null));
+    }
+
+    private FieldSetConfigurationUnit listView(FieldSetConfigurationUnit listView) {
+        for (FieldMetadata field : listView) {
+            if (field instanceof PersistentFieldMetadata) {
+                ((PersistentFieldMetadata) field).setPersistentProperty(persistentProperty(((PersistentFieldMetadata) field).getField()));
+            }
+        }
+        return listView;
+    }
+
+    private ScreenContextConfigurationUnit screenContext(boolean listViewProjection) {
+        return new DefaultScreenContextConfigurationUnitBuilder(Object.class).listViewProjection(listViewProjection).build();
+    }
+
+    private EntityMetadataConfigurationUnit entityConfiguration(String nameField, EntityNameExtractor nameExtractor) {
+        final EntityMetadataConfigurationUnit entityConfiguration = createNiceMock(EntityMetadataConfigurationUnit.class);
+        expect(entityConfiguration.getNameField()).andReturn(nameField).anyTimes();
+        expect(entityConfiguration.getNameExtractor()).andReturn(nameExtractor).anyTimes();
+        replay(entityConfiguration);
+        return entityConfiguration;
+    }
+
+    private PersistentEntityMetadata metadata() {
+        final PersistentEntity persistentEntity = createNiceMock(PersistentEntity.class);
+        expect(persistentEntity.getType()).andReturn(Object.class).anyTimes();
+        replay(persistentEntity);
+        return persistentEntityMetadata(persistentEntity, new GlobalAdministrationConfiguration());
+    }
+
+    private PersistentProperty persistentProperty(String name) {
+        final PersistentProperty persistentProperty = createNiceMock(PersistentProperty.class);
+        expect(persistentProperty.getName()).andReturn(name).anyTimes();
+        expect(persistentProperty.getType()).andReturn(String.class).anyTimes();
+        replay(persistentProperty);
+        return persistentProperty;
+    }
+}
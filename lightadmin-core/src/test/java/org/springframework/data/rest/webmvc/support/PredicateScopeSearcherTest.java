@@ -0,0 +1,100 @@
+package org.springframework.data.rest.webmvc.support;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import org.easymock.EasyMock;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.rest.core.invoke.DynamicRepositoryInvoker;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("unchecked")
+public class PredicateScopeSearcherTest {
+
+    private static final Predicate<Object> EVEN = new Predicate<Object>() {
+        @Override
+        public boolean apply(Object input) {
+            return ((Integer) input) % 2 == 0;
+        }
+    };
+
+    @Test
+    public void pageCollectedWithoutWalkingRemainingChunks() throws Exception {
+        final List<Object> firstChunk = Arrays.<Object>asList(1, 2, 3, 4);
+        final List<Object> secondChunk = Arrays.<Object>asList(5, 6, 7, 8);
+
+        final Iterable<List<Object>> chunks = Arrays.asList(firstChunk, secondChunk);
+
+        final DynamicRepositoryInvoker invoker = invokerWalking(chunks, 1);
+
+        final PredicateScopeSearcher searcher = new PredicateScopeSearcher(4, 10, 60);
+
+        final Page<?> page = searcher.findPage(invoker, null, EVEN, new PageRequest(0, 1), "key");
+
+        assertEquals(Arrays.asList(2), page.getContent());
+        assertEquals(2, page.getTotalElements());
+        assertFalse(searcher.isTotalExact(page, "key"));
+        verify(invoker);
+    }
+
+    @Test
+    public void pageTotalExactOnceCounted() throws Exception {
+        final Iterable<List<Object>> chunks = Arrays.asList(Arrays.<Object>asList(1, 2, 3, 4), Arrays.<Object>asList(5, 6));
+
+        final PredicateScopeSearcher searcher = new PredicateScopeSearcher(4, 10, 60);
+        searcher.count(invokerWalking(chunks, 2), null, EVEN, "key");
+
+        final Page<?> page = searcher.findPage(invokerWalking(chunks, 1), null, EVEN, new PageRequest(0, 1), "key");
+
+        assertEquals(3, page.getTotalElements());
+        assertTrue(searcher.isTotalExact(page, "key"));
+    }
+
+    @Test
+    public void countCachedPerKey() throws Exception {
+        final Iterable<List<Object>> chunks = Arrays.asList(Arrays.<Object>asList(1, 2, 3, 4), Arrays.<Object>asList(5, 6));
+
+        final DynamicRepositoryInvoker invoker = invokerWalking(chunks, 2);
+
+        final PredicateScopeSearcher searcher = new PredicateScopeSearcher(4, 10, 60);
+
+        assertEquals(3, searcher.count(invoker, null, EVEN, "key"));
+        assertEquals(3, searcher.count(invoker, null, EVEN, "key"));
+        verify(invoker);
+    }
+
+    @Test
+    public void uncachedScopesCountedInSingleWalk() throws Exception {
+        final Iterable<List<Object>> chunks = Arrays.asList(Arrays.<Object>asList(1, 2, 3, 4), Arrays.<Object>asList(5, 6));
+
+        final DynamicRepositoryInvoker invoker = invokerWalking(chunks, 2);
+
+        final PredicateScopeSearcher searcher = new PredicateScopeSearcher(4, 10, 60);
+
+        final long[] counts = searcher.count(invoker, null, Arrays.<Predicate>asList(EVEN, Predicates.not(EVEN)), Arrays.asList("even", "odd"));
+
+        assertEquals(3, counts[0]);
+        assertEquals(3, counts[1]);
+        assertEquals(3, searcher.count(invoker, null, EVEN, "even"));
+        verify(invoker);
+    }
+
+    private DynamicRepositoryInvoker invokerWalking(Iterable<List<Object>> chunks, int detachCalls) {
+        final DynamicRepositoryInvoker invoker = EasyMock.createMock(DynamicRepositoryInvoker.class);
+        expect(invoker.findAllInChunks(anyObject(Specification.class), anyObject(Sort.class), eq(4))).andReturn(chunks).once();
+        invoker.detach(anyObject(Iterable.class));
+        expectLastCall().times(detachCalls);
+        replay(invoker);
+        return invoker;
+    }
+}
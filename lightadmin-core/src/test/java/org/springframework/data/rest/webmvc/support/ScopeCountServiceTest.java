@@ -0,0 +1,193 @@
+package org.springframework.data.rest.webmvc.support;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.api.config.unit.ScopesConfigurationUnit;
+import org.lightadmin.api.config.utils.DomainTypePredicate;
+import org.lightadmin.api.config.utils.DomainTypeSpecification;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.scope.DefaultScopesConfigurationUnitBuilder;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnits;
+import org.lightadmin.core.persistence.repository.DynamicJpaRepository;
+import org.lightadmin.core.rest.DomainRepositoryEventListener;
+import org.lightadmin.core.test.model.Customer;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.rest.core.event.AfterDeleteEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.lightadmin.api.config.utils.ScopeMetadataUtils.*;
+import static org.lightadmin.core.test.util.JpaAnnotationMappingContext.persistentEntity;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@SuppressWarnings("unchecked")
+public class ScopeCountServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private static final DomainTypeSpecification<Customer> SMITHS = new DomainTypeSpecification<Customer>() {
+        @Override
+        public Predicate toPredicate(Root<Customer> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+            return builder.equal(root.get("lastname"), "Smith");
+        }
+    };
+
+    private static final DomainTypePredicate<Customer> SHORT_FIRSTNAME = new DomainTypePredicate<Customer>() {
+        @Override
+        public boolean apply(Customer customer) {
+            return customer.getFirstname().length() <= 3;
+        }
+    };
+
+    private static final DomainTypePredicate<Customer> LONG_FIRSTNAME = new DomainTypePredicate<Customer>() {
+        @Override
+        public boolean apply(Customer customer) {
+            return customer.getFirstname().length() > 3;
+        }
+    };
+
+    private static final List<Object> FIRST_CHUNK = Collections.<Object>singletonList(new Customer("Dave", "Matthews"));
+
+    private static final List<Object> SECOND_CHUNK = asList((Object) new Customer("Tom", "Smith"), new Customer("Ann", "Smith"));
+
+    private DynamicJpaRepository<Object, ?> repository;
+
+    private DomainTypeAdministrationConfiguration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = createMock(DynamicJpaRepository.class);
+
+        final ScopesConfigurationUnit scopes = new DefaultScopesConfigurationUnitBuilder(Customer.class)
+                .scope("All", all())
+                .scope("Smiths", specification(SMITHS))
+                .scope("Short", filter(SHORT_FIRSTNAME))
+                .scope("Long", filter(LONG_FIRSTNAME))
+                .build();
+        configuration = new CustomerConfiguration(repository, scopes);
+    }
+
+    @Test
+    public void scopesCountedInOnePassAndCached() throws Exception {
+        expectCounting(1);
+        replay(repository);
+
+        final ScopeCountService testee = new ScopeCountService(CHUNK_SIZE, 60, 10);
+
+        final Map<String, Long> scopeCounts = testee.scopeCounts(configuration);
+
+        assertEquals(asList("All", "Smiths", "Short", "Long"), asList(scopeCounts.keySet().toArray()));
+        assertEquals(3L, (long) scopeCounts.get("All"));
+        assertEquals(2L, (long) scopeCounts.get("Smiths"));
+        assertEquals(2L, (long) scopeCounts.get("Short"));
+        assertEquals(1L, (long) scopeCounts.get("Long"));
+        assertEquals(scopeCounts, testee.scopeCounts(configuration));
+        verify(repository);
+    }
+
+    @Test
+    public void predicateScopesOfLargeTableLeftUncounted() throws Exception {
+        expect(repository.countByConditions(isNull(Specification.class), eq((List) Collections.singletonList(SMITHS)))).andReturn(new long[]{3, 2});
+        replay(repository);
+
+        final Map<String, Long> scopeCounts = new ScopeCountService(CHUNK_SIZE, 60, 2).scopeCounts(configuration);
+
+        assertEquals(3L, (long) scopeCounts.get("All"));
+        assertEquals(2L, (long) scopeCounts.get("Smiths"));
+        assertNull(scopeCounts.get("Short"));
+        assertNull(scopeCounts.get("Long"));
+        verify(repository);
+    }
+
+    @Test
+    public void scopesCountedAgainAfterSave() throws Exception {
+        expectCounting(2);
+        replay(repository);
+
+        final ScopeCountService testee = new ScopeCountService(CHUNK_SIZE, 60, 10);
+        final DomainRepositoryEventListener listener = eventListener(testee);
+
+        testee.scopeCounts(configuration);
+        listener.onApplicationEvent(new AfterSaveEvent(new Customer("Tom", "Smith")));
+        testee.scopeCounts(configuration);
+
+        verify(repository);
+    }
+
+    @Test
+    public void scopesCountedAgainAfterDelete() throws Exception {
+        expectCounting(2);
+        replay(repository);
+
+        final ScopeCountService testee = new ScopeCountService(CHUNK_SIZE, 60, 10);
+        final DomainRepositoryEventListener listener = eventListener(testee);
+
+        testee.scopeCounts(configuration);
+        listener.onApplicationEvent(new AfterDeleteEvent(new Customer("Tom", "Smith")));
+        testee.scopeCounts(configuration);
+
+        verify(repository);
+    }
+
+    private void expectCounting(int times) {
+        expect(repository.countByConditions(isNull(Specification.class), eq((List) Collections.singletonList(SMITHS)))).andReturn(new long[]{3, 2}).times(times);
+        expect(repository.findAllInChunks(null, null, CHUNK_SIZE)).andReturn(asList(FIRST_CHUNK, SECOND_CHUNK)).times(times);
+        repository.detach(FIRST_CHUNK);
+        expectLastCall().times(times);
+        repository.detach(SECOND_CHUNK);
+        expectLastCall().times(times);
+    }
+
+    private static DomainRepositoryEventListener eventListener(ScopeCountService scopeCountService) {
+        final DomainRepositoryEventListener listener = new DomainRepositoryEventListener();
+        setField(listener, "configuration", new GlobalAdministrationConfiguration());
+        setField(listener, "repositories", new CustomerRepositories());
+        setField(listener, "scopeCountService", scopeCountService);
+        setField(listener, "predicateScopeSearcher", new PredicateScopeSearcher());
+        setField(listener, "associationOptionsCache", new AssociationOptionsCache(10));
+        return listener;
+    }
+
+    private static class CustomerRepositories extends Repositories {
+
+        CustomerRepositories() {
+            super(new StaticListableBeanFactory());
+        }
+
+        @Override
+        public PersistentEntity<?, ?> getPersistentEntity(Class<?> domainClass) {
+            return persistentEntity(Customer.class);
+        }
+    }
+
+    private static class CustomerConfiguration extends DomainTypeAdministrationConfiguration {
+
+        private final DynamicJpaRepository repository;
+
+        CustomerConfiguration(DynamicJpaRepository repository, ScopesConfigurationUnit scopes) {
+            super(new CustomerRepositories(), new ConfigurationUnits("CustomerConfiguration", Customer.class, Collections.<ConfigurationUnit>singleton(scopes)));
+            this.repository = repository;
+        }
+
+        @Override
+        public DynamicJpaRepository getRepository() {
+            return repository;
+        }
+    }
+}
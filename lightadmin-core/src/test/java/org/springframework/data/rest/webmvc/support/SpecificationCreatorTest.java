@@ -0,0 +1,383 @@
+package org.springframework.data.rest.webmvc.support;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightadmin.api.config.utils.FilterMetadataUtils;
+import org.lightadmin.core.config.domain.DomainTypeAdministrationConfiguration;
+import org.lightadmin.core.config.domain.GlobalAdministrationConfiguration;
+import org.lightadmin.core.config.domain.filter.DefaultFiltersConfigurationUnitBuilder;
+import org.lightadmin.core.config.domain.filter.FilterMetadata;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnit;
+import org.lightadmin.core.config.domain.unit.ConfigurationUnits;
+import org.lightadmin.core.test.model.Customer;
+import org.lightadmin.core.test.model.LineItem;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentProperty;
+import org.springframework.data.repository.support.Repositories;
+
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.criteria.*;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static java.util.Arrays.asList;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import static org.lightadmin.api.config.utils.FilterOperator.*;
+import static org.lightadmin.core.persistence.metamodel.PersistentEntityMetadata.persistentEntityMetadata;
+import static org.lightadmin.core.test.util.JpaAnnotationMappingContext.persistentEntity;
+import static org.springframework.data.rest.webmvc.support.SpecificationCreator.filterOperator;
+import static org.springframework.data.rest.webmvc.support.SpecificationCreator.filterPropertyName;
+
+@SuppressWarnings("unchecked")
+public class SpecificationCreatorTest {
+
+    private Root<Object> root;
+
+    private CriteriaQuery<Object> query;
+
+    private CriteriaBuilder builder;
+
+    private Predicate predicate;
+
+    private Predicate conjunction;
+
+    private final List<Object> mocks = newArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        root = createMock(Root.class);
+        query = createMock(CriteriaQuery.class);
+        builder = createMock(CriteriaBuilder.class);
+        predicate = createMock(Predicate.class);
+        conjunction = createMock(Predicate.class);
+    }
+
+    @Test
+    public void plainParameterHasNoOperator() throws Exception {
+        assertEquals("name", filterPropertyName("name"));
+        assertNull(filterOperator("name"));
+    }
+
+    @Test
+    public void operatorSuffixSplitFromPropertyName() throws Exception {
+        assertEquals("price", filterPropertyName("price.gte"));
+        assertEquals(GTE, filterOperator("price.gte"));
+
+        assertEquals("created", filterPropertyName("created.between"));
+        assertEquals(BETWEEN, filterOperator("created.between"));
+
+        assertEquals("email", filterPropertyName("email.isNull"));
+        assertEquals(IS_NULL, filterOperator("email.isNull"));
+    }
+
+    @Test
+    public void unknownSuffixKeptAsPartOfParameterName() throws Exception {
+        assertEquals("name.unknown", filterPropertyName("name.unknown"));
+        assertNull(filterOperator("name.unknown"));
+    }
+
+    @Test
+    public void filterPlanReusedForSameCanonicalParameters() throws Exception {
+        final PersistentEntity persistentEntity = persistentEntityWithProperty("name");
+
+        final GlobalAdministrationConfiguration configuration = new GlobalAdministrationConfiguration();
+        configuration.registerPersistentEntityMetadata(persistentEntityMetadata(persistentEntity, configuration));
+
+        final SpecificationCreator specificationCreator = new SpecificationCreator(new DefaultConversionService(), configuration);
+
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put("name", new String[]{"John"});
+        parameters.put("page", new String[]{"1"});
+
+        final Map<String, String[]> nextPageParameters = newHashMap();
+        nextPageParameters.put("name", new String[]{"John"});
+        nextPageParameters.put("page", new String[]{"2"});
+
+        final Specification specification = specificationCreator.toSpecification(persistentEntity, parameters);
+
+        assertSame(specification, specificationCreator.toSpecification(persistentEntity, nextPageParameters));
+        assertEquals(1, specificationCreator.getCacheMissCount());
+        assertEquals(1, specificationCreator.getCacheHitCount());
+    }
+
+    @Test
+    public void filterPlanCompiledAgainOnceConfigurationChanged() throws Exception {
+        final PersistentEntity persistentEntity = persistentEntityWithProperty("name");
+
+        final GlobalAdministrationConfiguration configuration = new GlobalAdministrationConfiguration();
+        configuration.registerPersistentEntityMetadata(persistentEntityMetadata(persistentEntity, configuration));
+
+        final SpecificationCreator specificationCreator = new SpecificationCreator(new DefaultConversionService(), configuration);
+
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put("name", new String[]{"John"});
+
+        final Specification specification = specificationCreator.toSpecification(persistentEntity, parameters);
+
+        configuration.removeDomainTypeConfiguration(Object.class);
+
+        assertNotSame(specification, specificationCreator.toSpecification(persistentEntity, parameters));
+        assertEquals(2, specificationCreator.getCacheMissCount());
+    }
+
+    @Test
+    public void rangeWithOpenUpperBoundIsLowerBoundOnly() throws Exception {
+        final Path<Comparable> parcels = path(root, "parcels");
+        expect(builder.greaterThanOrEqualTo(parcels, (Comparable) 3)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("parcels.between", "3,")));
+    }
+
+    @Test
+    public void rangeWithOpenLowerBoundIsUpperBoundOnly() throws Exception {
+        final Path<Comparable> parcels = path(root, "parcels");
+        expect(builder.lessThanOrEqualTo(parcels, (Comparable) 5)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("parcels.between", ",5")));
+    }
+
+    @Test
+    public void inValuesSplitAcrossParameterValues() throws Exception {
+        final Path<Comparable> parcels = path(root, "parcels");
+        expect(parcels.in(asList(1, 2, 3))).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("parcels.in", "1, 2", "3")));
+    }
+
+    @Test
+    public void prefixEscapesLikeWildcards() throws Exception {
+        final Path<String> reference = path(root, "reference");
+        expect(builder.like(reference, "50\\%\\_off\\\\%", '\\')).andReturn(predicate);
+        expect(builder.or(predicate)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("reference.prefix", "50%_off\\")));
+    }
+
+    @Test
+    public void isNullOnCollectionChecksForEmptyCollection() throws Exception {
+        final Path<Set<Object>> lineItems = path(root, "lineItems");
+        expect(builder.isEmpty(lineItems)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("lineItems.isNull", "")));
+    }
+
+    @Test
+    public void isNullFalseOnCollectionChecksForNonEmptyCollection() throws Exception {
+        final Path<Set<Object>> lineItems = path(root, "lineItems");
+        expect(builder.isNotEmpty(lineItems)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("lineItems.isNull", "false")));
+    }
+
+    @Test
+    public void unparsableNumbersAndDatesDropped() throws Exception {
+        expect(builder.and()).andReturn(conjunction);
+
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put("parcels", new String[]{"many"});
+        parameters.put("shipped.gte", new String[]{"yesterday"});
+        parameters.put("parcels.between", new String[]{"few,lots"});
+
+        assertSame(conjunction, toPredicate(shipmentSpecificationCreator().toSpecification(persistentEntity(Shipment.class), parameters)));
+    }
+
+    @Test
+    public void parsableDateKeptNextToDroppedNumber() throws Exception {
+        final Path<Comparable> shipped = path(root, "shipped");
+        expect(builder.greaterThanOrEqualTo(shipped, (Comparable) java.sql.Date.valueOf("2014-05-01"))).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put("parcels", new String[]{"many"});
+        parameters.put("shipped.gte", new String[]{"2014-05-01"});
+
+        assertSame(conjunction, toPredicate(shipmentSpecificationCreator().toSpecification(persistentEntity(Shipment.class), parameters)));
+    }
+
+    @Test
+    public void toOneAssociationMatchesAnyOfIds() throws Exception {
+        final Path<Object> customer = path(root, "customer");
+        expect(this.<Long>path(customer, "id").in(ImmutableSet.of(1L, 2L))).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("customer", "1, 2")));
+    }
+
+    @Test
+    public void toOneAssociationCannotMatchAllOfSeveralIds() throws Exception {
+        expect(builder.disjunction()).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put("customer", new String[]{"1,2"});
+
+        assertSame(conjunction, toPredicate(shipmentSpecificationCreator(matchAllValues("customer")).toSpecification(persistentEntity(Shipment.class), parameters)));
+    }
+
+    @Test
+    public void associationIdsConvertedToIdPropertyType() throws Exception {
+        final Path<Object> carrier = path(root, "carrier");
+        expect(this.<Integer>path(carrier, "number").in(ImmutableSet.of(7))).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("carrier.eq", "7")));
+    }
+
+    @Test
+    public void collectionAssociationMatchesAnyMemberWithCorrelatedExists() throws Exception {
+        final Subquery<Integer> subquery = mock(Subquery.class);
+        final Root<Object> correlatedRoot = mock(Root.class);
+        final Join<Object, Object> lineItem = mock(Join.class);
+        final Expression<Integer> one = mock(Expression.class);
+        final Predicate memberPredicate = mock(Predicate.class);
+
+        expect(query.subquery(Integer.class)).andReturn(subquery);
+        expect(subquery.correlate(root)).andReturn(correlatedRoot);
+        expect(correlatedRoot.join("lineItems")).andReturn(lineItem);
+        expect(builder.literal(1)).andReturn(one);
+        expect(subquery.select(one)).andReturn(subquery);
+        expect(this.<Long>path(lineItem, "id").in(ImmutableSet.of(4L, 5L))).andReturn(memberPredicate);
+        expect(subquery.where(memberPredicate)).andReturn(subquery);
+        expect(builder.exists(subquery)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        assertSame(conjunction, toPredicate(shipmentSpecification("lineItems", "4,5")));
+    }
+
+    @Test
+    public void collectionAssociationMatchingAllValuesCountsMatchingMembers() throws Exception {
+        final Subquery<Long> subquery = mock(Subquery.class);
+        final Root<Object> correlatedRoot = mock(Root.class);
+        final Join<Object, Object> lineItem = mock(Join.class);
+        final Expression<Long> count = mock(Expression.class);
+        final Predicate memberPredicate = mock(Predicate.class);
+
+        expect(query.subquery(Long.class)).andReturn(subquery);
+        expect(subquery.correlate(root)).andReturn(correlatedRoot);
+        expect(correlatedRoot.join("lineItems")).andReturn(lineItem);
+        expect(builder.count(lineItem)).andReturn(count);
+        expect(subquery.select(count)).andReturn(subquery);
+        expect(this.<Long>path(lineItem, "id").in(ImmutableSet.of(4L, 5L))).andReturn(memberPredicate);
+        expect(subquery.where(memberPredicate)).andReturn(subquery);
+        expect(builder.equal(subquery, 2L)).andReturn(predicate);
+        expect(builder.and(predicate)).andReturn(conjunction);
+
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put("lineItems", new String[]{"4,5,4"});
+
+        assertSame(conjunction, toPredicate(shipmentSpecificationCreator(matchAllValues("lineItems")).toSpecification(persistentEntity(Shipment.class), parameters)));
+    }
+
+    private Predicate toPredicate(Specification specification) {
+        replay(root, query, builder, predicate, conjunction);
+        replay(mocks.toArray());
+
+        final Predicate result = specification.toPredicate(root, query, builder);
+
+        verify(root, query, builder);
+        verify(mocks.toArray());
+        return result;
+    }
+
+    private <T> Path<T> path(Path<?> parent, String attributeName) {
+        final Path<T> path = mock(Path.class);
+        expect(parent.<T>get(attributeName)).andReturn(path);
+        return path;
+    }
+
+    private <T> T mock(Class<?> type) {
+        final T mock = (T) createMock(type);
+        mocks.add(mock);
+        return mock;
+    }
+
+    private static Specification shipmentSpecification(String parameterName, String... parameterValues) {
+        final Map<String, String[]> parameters = newHashMap();
+        parameters.put(parameterName, parameterValues);
+
+        return shipmentSpecificationCreator().toSpecification(persistentEntity(Shipment.class), parameters);
+    }
+
+    private static FilterMetadata matchAllValues(String fieldName) {
+        return FilterMetadataUtils.filter().field(fieldName).caption(fieldName).matchAllValues(true).build();
+    }
+
+    private static SpecificationCreator shipmentSpecificationCreator(FilterMetadata... filters) {
+        final GlobalAdministrationConfiguration configuration = new GlobalAdministrationConfiguration();
+        configuration.registerDomainTypeConfiguration(domainTypeConfiguration(Shipment.class, new DefaultFiltersConfigurationUnitBuilder(Shipment.class).filters(filters).build()));
+        configuration.registerDomainTypeConfiguration(domainTypeConfiguration(Customer.class));
+        configuration.registerDomainTypeConfiguration(domainTypeConfiguration(LineItem.class));
+        configuration.registerDomainTypeConfiguration(domainTypeConfiguration(Carrier.class));
+
+        return new SpecificationCreator(new DefaultConversionService(), configuration);
+    }
+
+    private static DomainTypeAdministrationConfiguration domainTypeConfiguration(final Class<?> domainType, ConfigurationUnit... configurationUnits) {
+        final Repositories repositories = new Repositories(new StaticListableBeanFactory()) {
+            @Override
+            public PersistentEntity<?, ?> getPersistentEntity(Class<?> type) {
+                return persistentEntity(domainType);
+            }
+        };
+        final Set<ConfigurationUnit> units = configurationUnits.length == 0 ? Collections.<ConfigurationUnit>emptySet() : newLinkedHashSet(asList(configurationUnits));
+        return new DomainTypeAdministrationConfiguration(repositories, new ConfigurationUnits(domainType.getSimpleName() + "Configuration", domainType, units));
+    }
+
+    private PersistentEntity persistentEntityWithProperty(String propertyName) {
+        final PersistentProperty persistentProperty = createNiceMock(PersistentProperty.class);
+        expect(persistentProperty.getName()).andReturn(propertyName).anyTimes();
+
+        final PersistentEntity persistentEntity = createNiceMock(PersistentEntity.class);
+        expect(persistentEntity.getType()).andReturn(Object.class).anyTimes();
+        expect(persistentEntity.getPersistentProperty(propertyName)).andReturn(persistentProperty).anyTimes();
+
+        replay(persistentProperty, persistentEntity);
+        return persistentEntity;
+    }
+
+    private static class Shipment {
+
+        @Id
+        private Long id;
+
+        private String reference;
+
+        private Integer parcels;
+
+        private Date shipped;
+
+        @ManyToOne
+        private Customer customer;
+
+        @ManyToOne
+        private Carrier carrier;
+
+        @OneToMany
+        private Set<LineItem> lineItems;
+    }
+
+    private static class Carrier {
+
+        @Id
+        private Integer number;
+    }
+}